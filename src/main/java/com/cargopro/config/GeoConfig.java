@@ -0,0 +1,24 @@
+package com.cargopro.config;
+
+import com.cargopro.geo.CsvGazetteer;
+import com.cargopro.geo.Gazetteer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+/**
+ * Default gazetteer: the bundled CSV, or the file named by
+ * {@code cargopro.geo.gazetteer-file}. Declaring another {@link Gazetteer} bean
+ * replaces it.
+ */
+@Configuration
+public class GeoConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(Gazetteer.class)
+    public Gazetteer gazetteer(@Value("${cargopro.geo.gazetteer-file:classpath:geo/places.csv}") Resource csv) {
+        return new CsvGazetteer(csv);
+    }
+}
@@ -0,0 +1,14 @@
+package com.cargopro.config;
+
+import com.cargopro.grpc.BookingRpc;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class GrpcConfig {
+
+    @Bean
+    public BookingRpc bookingRpc(ProtobufSchemas protobufSchemas) {
+        return new BookingRpc(protobufSchemas);
+    }
+}
@@ -0,0 +1,23 @@
+package com.cargopro.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jackson tuning on top of Spring Boot's auto-configured ObjectMapper, which
+ * registers every {@link Module} bean.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // Replaces reflective getter/setter calls with generated lambdas (LambdaMetafactory), which the JIT inlines.
+    // cargopro.jackson.blackbird=false falls back to plain reflection.
+    @Bean
+    @ConditionalOnProperty(name = "cargopro.jackson.blackbird", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
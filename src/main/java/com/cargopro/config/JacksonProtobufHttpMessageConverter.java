@@ -0,0 +1,50 @@
+package com.cargopro.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Reads and writes {@code application/x-protobuf} with Jackson, using the
+ * schema {@link ProtobufSchemas} generates for the declared body type. No
+ * protoc-generated classes are involved; clients get the schemas from
+ * {@code GET /schemas/{name}.proto}.
+ */
+public class JacksonProtobufHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private final ProtobufSchemas schemas;
+
+    public JacksonProtobufHttpMessageConverter(ProtobufSchemas schemas) {
+        super(schemas.getMapper(), APPLICATION_PROTOBUF, new MediaType("application", "protobuf"));
+        this.schemas = schemas;
+    }
+
+    // Only types with a schema; a bare list is left to the other converters (406 if protobuf is all that's accepted)
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return super.canRead(type, contextClass, mediaType)
+                && schemas.schemaFor(getJavaType(type, contextClass)).isPresent();
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return super.canWrite(type, clazz, mediaType)
+                && schemas.schemaFor(getJavaType(type != null ? type : clazz, null)).isPresent();
+    }
+
+    @Override
+    protected ObjectReader customizeReader(ObjectReader reader, JavaType javaType) {
+        return reader.with(schemas.schemaFor(javaType).orElseThrow());
+    }
+
+    @Override
+    protected ObjectWriter customizeWriter(ObjectWriter writer, JavaType javaType, MediaType contentType) {
+        return writer.with(schemas.schemaFor(javaType).orElseThrow());
+    }
+}
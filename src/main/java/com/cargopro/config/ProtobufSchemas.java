@@ -0,0 +1,48 @@
+package com.cargopro.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protobuf schemas derived from the DTO classes by jackson-dataformat-protobuf,
+ * one per (generic) type and generated once. Field numbers follow the order in
+ * which a class declares its properties, so new properties go at the end.
+ * Types protobuf cannot describe, such as a bare list, have no schema.
+ */
+public class ProtobufSchemas {
+
+    private final ProtobufMapper mapper;
+
+    private final Map<JavaType, Optional<ProtobufSchema>> schemas = new ConcurrentHashMap<>();
+
+    public ProtobufSchemas(ProtobufMapper mapper) {
+        // UUIDs in their text form, as in JSON; by default they go out as 16 raw bytes in a field declared string
+        mapper.registerModule(new SimpleModule().addSerializer(UUID.class, ToStringSerializer.instance));
+        this.mapper = mapper;
+    }
+
+    public ProtobufMapper getMapper() {
+        return mapper;
+    }
+
+    public Optional<ProtobufSchema> schemaFor(JavaType type) {
+        return schemas.computeIfAbsent(type, this::generate);
+    }
+
+    private Optional<ProtobufSchema> generate(JavaType type) {
+        try {
+            return Optional.of(mapper.generateSchemaFor(type));
+        } catch (JsonMappingException | IllegalArgumentException | UnsupportedOperationException ex) {
+            return Optional.empty();
+        }
+    }
+}
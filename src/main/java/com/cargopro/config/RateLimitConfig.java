@@ -0,0 +1,28 @@
+package com.cargopro.config;
+
+import com.cargopro.ratelimit.StripedTokenBuckets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    // Per tenant, client address and endpoint: requests-per-second on average, up to burst at once
+    @Bean
+    public StripedTokenBuckets requestTokenBuckets(
+            @Value("${cargopro.rate-limit.requests-per-second:20}") double requestsPerSecond,
+            @Value("${cargopro.rate-limit.burst:40}") int burst,
+            @Value("${cargopro.rate-limit.stripes:65536}") int stripes) {
+        return new StripedTokenBuckets(requestsPerSecond, burst, stripes, System::nanoTime);
+    }
+
+    // Per client address and endpoint, whatever tenants it names; several tenants may share an address
+    @Bean
+    public StripedTokenBuckets addressTokenBuckets(
+            @Value("${cargopro.rate-limit.address-requests-per-second:100}") double requestsPerSecond,
+            @Value("${cargopro.rate-limit.address-burst:200}") int burst,
+            @Value("${cargopro.rate-limit.stripes:65536}") int stripes) {
+        return new StripedTokenBuckets(requestsPerSecond, burst, stripes, System::nanoTime);
+    }
+}
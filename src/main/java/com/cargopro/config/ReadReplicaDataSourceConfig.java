@@ -0,0 +1,79 @@
+package com.cargopro.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Primary/replica data sources, active only when
+ * {@code cargopro.datasource.replica.url} is set. Without it the application
+ * keeps Spring Boot's single auto-configured data source.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cargopro.datasource.replica", name = "url")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Starts from the primary's spring.datasource.hikari settings (sizing, timeouts, driver properties such as
+    // prepareThreshold); cargopro.datasource.replica.hikari is bound afterwards and overrides only what it sets
+    @Bean
+    @ConfigurationProperties("cargopro.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            @Value("${cargopro.datasource.replica.url}") String url,
+            @Value("${cargopro.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${cargopro.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource replica = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("cargopro-replica-pool");
+        replica.setDriverClassName(properties.determineDriverClassName());
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        LazyConnectionDataSourceProxy proxy =
+                new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica));
+        // Avoid opening a connection at startup just to discover these defaults
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return proxy;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${cargopro.datasource.replica.stickiness:5s}") Duration stickiness) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(stickiness));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
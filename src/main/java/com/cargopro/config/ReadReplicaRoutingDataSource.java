@@ -0,0 +1,51 @@
+package com.cargopro.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything
+ * else to the primary.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the JPA transaction manager asks for a connection before the transaction's
+ * read-only flag is published, and the lazy proxy defers the real lookup
+ * until the first statement runs.
+ * <p>
+ * A write pins the rest of the thread's work to the primary only within an
+ * HTTP request, where {@link ReadYourWritesFilter} clears the pin afterwards.
+ * Pooled threads outside requests (scheduled jobs, gRPC calls, background
+ * workers) are never pinned, so their later reads still use the replica.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // The rest of this request must see what it is about to write
+            if (RequestContextHolder.getRequestAttributes() != null) {
+                ReadYourWritesContext.pinToPrimary();
+            }
+            return Route.PRIMARY;
+        }
+        return ReadYourWritesContext.isPinnedToPrimary() ? Route.PRIMARY : Route.REPLICA;
+    }
+}
@@ -0,0 +1,24 @@
+package com.cargopro.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Tells requests that only read from those that may write. GET, HEAD and
+ * OPTIONS only read, and so do the batch reads ({@code POST /load/batch-get},
+ * {@code POST /booking/batch-get}), which are POSTs only because their ID lists
+ * do not fit a URL.
+ */
+public final class ReadRequests {
+
+    private static final String BATCH_GET_SUFFIX = "/batch-get";
+
+    private ReadRequests() {}
+
+    public static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return true;
+        }
+        return "POST".equals(method) && request.getRequestURI().endsWith(BATCH_GET_SUFFIX);
+    }
+}
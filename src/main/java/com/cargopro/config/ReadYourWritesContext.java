@@ -0,0 +1,41 @@
+package com.cargopro.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread flag that keeps reads on the primary after this thread (or the
+ * client, via {@link ReadYourWritesFilter}) has written recently, so a read
+ * never lands on a replica that has not caught up with the caller's own write.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {}
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return Boolean.TRUE.equals(PINNED_TO_PRIMARY.get());
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    // Runs work with its reads on the primary, e.g. one that must see commits the replica may not have replayed
+    // yet; the thread is left pinned afterwards only if it was before
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean pinned = isPinnedToPrimary();
+        pinToPrimary();
+        try {
+            return work.get();
+        } finally {
+            if (!pinned) {
+                clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cargopro.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Extends read-your-writes stickiness across requests.
+ * <p>
+ * A client that sends a mutating request, i.e. anything but a
+ * {@link ReadRequests read}, gets a short-lived cookie; while it
+ * is valid, that client's read-only transactions are routed to the primary
+ * instead of a possibly lagging replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "cargopro-primary-until";
+
+    private final Duration stickiness;
+
+    public ReadYourWritesFilter(Duration stickiness) {
+        this.stickiness = stickiness;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (!ReadRequests.isRead(request)) {
+            // Set before the chain runs, the response may already be committed afterwards
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + stickiness.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, stickiness.toSeconds()));
+            response.addCookie(cookie);
+        } else if (stickyUntil(request) > now) {
+            ReadYourWritesContext.pinToPrimary();
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesContext.clear();
+        }
+    }
+
+    private long stickyUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0L;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0L;
+                }
+            }
+        }
+        return 0L;
+    }
+}
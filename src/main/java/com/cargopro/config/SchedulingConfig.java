@@ -0,0 +1,15 @@
+package com.cargopro.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on the background maintenance jobs. Tests switch it off with
+ * {@code cargopro.scheduling.enabled=false}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "cargopro.scheduling", name = "enabled", matchIfMissing = true)
+public class SchedulingConfig {
+}
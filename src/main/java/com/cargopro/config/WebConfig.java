@@ -0,0 +1,73 @@
+package com.cargopro.config;
+
+import com.cargopro.ratelimit.RateLimitInterceptor;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary representations next to JSON: CBOR ({@code application/cbor}),
+ * Smile ({@code application/x-jackson-smile}) and protobuf
+ * ({@code application/x-protobuf}), chosen through the Accept and
+ * Content-Type headers. All of them share the application's Jackson
+ * configuration; JSON stays first, so it remains the default.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    // Prototype-scoped in Spring Boot: each getObject() is a fresh builder with the application's settings
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    @Bean
+    public ProtobufSchemas protobufSchemas() {
+        ProtobufMapper mapper = new ProtobufMapper();
+        objectMapperBuilder.getObject().configure(mapper);
+        return new ProtobufSchemas(mapper);
+    }
+
+    // Spring MVC already adds CBOR and Smile converters when the libraries are present, but with default mappers
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+        converters.add(new JacksonProtobufHttpMessageConverter(protobufSchemas()));
+    }
+
+    // Responses differ by Accept while their ETags do not, so shared caches must key on it. Rate limits run
+    // after, so refused requests carry Vary as well.
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/load/**", "/booking/**");
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/load/**", "/booking/**");
+    }
+}
@@ -1,15 +1,27 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.AutoAcceptRule;
+import com.cargopro.dto.BatchGetRequest;
+import com.cargopro.dto.BatchGetResponse;
 import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingFilter;
+import com.cargopro.dto.BookingSubmission;
+import com.cargopro.dto.ChangeSet;
+import com.cargopro.dto.ListVersion;
 import com.cargopro.dto.PagedResponse;
-import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.CountMode;
 import com.cargopro.service.BookingService;
+import com.cargopro.service.BookingSubmissionService;
+import com.cargopro.service.IdempotencyKeys;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,23 +32,92 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
-    // POST /booking - Create a new booking
+    @Autowired
+    private BookingSubmissionService bookingSubmissionService;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    // POST /booking - Create a new booking; a retry carrying the same Idempotency-Key gets the first response back
     @PostMapping
-    public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody BookingDto bookingDto) {
-        BookingDto createdBooking = bookingService.createBooking(bookingDto);
-        return new ResponseEntity<>(createdBooking, HttpStatus.CREATED);
+    public ResponseEntity<BookingDto> createBooking(
+            @Valid @RequestBody BookingDto bookingDto,
+            @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+
+        return idempotentRequests.execute("POST /booking", idempotencyKey, bookingDto, BookingDto.class,
+                HttpStatus.CREATED, () -> bookingService.createBooking(bookingDto));
+    }
+
+    // POST /booking/submissions - Queue a booking to be created in the background, for bursts of bids on hot loads.
+    // Answers 202 with the submission, whose Location reports the outcome once processed; a repeated
+    // Idempotency-Key returns the submission first made with it. 503 with Retry-After while the queue is full.
+    @PostMapping("/submissions")
+    public ResponseEntity<BookingSubmission> submitBooking(
+            @Valid @RequestBody BookingDto bookingDto,
+            @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+
+        BookingSubmission submission = bookingSubmissionService.submit(bookingDto, idempotencyKey);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{submissionId}")
+                .buildAndExpand(submission.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(submission);
     }
 
-    // GET /booking - Get bookings with pagination and filtering
+    // GET /booking/submissions/{submissionId} - Status of a queued booking: QUEUED, CREATED with the booking's id,
+    // or REJECTED with the reason
+    @GetMapping("/submissions/{submissionId}")
+    public ResponseEntity<BookingSubmission> getSubmission(@PathVariable UUID submissionId) {
+        BookingSubmission submission = bookingSubmissionService.getSubmission(submissionId);
+        return ResponseEntity.ok(submission);
+    }
+
+    // GET /booking - Get bookings with pagination and filtering; every BookingFilter field is an optional query
+    // parameter, count is exact, estimate or none. Answers 304 to an If-None-Match that still matches before
+    // reading the page; not with expand=load, as the tag does not cover the loads.
     @GetMapping
     public ResponseEntity<PagedResponse<BookingDto>> getBookings(
-            @RequestParam(required = false) UUID loadId,
-            @RequestParam(required = false) String transporterId,
-            @RequestParam(required = false) BookingStatus status,
+            BookingFilter filter,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        
-        PagedResponse<BookingDto> bookings = bookingService.getBookings(loadId, transporterId, status, page, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String expand,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest webRequest) {
+
+        CountMode countMode = CountMode.fromParameter(count);
+        boolean expandLoad = expandsLoad(expand);
+        if (expandLoad) {
+            return ResponseEntity.ok(bookingService.getBookings(filter, countMode, page, size, true));
+        }
+        // Taken before the page, so a change in between can only make the tag stale, never the body
+        ListVersion version = null;
+        if (ETags.wantsListVersion(webRequest, countMode)) {
+            version = bookingService.getBookingsVersion(filter);
+            if (webRequest.checkNotModified(ETags.forList(version))) {
+                return null;
+            }
+        }
+        PagedResponse<BookingDto> bookings =
+                bookingService.getBookings(filter, countMode, page, size, false, version);
+        return ResponseEntity.ok(bookings);
+    }
+
+    // GET /booking/changes - Bookings inserted, updated or deleted since a token from an earlier call (none for a
+    // full sync), for clients keeping a local copy
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeSet<BookingDto>> getBookingChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+
+        ChangeSet<BookingDto> changes = bookingService.getBookingChanges(since, Math.max(1, Math.min(size, 1000)));
+        return ResponseEntity.ok(changes);
+    }
+
+    // POST /booking/batch-get - Bookings for up to 1000 IDs in one round trip, in request order; IDs not found are
+    // listed under missing instead of failing the request
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResponse<BookingDto>> batchGetBookings(@Valid @RequestBody BatchGetRequest request) {
+        BatchGetResponse<BookingDto> bookings = bookingService.getBookingsByIds(request.getIds());
         return ResponseEntity.ok(bookings);
     }
 
@@ -44,7 +125,11 @@ public class BookingController {
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDto> getBookingById(@PathVariable UUID bookingId) {
         BookingDto booking = bookingService.getBookingById(bookingId);
-        return ResponseEntity.ok(booking);
+        // Spring answers 304 itself when If-None-Match or If-Modified-Since still match
+        return ResponseEntity.ok()
+                .eTag(ETags.forItem(booking.getId(), booking.getVersion()))
+                .lastModified(ETags.lastModified(booking.getUpdatedAt()))
+                .body(booking);
     }
 
     // PUT /booking/{bookingId} - Update booking details
@@ -78,8 +163,9 @@ public class BookingController {
 
     // GET /booking/load/{loadId} - Get all bookings for a specific load
     @GetMapping("/load/{loadId}")
-    public ResponseEntity<List<BookingDto>> getBookingsByLoadId(@PathVariable UUID loadId) {
-        List<BookingDto> bookings = bookingService.getBookingsByLoadId(loadId);
+    public ResponseEntity<List<BookingDto>> getBookingsByLoadId(@PathVariable UUID loadId,
+                                                                @RequestParam(required = false) String expand) {
+        List<BookingDto> bookings = bookingService.getBookingsByLoadId(loadId, expandsLoad(expand));
         return ResponseEntity.ok(bookings);
     }
 
@@ -89,4 +175,49 @@ public class BookingController {
         List<BookingDto> bookings = bookingService.getActiveBookingsByLoadId(loadId);
         return ResponseEntity.ok(bookings);
     }
-} 
\ No newline at end of file
+
+    // GET /booking/load/{loadId}/top - The best pending bids for a load, lowest proposed rate first (earliest first
+    // among equal rates); limit is capped at cargopro.ranking.top-k
+    @GetMapping("/load/{loadId}/top")
+    public ResponseEntity<List<BookingDto>> getTopBookingsByLoadId(@PathVariable UUID loadId,
+                                                                   @RequestParam(defaultValue = "10") int limit) {
+        List<BookingDto> bookings = bookingService.getTopBookingsByLoadId(loadId, limit);
+        return ResponseEntity.ok(bookings);
+    }
+
+    // PUT /booking/load/{loadId}/auto-accept - Accept the first pending bid at or under maxRate automatically,
+    // starting with the best bid already in if it qualifies
+    @PutMapping("/load/{loadId}/auto-accept")
+    public ResponseEntity<AutoAcceptRule> setAutoAcceptRule(@PathVariable UUID loadId,
+                                                            @Valid @RequestBody AutoAcceptRule rule) {
+        AutoAcceptRule savedRule = bookingService.setAutoAcceptRule(loadId, rule);
+        return ResponseEntity.ok(savedRule);
+    }
+
+    // GET /booking/load/{loadId}/auto-accept - Get the auto-accept rule of a load
+    @GetMapping("/load/{loadId}/auto-accept")
+    public ResponseEntity<AutoAcceptRule> getAutoAcceptRule(@PathVariable UUID loadId) {
+        AutoAcceptRule rule = bookingService.getAutoAcceptRule(loadId);
+        return ResponseEntity.ok(rule);
+    }
+
+    // DELETE /booking/load/{loadId}/auto-accept - Stop auto-accepting bids for a load
+    @DeleteMapping("/load/{loadId}/auto-accept")
+    public ResponseEntity<Void> deleteAutoAcceptRule(@PathVariable UUID loadId) {
+        bookingService.deleteAutoAcceptRule(loadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // expand=load (case-insensitive, may be one of a comma-separated list)
+    private boolean expandsLoad(String expand) {
+        if (expand == null) {
+            return false;
+        }
+        for (String part : expand.split(",")) {
+            if ("load".equalsIgnoreCase(part.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.cargopro.controller;
+
+import com.cargopro.dto.ListVersion;
+import com.cargopro.enums.CountMode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Validators for conditional GETs. An item is identified by its id and row
+ * version, which every committed update increments; a list by its
+ * {@link ListVersion}. Both are weak: the same version may go out gzipped or
+ * not, and Tomcat does not compress responses carrying a strong ETag.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static String forItem(UUID id, Long version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+
+    // Whether a list version is worth reading: to answer If-None-Match, or for an exactly counted page, whose
+    // count query it then replaces. Otherwise the page goes out untagged rather than pay for a count not asked for.
+    static boolean wantsListVersion(WebRequest webRequest, CountMode countMode) {
+        return countMode == CountMode.EXACT || webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null;
+    }
+
+    // Count and last write of the matching rows, plus a digest of the older transactions still running, if any
+    static String forList(ListVersion version) {
+        String tag = Long.toHexString(version.getCount()) + "-" + Long.toHexString(version.getWriteXid());
+        if (version.getPendingXids().length > 0) {
+            tag += "-" + Integer.toHexString(Arrays.hashCode(version.getPendingXids()));
+        }
+        return "W/\"" + tag + "\"";
+    }
+
+    // Epoch millis for the Last-Modified header, or -1 for none
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
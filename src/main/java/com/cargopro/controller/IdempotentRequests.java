@@ -0,0 +1,165 @@
+package com.cargopro.controller;
+
+import com.cargopro.exception.BusinessException;
+import com.cargopro.repository.IdempotencyKeyRepository;
+import com.cargopro.repository.IdempotencyKeyRepository.StoredResponse;
+import com.cargopro.service.IdempotencyKeys;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Honors the {@code Idempotency-Key} request header of create endpoints. The
+ * first request with a key runs and its response is stored; a retry with the
+ * same key and body gets the stored response, marked
+ * {@code Idempotent-Replayed: true}, without running again. Stored responses
+ * live in {@code idempotency_keys} for {@code cargopro.idempotency.ttl}, with
+ * the most recently used ones also cached in memory.
+ */
+@Component
+class IdempotentRequests {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotentRequests.class);
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${cargopro.idempotency.ttl:24h}")
+    private Duration ttl = Duration.ofHours(24);
+
+    @Value("${cargopro.idempotency.cache-size:5000}")
+    private int cacheSize = 5000;
+
+    // Least recently used first; guarded by itself
+    private final Map<String, StoredResponse> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Answer with create's result and status, or with the response stored for the key if it was used before for
+    // the operation. Without a key, create simply runs.
+    <T> ResponseEntity<T> execute(String operation, String idempotencyKey, Object request, Class<T> responseType,
+                                  HttpStatus status, Supplier<T> create) {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(create.get(), status);
+        }
+        IdempotencyKeys.validate(idempotencyKey);
+        byte[] requestHash = hash(request);
+        String cacheKey = operation + ' ' + idempotencyKey;
+        StoredResponse cached = getCached(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        // The create joins this transaction, so the key is stored if and only if the create commits
+        return transactionTemplate.execute(transaction -> {
+            LocalDateTime expiresAt = LocalDateTime.now().plus(ttl);
+            if (!idempotencyKeyRepository.claim(operation, idempotencyKey, requestHash, expiresAt)) {
+                StoredResponse stored = idempotencyKeyRepository.find(operation, idempotencyKey)
+                        .orElseThrow(() -> new BusinessException("A request with this " + IdempotencyKeys.HEADER
+                                + " is still in progress"));
+                putCached(cacheKey, stored);
+                return replay(stored, requestHash, responseType);
+            }
+            T body = create.get();
+            String json = toJson(body);
+            idempotencyKeyRepository.complete(operation, idempotencyKey, status.value(), json);
+            StoredResponse stored = new StoredResponse(requestHash, status.value(), json, expiresAt);
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        putCached(cacheKey, stored);
+                    }
+                });
+            } else {
+                putCached(cacheKey, stored);
+            }
+            return new ResponseEntity<>(body, status);
+        });
+    }
+
+    @Scheduled(cron = "${cargopro.idempotency.purge-cron:0 5 * * * *}")
+    public void purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, byte[] requestHash, Class<T> responseType) {
+        if (!Arrays.equals(stored.getRequestHash(), requestHash)) {
+            throw new BusinessException(IdempotencyKeys.HEADER + " was already used for a different request");
+        }
+        try {
+            return ResponseEntity.status(stored.getStatusCode())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(objectMapper.readValue(stored.getBody(), responseType));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private StoredResponse getCached(String cacheKey) {
+        synchronized (cache) {
+            StoredResponse stored = cache.get(cacheKey);
+            if (stored != null && stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+                cache.remove(cacheKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    private void putCached(String cacheKey, StoredResponse stored) {
+        synchronized (cache) {
+            cache.put(cacheKey, stored);
+            if (cache.size() > cacheSize) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        }
+    }
+
+    private byte[] hash(Object request) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -1,15 +1,28 @@
 package com.cargopro.controller;
 
+import com.cargopro.dto.BatchGetRequest;
+import com.cargopro.dto.BatchGetResponse;
+import com.cargopro.dto.ChangeSet;
+import com.cargopro.dto.ListVersion;
 import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.LoadFilter;
 import com.cargopro.dto.PagedResponse;
+import com.cargopro.enums.CountMode;
 import com.cargopro.enums.LoadStatus;
+import com.cargopro.geo.GeoPoint;
+import com.cargopro.matching.LoadMatchIndex;
+import com.cargopro.service.IdempotencyKeys;
 import com.cargopro.service.LoadService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -19,23 +32,121 @@ public class LoadController {
     @Autowired
     private LoadService loadService;
 
-    // POST /load - Create a new load
+    @Autowired
+    private LoadMatchIndex loadMatchIndex;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    // POST /load - Create a new load; a retry carrying the same Idempotency-Key gets the first response back
     @PostMapping
-    public ResponseEntity<LoadDto> createLoad(@Valid @RequestBody LoadDto loadDto) {
-        LoadDto createdLoad = loadService.createLoad(loadDto);
-        return new ResponseEntity<>(createdLoad, HttpStatus.CREATED);
+    public ResponseEntity<LoadDto> createLoad(
+            @Valid @RequestBody LoadDto loadDto,
+            @RequestHeader(value = IdempotencyKeys.HEADER, required = false) String idempotencyKey) {
+
+        return idempotentRequests.execute("POST /load", idempotencyKey, loadDto, LoadDto.class, HttpStatus.CREATED,
+                () -> loadService.createLoad(loadDto));
     }
 
-    // GET /load - Get loads with pagination and filtering
+    // GET /load - Get loads with pagination and filtering; every LoadFilter field is an optional query parameter,
+    // count is exact, estimate or none. Answers 304 to an If-None-Match that still matches before reading the page.
     @GetMapping
     public ResponseEntity<PagedResponse<LoadDto>> getLoads(
-            @RequestParam(required = false) String shipperId,
-            @RequestParam(required = false) String truckType,
+            LoadFilter filter,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest webRequest) {
+
+        CountMode countMode = CountMode.fromParameter(count);
+        // Taken before the page, so a change in between can only make the tag stale, never the body
+        ListVersion version = null;
+        if (ETags.wantsListVersion(webRequest, countMode)) {
+            version = loadService.getLoadsVersion(filter);
+            if (webRequest.checkNotModified(ETags.forList(version))) {
+                return null;
+            }
+        }
+        PagedResponse<LoadDto> loads = loadService.getLoads(filter, countMode, page, size, version);
+        return ResponseEntity.ok(loads);
+    }
+
+    // GET /load/changes - Loads inserted, updated or deleted since a token from an earlier call (none for a full
+    // sync), for clients keeping a local copy
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeSet<LoadDto>> getLoadChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int size) {
+
+        ChangeSet<LoadDto> changes = loadService.getLoadChanges(since, Math.max(1, Math.min(size, 1000)));
+        return ResponseEntity.ok(changes);
+    }
+
+    // POST /load/batch-get - Loads for up to 1000 IDs in one round trip, in request order; IDs not found are listed
+    // under missing instead of failing the request
+    @PostMapping("/batch-get")
+    public ResponseEntity<BatchGetResponse<LoadDto>> batchGetLoads(@Valid @RequestBody BatchGetRequest request) {
+        BatchGetResponse<LoadDto> loads = loadService.getLoadsByIds(request.getIds());
+        return ResponseEntity.ok(loads);
+    }
+
+    // GET /load/search - Search loads by city, product type or comment, ranked by relevance
+    @GetMapping("/search")
+    public ResponseEntity<PagedResponse<LoadDto>> searchLoads(
+            @RequestParam String q,
             @RequestParam(required = false) LoadStatus status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        
-        PagedResponse<LoadDto> loads = loadService.getLoads(shipperId, truckType, status, page, size);
+
+        PagedResponse<LoadDto> loads = loadService.searchLoads(q, status, page, size);
+        return ResponseEntity.ok(loads);
+    }
+
+    // GET /load/nearby - Loads picked up near an origin and/or delivered near a destination.
+    // Points are given as coordinates or as a place name known to the gazetteer.
+    @GetMapping("/nearby")
+    public ResponseEntity<PagedResponse<LoadDto>> findNearbyLoads(
+            @RequestParam(required = false) Double originLat,
+            @RequestParam(required = false) Double originLng,
+            @RequestParam(required = false) String origin,
+            @RequestParam(defaultValue = "50") double originRadiusKm,
+            @RequestParam(required = false) Double destinationLat,
+            @RequestParam(required = false) Double destinationLng,
+            @RequestParam(required = false) String destination,
+            @RequestParam(defaultValue = "50") double destinationRadiusKm,
+            @RequestParam(defaultValue = "POSTED") LoadStatus status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+
+        GeoPoint originPoint = loadService.resolvePoint(originLat, originLng, origin);
+        GeoPoint destinationPoint = loadService.resolvePoint(destinationLat, destinationLng, destination);
+        PagedResponse<LoadDto> loads = loadService.findNearbyLoads(originPoint, originRadiusKm,
+                destinationPoint, destinationRadiusKm, status, page, size);
+        return ResponseEntity.ok(loads);
+    }
+
+    // GET /load/match - Real-time matching of posted loads from the in-memory index (no database access)
+    @GetMapping("/match")
+    public ResponseEntity<List<LoadDto>> matchLoads(
+            @RequestParam String truckType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double originLat,
+            @RequestParam(required = false) Double originLng,
+            @RequestParam(required = false) String origin,
+            @RequestParam(defaultValue = "50") double originRadiusKm,
+            @RequestParam(required = false) Double destinationLat,
+            @RequestParam(required = false) Double destinationLng,
+            @RequestParam(required = false) String destination,
+            @RequestParam(defaultValue = "50") double destinationRadiusKm,
+            @RequestParam(defaultValue = "50") int limit) {
+
+        GeoPoint originPoint = loadService.resolvePoint(originLat, originLng, origin);
+        GeoPoint destinationPoint = loadService.resolvePoint(destinationLat, destinationLng, destination);
+        loadService.validateSearchRadius(originPoint, originRadiusKm);
+        loadService.validateSearchRadius(destinationPoint, destinationRadiusKm);
+        List<LoadDto> loads = loadMatchIndex.match(truckType, from, to, originPoint, originRadiusKm,
+                destinationPoint, destinationRadiusKm, Math.max(1, Math.min(limit, 500)));
         return ResponseEntity.ok(loads);
     }
 
@@ -43,7 +154,11 @@ public class LoadController {
     @GetMapping("/{loadId}")
     public ResponseEntity<LoadDto> getLoadById(@PathVariable UUID loadId) {
         LoadDto load = loadService.getLoadById(loadId);
-        return ResponseEntity.ok(load);
+        // Spring answers 304 itself when If-None-Match or If-Modified-Since still match
+        return ResponseEntity.ok()
+                .eTag(ETags.forItem(load.getId(), load.getVersion()))
+                .lastModified(ETags.lastModified(load.getUpdatedAt()))
+                .body(load);
     }
 
     // PUT /load/{loadId} - Update load details
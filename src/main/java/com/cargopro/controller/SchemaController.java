@@ -0,0 +1,83 @@
+package com.cargopro.controller;
+
+import com.cargopro.config.ProtobufSchemas;
+import com.cargopro.dto.BatchGetRequest;
+import com.cargopro.dto.BatchGetResponse;
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingSubmission;
+import com.cargopro.dto.ChangeSet;
+import com.cargopro.dto.FacilityDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.PagedResponse;
+import com.cargopro.exception.ErrorResponse;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.grpc.BookingRpc;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/schemas")
+public class SchemaController {
+
+    private static final String BOOKING_SERVICE = "booking-service";
+
+    @Autowired
+    private ProtobufSchemas protobufSchemas;
+
+    @Autowired
+    private BookingRpc bookingRpc;
+
+    // GET /schemas - Names of the message types available as .proto files, and of the gRPC service
+    @GetMapping
+    public ResponseEntity<Iterable<String>> getSchemaNames() {
+        List<String> names = new ArrayList<>(types().keySet());
+        names.add(BOOKING_SERVICE);
+        return ResponseEntity.ok(names);
+    }
+
+    // GET /schemas/{name}.proto - Protobuf schema of an application/x-protobuf request or response body, or
+    // booking-service.proto for the gRPC service with its messages
+    @GetMapping(value = "/{name}.proto", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getSchema(@PathVariable String name) {
+        if (BOOKING_SERVICE.equals(name)) {
+            return ResponseEntity.ok(bookingRpc.protoSource());
+        }
+        JavaType type = types().get(name);
+        if (type == null) {
+            throw new ResourceNotFoundException("Schema not found with name: " + name);
+        }
+        return protobufSchemas.schemaFor(type)
+                .map(schema -> ResponseEntity.ok(schema.getSource().toString()))
+                .orElseThrow(() -> new ResourceNotFoundException("Schema not found with name: " + name));
+    }
+
+    private Map<String, JavaType> types() {
+        TypeFactory typeFactory = protobufSchemas.getMapper().getTypeFactory();
+        Map<String, JavaType> types = new LinkedHashMap<>();
+        types.put("load", typeFactory.constructType(LoadDto.class));
+        types.put("facility", typeFactory.constructType(FacilityDto.class));
+        types.put("booking", typeFactory.constructType(BookingDto.class));
+        types.put("load-page", typeFactory.constructParametricType(PagedResponse.class, LoadDto.class));
+        types.put("booking-page", typeFactory.constructParametricType(PagedResponse.class, BookingDto.class));
+        types.put("load-changes", typeFactory.constructParametricType(ChangeSet.class, LoadDto.class));
+        types.put("booking-changes", typeFactory.constructParametricType(ChangeSet.class, BookingDto.class));
+        types.put("batch-get-request", typeFactory.constructType(BatchGetRequest.class));
+        types.put("load-batch", typeFactory.constructParametricType(BatchGetResponse.class, LoadDto.class));
+        types.put("booking-batch", typeFactory.constructParametricType(BatchGetResponse.class, BookingDto.class));
+        types.put("booking-submission", typeFactory.constructType(BookingSubmission.class));
+        types.put("error", typeFactory.constructType(ErrorResponse.class));
+        return types;
+    }
+}
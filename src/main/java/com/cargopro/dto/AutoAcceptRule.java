@@ -0,0 +1,71 @@
+package com.cargopro.dto;
+
+import com.cargopro.enums.BookingStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Body of PUT /booking/load/{loadId}/auto-accept: pending bids at or under maxRate are accepted automatically.
+// loadId and createdAt are set by the server.
+public class AutoAcceptRule {
+
+    private UUID loadId;
+
+    @NotNull(message = "Max rate is required")
+    @Positive(message = "Max rate must be positive")
+    private Double maxRate;
+
+    private LocalDateTime createdAt;
+
+    // Default constructor
+    public AutoAcceptRule() {}
+
+    public AutoAcceptRule(UUID loadId, Double maxRate, LocalDateTime createdAt) {
+        this.loadId = loadId;
+        this.maxRate = maxRate;
+        this.createdAt = createdAt;
+    }
+
+    // Whether the rule accepts the booking: a pending bid for the rule's load at or under maxRate
+    public boolean accepts(BookingDto booking) {
+        return booking.getLoadId().equals(loadId)
+                && booking.getStatus() == BookingStatus.PENDING
+                && booking.getProposedRate() != null && booking.getProposedRate() <= maxRate;
+    }
+
+    // Getters and Setters
+    public UUID getLoadId() {
+        return loadId;
+    }
+
+    public void setLoadId(UUID loadId) {
+        this.loadId = loadId;
+    }
+
+    public Double getMaxRate() {
+        return maxRate;
+    }
+
+    public void setMaxRate(Double maxRate) {
+        this.maxRate = maxRate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "AutoAcceptRule{" +
+                "loadId=" + loadId +
+                ", maxRate=" + maxRate +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
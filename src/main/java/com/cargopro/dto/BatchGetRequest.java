@@ -0,0 +1,33 @@
+package com.cargopro.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+// Body of POST /load/batch-get and POST /booking/batch-get
+public class BatchGetRequest {
+
+    public static final int MAX_IDS = 1000;
+
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids per request")
+    private List<@NotNull(message = "Ids must not be null") UUID> ids;
+
+    // Default constructor
+    public BatchGetRequest() {}
+
+    public BatchGetRequest(List<UUID> ids) {
+        this.ids = ids;
+    }
+
+    public List<UUID> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<UUID> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,39 @@
+package com.cargopro.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a batch get: the rows found, in the order their ids were
+ * requested (each id once), and the requested ids that matched nothing.
+ */
+public class BatchGetResponse<T> {
+
+    private List<T> found;
+    private List<UUID> missing;
+
+    // Default constructor
+    public BatchGetResponse() {}
+
+    public BatchGetResponse(List<T> found, List<UUID> missing) {
+        this.found = found;
+        this.missing = missing;
+    }
+
+    // Getters and Setters
+    public List<T> getFound() {
+        return found;
+    }
+
+    public void setFound(List<T> found) {
+        this.found = found;
+    }
+
+    public List<UUID> getMissing() {
+        return missing;
+    }
+
+    public void setMissing(List<UUID> missing) {
+        this.missing = missing;
+    }
+}
@@ -2,6 +2,7 @@ package com.cargopro.dto;
 
 import com.cargopro.enums.BookingStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -31,6 +32,16 @@ public class BookingDto {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime requestedAt;
 
+    // Sent as the ETag and Last-Modified headers of GET responses rather than in the body
+    @JsonIgnore
+    private Long version;
+
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
+    // Only populated when the client asks for expand=load
+    private LoadDto load;
+
     // Default constructor
     public BookingDto() {}
 
@@ -42,6 +53,17 @@ public class BookingDto {
         this.comment = comment;
     }
 
+    // Constructor used by JPQL constructor expressions in BookingRepository
+    public BookingDto(UUID id, UUID loadId, String transporterId, Double proposedRate, String comment,
+                      BookingStatus status, LocalDateTime requestedAt, Long version, LocalDateTime updatedAt) {
+        this(loadId, transporterId, proposedRate, comment);
+        this.id = id;
+        this.status = status;
+        this.requestedAt = requestedAt;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -99,6 +121,30 @@ public class BookingDto {
         this.requestedAt = requestedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LoadDto getLoad() {
+        return load;
+    }
+
+    public void setLoad(LoadDto load) {
+        this.load = load;
+    }
+
     @Override
     public String toString() {
         return "BookingDto{" +
@@ -109,6 +155,8 @@ public class BookingDto {
                 ", comment='" + comment + '\'' +
                 ", status=" + status +
                 ", requestedAt=" + requestedAt +
+                ", version=" + version +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 } 
\ No newline at end of file
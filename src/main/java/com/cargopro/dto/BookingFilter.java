@@ -0,0 +1,84 @@
+package com.cargopro.dto;
+
+import com.cargopro.enums.BookingStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Optional criteria for {@code GET /booking}, bound from query parameters. Unset
+ * criteria are left out of the generated query altogether. The requested-at
+ * range is half-open, {@code [requestedFrom, requestedTo)}; {@code status} may
+ * be repeated or comma-separated.
+ */
+public class BookingFilter {
+
+    private UUID loadId;
+
+    private String transporterId;
+
+    private List<BookingStatus> status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime requestedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime requestedTo;
+
+    // Default constructor
+    public BookingFilter() {}
+
+    // Getters and Setters
+    public UUID getLoadId() {
+        return loadId;
+    }
+
+    public void setLoadId(UUID loadId) {
+        this.loadId = loadId;
+    }
+
+    public String getTransporterId() {
+        return transporterId;
+    }
+
+    public void setTransporterId(String transporterId) {
+        this.transporterId = transporterId;
+    }
+
+    public List<BookingStatus> getStatus() {
+        return status;
+    }
+
+    public void setStatus(List<BookingStatus> status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getRequestedFrom() {
+        return requestedFrom;
+    }
+
+    public void setRequestedFrom(LocalDateTime requestedFrom) {
+        this.requestedFrom = requestedFrom;
+    }
+
+    public LocalDateTime getRequestedTo() {
+        return requestedTo;
+    }
+
+    public void setRequestedTo(LocalDateTime requestedTo) {
+        this.requestedTo = requestedTo;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingFilter{" +
+                "loadId=" + loadId +
+                ", transporterId='" + transporterId + '\'' +
+                ", status=" + status +
+                ", requestedFrom=" + requestedFrom +
+                ", requestedTo=" + requestedTo +
+                '}';
+    }
+}
@@ -0,0 +1,172 @@
+package com.cargopro.dto;
+
+import com.cargopro.enums.SubmissionStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A bid accepted by {@code POST /booking/submissions} and created as a booking
+ * in the background. The id is the tracking id clients poll; once the
+ * submission is processed it carries either the booking id or the reason the
+ * bid was refused.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingSubmission {
+
+    private UUID id;
+
+    private UUID loadId;
+
+    private String transporterId;
+
+    private Double proposedRate;
+
+    private String comment;
+
+    private SubmissionStatus status;
+
+    private UUID bookingId;
+
+    private String error;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime submittedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime processedAt;
+
+    // Client-chosen key that makes retried submissions return the first one
+    @JsonIgnore
+    private String idempotencyKey;
+
+    // Default constructor
+    public BookingSubmission() {}
+
+    // A new, queued submission of the bid
+    public BookingSubmission(UUID id, BookingDto booking, String idempotencyKey) {
+        this.id = id;
+        this.loadId = booking.getLoadId();
+        this.transporterId = booking.getTransporterId();
+        this.proposedRate = booking.getProposedRate();
+        this.comment = booking.getComment();
+        this.status = SubmissionStatus.QUEUED;
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    // The bid as the booking to create
+    public BookingDto toBooking() {
+        return new BookingDto(loadId, transporterId, proposedRate, comment);
+    }
+
+    // Whether the bid is the one this submission was made for, e.g. when an idempotency key is reused
+    public boolean isSameBid(BookingDto booking) {
+        return loadId.equals(booking.getLoadId())
+                && transporterId.equals(booking.getTransporterId())
+                && proposedRate.equals(booking.getProposedRate())
+                && (comment == null ? booking.getComment() == null : comment.equals(booking.getComment()));
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getLoadId() {
+        return loadId;
+    }
+
+    public void setLoadId(UUID loadId) {
+        this.loadId = loadId;
+    }
+
+    public String getTransporterId() {
+        return transporterId;
+    }
+
+    public void setTransporterId(String transporterId) {
+        this.transporterId = transporterId;
+    }
+
+    public Double getProposedRate() {
+        return proposedRate;
+    }
+
+    public void setProposedRate(Double proposedRate) {
+        this.proposedRate = proposedRate;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public SubmissionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SubmissionStatus status) {
+        this.status = status;
+    }
+
+    public UUID getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(UUID bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSubmission{" +
+                "id=" + id +
+                ", loadId=" + loadId +
+                ", transporterId='" + transporterId + '\'' +
+                ", status=" + status +
+                ", bookingId=" + bookingId +
+                '}';
+    }
+}
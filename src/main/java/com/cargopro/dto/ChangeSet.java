@@ -0,0 +1,71 @@
+package com.cargopro.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of a change feed: the current state of rows inserted or updated
+ * since the client's token, and the ids of rows deleted since then. Pass
+ * {@code nextToken} as {@code since} on the next call; while {@code hasMore}
+ * is true there are further changes to fetch right away.
+ */
+public class ChangeSet<T> {
+
+    private List<T> changed;
+    private List<UUID> deleted;
+    private String nextToken;
+    private boolean hasMore;
+
+    // Default constructor
+    public ChangeSet() {}
+
+    public ChangeSet(List<T> changed, List<UUID> deleted, String nextToken, boolean hasMore) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.nextToken = nextToken;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<T> getChanged() {
+        return changed;
+    }
+
+    public void setChanged(List<T> changed) {
+        this.changed = changed;
+    }
+
+    public List<UUID> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<UUID> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet{" +
+                "changed=" + changed +
+                ", deleted=" + deleted +
+                ", nextToken='" + nextToken + '\'' +
+                ", hasMore=" + hasMore +
+                '}';
+    }
+}
@@ -1,6 +1,8 @@
 package com.cargopro.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -22,6 +24,23 @@ public class FacilityDto {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime unloadingDate;
 
+    // Optional; filled from the gazetteer when the place name is known
+    @DecimalMin(value = "-90.0", message = "Loading latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Loading latitude must be between -90 and 90")
+    private Double loadingLatitude;
+
+    @DecimalMin(value = "-180.0", message = "Loading longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Loading longitude must be between -180 and 180")
+    private Double loadingLongitude;
+
+    @DecimalMin(value = "-90.0", message = "Unloading latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Unloading latitude must be between -90 and 90")
+    private Double unloadingLatitude;
+
+    @DecimalMin(value = "-180.0", message = "Unloading longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Unloading longitude must be between -180 and 180")
+    private Double unloadingLongitude;
+
     // Default constructor
     public FacilityDto() {}
 
@@ -33,6 +52,16 @@ public class FacilityDto {
         this.unloadingDate = unloadingDate;
     }
 
+    // Constructor with coordinates
+    public FacilityDto(String loadingPoint, String unloadingPoint, LocalDateTime loadingDate, LocalDateTime unloadingDate,
+                       Double loadingLatitude, Double loadingLongitude, Double unloadingLatitude, Double unloadingLongitude) {
+        this(loadingPoint, unloadingPoint, loadingDate, unloadingDate);
+        this.loadingLatitude = loadingLatitude;
+        this.loadingLongitude = loadingLongitude;
+        this.unloadingLatitude = unloadingLatitude;
+        this.unloadingLongitude = unloadingLongitude;
+    }
+
     // Getters and Setters
     public String getLoadingPoint() {
         return loadingPoint;
@@ -66,6 +95,38 @@ public class FacilityDto {
         this.unloadingDate = unloadingDate;
     }
 
+    public Double getLoadingLatitude() {
+        return loadingLatitude;
+    }
+
+    public void setLoadingLatitude(Double loadingLatitude) {
+        this.loadingLatitude = loadingLatitude;
+    }
+
+    public Double getLoadingLongitude() {
+        return loadingLongitude;
+    }
+
+    public void setLoadingLongitude(Double loadingLongitude) {
+        this.loadingLongitude = loadingLongitude;
+    }
+
+    public Double getUnloadingLatitude() {
+        return unloadingLatitude;
+    }
+
+    public void setUnloadingLatitude(Double unloadingLatitude) {
+        this.unloadingLatitude = unloadingLatitude;
+    }
+
+    public Double getUnloadingLongitude() {
+        return unloadingLongitude;
+    }
+
+    public void setUnloadingLongitude(Double unloadingLongitude) {
+        this.unloadingLongitude = unloadingLongitude;
+    }
+
     @Override
     public String toString() {
         return "FacilityDto{" +
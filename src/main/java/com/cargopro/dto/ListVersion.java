@@ -0,0 +1,53 @@
+package com.cargopro.dto;
+
+import java.util.Arrays;
+
+/**
+ * Identifies the rows a list filter matches without reading them: how many
+ * there are and the last transaction that wrote one of them, from the
+ * {@code change_xid} stamps of the change feed. A committed insert, or an
+ * update leaving the row matching, raises {@code writeXid}; a delete, or an
+ * update that takes the row out of the filter, lowers {@code count}.
+ * <p>
+ * Transaction ids are handed out at the first write, not at commit, so a
+ * transaction older than {@code writeXid} may still commit behind it without
+ * moving either value. Those still running when the version was read are
+ * part of it as {@code pendingXids}; once one of them finishes, the version
+ * read next no longer lists it.
+ */
+public class ListVersion {
+
+    private final long count;
+
+    private final long writeXid;
+
+    // Transactions below writeXid still running when the version was read, in ascending order
+    private final long[] pendingXids;
+
+    public ListVersion(long count, long writeXid, long[] pendingXids) {
+        this.count = count;
+        this.writeXid = writeXid;
+        this.pendingXids = pendingXids;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getWriteXid() {
+        return writeXid;
+    }
+
+    public long[] getPendingXids() {
+        return pendingXids;
+    }
+
+    @Override
+    public String toString() {
+        return "ListVersion{" +
+                "count=" + count +
+                ", writeXid=" + writeXid +
+                ", pendingXids=" + Arrays.toString(pendingXids) +
+                '}';
+    }
+}
@@ -2,6 +2,7 @@ package com.cargopro.dto;
 
 import com.cargopro.enums.LoadStatus;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
@@ -40,6 +41,13 @@ public class LoadDto {
 
     private LoadStatus status;
 
+    // Sent as the ETag and Last-Modified headers of GET responses rather than in the body
+    @JsonIgnore
+    private Long version;
+
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
     // Default constructor
     public LoadDto() {}
 
@@ -55,6 +63,23 @@ public class LoadDto {
         this.comment = comment;
     }
 
+    // Constructor used by JPQL constructor expressions in LoadRepository
+    public LoadDto(UUID id, String shipperId, String loadingPoint, String unloadingPoint,
+                   LocalDateTime loadingDate, LocalDateTime unloadingDate,
+                   Double loadingLatitude, Double loadingLongitude, Double unloadingLatitude, Double unloadingLongitude,
+                   String productType, String truckType,
+                   Integer noOfTrucks, Double weight, String comment, LocalDateTime datePosted, LoadStatus status,
+                   Long version, LocalDateTime updatedAt) {
+        this(shipperId, new FacilityDto(loadingPoint, unloadingPoint, loadingDate, unloadingDate,
+                        loadingLatitude, loadingLongitude, unloadingLatitude, unloadingLongitude),
+                productType, truckType, noOfTrucks, weight, comment);
+        this.id = id;
+        this.datePosted = datePosted;
+        this.status = status;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -136,6 +161,22 @@ public class LoadDto {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "LoadDto{" +
@@ -149,6 +190,8 @@ public class LoadDto {
                 ", comment='" + comment + '\'' +
                 ", datePosted=" + datePosted +
                 ", status=" + status +
+                ", version=" + version +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.cargopro.dto;
+
+import com.cargopro.enums.LoadStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Optional criteria for {@code GET /load}, bound from query parameters. Unset
+ * criteria are left out of the generated query altogether. Date and number
+ * ranges are inclusive; {@code status} may be repeated or comma-separated.
+ */
+public class LoadFilter {
+
+    private String shipperId;
+
+    private String truckType;
+
+    private String productType;
+
+    private List<LoadStatus> status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime loadingFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime loadingTo;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime unloadingFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime unloadingTo;
+
+    private Double minWeight;
+
+    private Double maxWeight;
+
+    private Integer minTrucks;
+
+    private Integer maxTrucks;
+
+    // Default constructor
+    public LoadFilter() {}
+
+    // Getters and Setters
+    public String getShipperId() {
+        return shipperId;
+    }
+
+    public void setShipperId(String shipperId) {
+        this.shipperId = shipperId;
+    }
+
+    public String getTruckType() {
+        return truckType;
+    }
+
+    public void setTruckType(String truckType) {
+        this.truckType = truckType;
+    }
+
+    public String getProductType() {
+        return productType;
+    }
+
+    public void setProductType(String productType) {
+        this.productType = productType;
+    }
+
+    public List<LoadStatus> getStatus() {
+        return status;
+    }
+
+    public void setStatus(List<LoadStatus> status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getLoadingFrom() {
+        return loadingFrom;
+    }
+
+    public void setLoadingFrom(LocalDateTime loadingFrom) {
+        this.loadingFrom = loadingFrom;
+    }
+
+    public LocalDateTime getLoadingTo() {
+        return loadingTo;
+    }
+
+    public void setLoadingTo(LocalDateTime loadingTo) {
+        this.loadingTo = loadingTo;
+    }
+
+    public LocalDateTime getUnloadingFrom() {
+        return unloadingFrom;
+    }
+
+    public void setUnloadingFrom(LocalDateTime unloadingFrom) {
+        this.unloadingFrom = unloadingFrom;
+    }
+
+    public LocalDateTime getUnloadingTo() {
+        return unloadingTo;
+    }
+
+    public void setUnloadingTo(LocalDateTime unloadingTo) {
+        this.unloadingTo = unloadingTo;
+    }
+
+    public Double getMinWeight() {
+        return minWeight;
+    }
+
+    public void setMinWeight(Double minWeight) {
+        this.minWeight = minWeight;
+    }
+
+    public Double getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(Double maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public Integer getMinTrucks() {
+        return minTrucks;
+    }
+
+    public void setMinTrucks(Integer minTrucks) {
+        this.minTrucks = minTrucks;
+    }
+
+    public Integer getMaxTrucks() {
+        return maxTrucks;
+    }
+
+    public void setMaxTrucks(Integer maxTrucks) {
+        this.maxTrucks = maxTrucks;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadFilter{" +
+                "shipperId='" + shipperId + '\'' +
+                ", truckType='" + truckType + '\'' +
+                ", productType='" + productType + '\'' +
+                ", status=" + status +
+                ", loadingFrom=" + loadingFrom +
+                ", loadingTo=" + loadingTo +
+                ", unloadingFrom=" + unloadingFrom +
+                ", unloadingTo=" + unloadingTo +
+                ", minWeight=" + minWeight +
+                ", maxWeight=" + maxWeight +
+                ", minTrucks=" + minTrucks +
+                ", maxTrucks=" + maxTrucks +
+                '}';
+    }
+}
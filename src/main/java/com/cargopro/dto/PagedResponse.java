@@ -1,8 +1,11 @@
 package com.cargopro.dto;
 
+import com.cargopro.enums.CountMode;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
+import java.util.function.LongSupplier;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
@@ -10,10 +13,12 @@ public class PagedResponse<T> {
     private List<T> content;
     private int page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    // Left out when counting was skipped (count mode none)
+    private Long totalElements;
+    private Integer totalPages;
     private boolean hasNext;
     private boolean hasPrevious;
+    private CountMode countMode;
 
     // Default constructor
     public PagedResponse() {}
@@ -27,6 +32,41 @@ public class PagedResponse<T> {
         this.totalPages = totalPages;
         this.hasNext = hasNext;
         this.hasPrevious = hasPrevious;
+        this.countMode = CountMode.EXACT;
+    }
+
+    // Response for a slice, with totalElements arrived at as countMode asks. Once the last page is reached the
+    // total is known without counting, and is then reported as exact whatever the mode.
+    public static <T> PagedResponse<T> of(Slice<T> slice, CountMode countMode,
+                                          LongSupplier exactCount, LongSupplier estimatedCount) {
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements();
+        boolean lastPage = !slice.hasNext() && (slice.hasContent() || slice.isFirst());
+
+        Long totalElements;
+        CountMode usedMode = countMode;
+        if (lastPage && countMode != CountMode.NONE) {
+            totalElements = seen;
+            usedMode = CountMode.EXACT;
+        } else if (countMode == CountMode.EXACT) {
+            totalElements = exactCount.getAsLong();
+        } else if (countMode == CountMode.ESTIMATE) {
+            // Statistics can lag behind; never report fewer rows than this page proves exist
+            totalElements = Math.max(estimatedCount.getAsLong(), seen + (slice.hasNext() ? 1 : 0));
+        } else {
+            totalElements = null;
+        }
+
+        PagedResponse<T> response = new PagedResponse<>();
+        response.setContent(slice.getContent());
+        response.setPage(slice.getNumber());
+        response.setSize(slice.getSize());
+        response.setTotalElements(totalElements);
+        response.setTotalPages(totalElements == null ? null
+                : (int) ((totalElements + slice.getSize() - 1) / slice.getSize()));
+        response.setHasNext(slice.hasNext());
+        response.setHasPrevious(slice.hasPrevious());
+        response.setCountMode(usedMode);
+        return response;
     }
 
     // Getters and Setters
@@ -54,19 +94,19 @@ public class PagedResponse<T> {
         this.size = size;
     }
 
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
 
-    public void setTotalElements(long totalElements) {
+    public void setTotalElements(Long totalElements) {
         this.totalElements = totalElements;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
 
@@ -86,6 +126,14 @@ public class PagedResponse<T> {
         this.hasPrevious = hasPrevious;
     }
 
+    public CountMode getCountMode() {
+        return countMode;
+    }
+
+    public void setCountMode(CountMode countMode) {
+        this.countMode = countMode;
+    }
+
     @Override
     public String toString() {
         return "PagedResponse{" +
@@ -96,6 +144,7 @@ public class PagedResponse<T> {
                 ", totalPages=" + totalPages +
                 ", hasNext=" + hasNext +
                 ", hasPrevious=" + hasPrevious +
+                ", countMode=" + countMode +
                 '}';
     }
 } 
\ No newline at end of file
@@ -6,8 +6,10 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.PartitionKey;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
@@ -16,7 +18,7 @@ public class Booking {
 
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @GenericGenerator(name = "UUID", strategy = "com.cargopro.entity.UuidV7Generator")
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -39,9 +41,20 @@ public class Booking {
     @Column(name = "status", nullable = false)
     private BookingStatus status = BookingStatus.PENDING;
 
-    @Column(name = "requested_at", nullable = false)
+    // The table is range-partitioned on it (V2); Hibernate adds it to the WHERE of every UPDATE and DELETE of
+    // the row, so Postgres prunes to one partition instead of probing each
+    @PartitionKey
+    @Column(name = "requested_at", nullable = false, updatable = false)
     private LocalDateTime requestedAt;
 
+    // Incremented on every update; also guards concurrent updates (optimistic locking)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "load_id", insertable = false, updatable = false)
     private Load load;
@@ -117,6 +130,22 @@ public class Booking {
         this.requestedAt = requestedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public Load getLoad() {
         return load;
     }
@@ -125,6 +154,13 @@ public class Booking {
         this.load = load;
     }
 
+    // Stored at the column's microsecond precision, so the in-memory value matches what is read back
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     @Override
     public String toString() {
         return "Booking{" +
@@ -135,6 +171,8 @@ public class Booking {
                 ", comment='" + comment + '\'' +
                 ", status=" + status +
                 ", requestedAt=" + requestedAt +
+                ", version=" + version +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 } 
\ No newline at end of file
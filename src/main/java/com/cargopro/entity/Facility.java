@@ -25,6 +25,19 @@ public class Facility {
     @Column(name = "unloading_date", nullable = false)
     private LocalDateTime unloadingDate;
 
+    // Optional coordinates; the geography columns used for radius queries are generated from these
+    @Column(name = "loading_lat")
+    private Double loadingLatitude;
+
+    @Column(name = "loading_lng")
+    private Double loadingLongitude;
+
+    @Column(name = "unloading_lat")
+    private Double unloadingLatitude;
+
+    @Column(name = "unloading_lng")
+    private Double unloadingLongitude;
+
     // Default constructor
     public Facility() {}
 
@@ -69,6 +82,38 @@ public class Facility {
         this.unloadingDate = unloadingDate;
     }
 
+    public Double getLoadingLatitude() {
+        return loadingLatitude;
+    }
+
+    public void setLoadingLatitude(Double loadingLatitude) {
+        this.loadingLatitude = loadingLatitude;
+    }
+
+    public Double getLoadingLongitude() {
+        return loadingLongitude;
+    }
+
+    public void setLoadingLongitude(Double loadingLongitude) {
+        this.loadingLongitude = loadingLongitude;
+    }
+
+    public Double getUnloadingLatitude() {
+        return unloadingLatitude;
+    }
+
+    public void setUnloadingLatitude(Double unloadingLatitude) {
+        this.unloadingLatitude = unloadingLatitude;
+    }
+
+    public Double getUnloadingLongitude() {
+        return unloadingLongitude;
+    }
+
+    public void setUnloadingLongitude(Double unloadingLongitude) {
+        this.unloadingLongitude = unloadingLongitude;
+    }
+
     @Override
     public String toString() {
         return "Facility{" +
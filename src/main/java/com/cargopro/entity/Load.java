@@ -7,6 +7,7 @@ import jakarta.validation.constraints.*;
 import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -17,7 +18,7 @@ public class Load {
 
     @Id
     @GeneratedValue(generator = "UUID")
-    @GenericGenerator(name = "UUID", strategy = "org.hibernate.id.UUIDGenerator")
+    @GenericGenerator(name = "UUID", strategy = "com.cargopro.entity.UuidV7Generator")
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -55,6 +56,14 @@ public class Load {
     @Column(name = "status", nullable = false)
     private LoadStatus status = LoadStatus.POSTED;
 
+    // Incremented on every update; also guards concurrent updates (optimistic locking)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
     @OneToMany(mappedBy = "load", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Booking> bookings = new ArrayList<>();
 
@@ -157,6 +166,22 @@ public class Load {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     public List<Booking> getBookings() {
         return bookings;
     }
@@ -165,6 +190,13 @@ public class Load {
         this.bookings = bookings;
     }
 
+    // Stored at the column's microsecond precision, so the in-memory value matches what is read back
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     // Business methods
     public void addBooking(Booking booking) {
         bookings.add(booking);
@@ -200,6 +232,8 @@ public class Load {
                 ", comment='" + comment + '\'' +
                 ", datePosted=" + datePosted +
                 ", status=" + status +
+                ", version=" + version +
+                ", updatedAt=" + updatedAt +
                 '}';
     }
 } 
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.cargopro.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates time-ordered UUIDv7 identifiers (RFC 9562).
+ * <p>
+ * The first 48 bits are the Unix time in milliseconds, followed by a 12-bit
+ * counter that keeps IDs from the same millisecond increasing, then 62 random
+ * bits. New rows therefore land at the right-hand edge of the primary-key
+ * B-tree instead of on random pages. The column type stays {@code uuid}, so
+ * rows created with the previous random (v4) generator remain valid.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Last issued (timestamp << 12 | counter); the counter may carry into the timestamp under bursts
+    private static final AtomicLong LAST_STATE = new AtomicLong();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return next();
+    }
+
+    public static UUID next() {
+        long candidate = System.currentTimeMillis() << 12;
+        long state = LAST_STATE.updateAndGet(last -> candidate > last ? candidate : last + 1);
+
+        long mostSigBits = (state >>> 12) << 16      // unix_ts_ms
+                | 0x7000L                            // version 7
+                | (state & 0xFFFL);                  // rand_a used as counter
+        long leastSigBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL)
+                | 0x8000000000000000L;               // variant 10
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // The creation time embedded in a UUIDv7; empty for other versions, such as rows from the v4 generator
+    public static Optional<Instant> timestampOf(UUID id) {
+        if (id.version() != 7) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16));
+    }
+}
@@ -0,0 +1,28 @@
+package com.cargopro.enums;
+
+import com.cargopro.exception.BusinessException;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Locale;
+
+// How a paged response arrives at totalElements: COUNT(*), the planner's row estimate, or not at all
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE;
+
+    @JsonValue
+    public String parameterValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // Parses the count query parameter (exact, estimate or none)
+    public static CountMode fromParameter(String value) {
+        for (CountMode mode : values()) {
+            if (mode.parameterValue().equalsIgnoreCase(value.trim())) {
+                return mode;
+            }
+        }
+        throw new BusinessException("Invalid count mode '" + value + "': expected exact, estimate or none");
+    }
+}
@@ -0,0 +1,8 @@
+package com.cargopro.enums;
+
+// Lifecycle of an asynchronous booking submission: waiting in the queue, turned into a booking, or refused
+public enum SubmissionStatus {
+    QUEUED,
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,56 @@
+package com.cargopro.event;
+
+import com.cargopro.dto.BookingDto;
+
+import java.util.UUID;
+
+/**
+ * Published by {@code BookingService} whenever a booking is created, updated,
+ * changes status or is deleted. Listeners should react after commit;
+ * {@link #getBooking()} is the state as written, or {@code null} for a delete.
+ */
+public class BookingChangedEvent {
+
+    private final UUID bookingId;
+    private final UUID loadId;
+    private final BookingDto booking;
+
+    private BookingChangedEvent(UUID bookingId, UUID loadId, BookingDto booking) {
+        this.bookingId = bookingId;
+        this.loadId = loadId;
+        this.booking = booking;
+    }
+
+    public static BookingChangedEvent saved(BookingDto booking) {
+        return new BookingChangedEvent(booking.getId(), booking.getLoadId(), booking);
+    }
+
+    public static BookingChangedEvent deleted(UUID bookingId, UUID loadId) {
+        return new BookingChangedEvent(bookingId, loadId, null);
+    }
+
+    public UUID getBookingId() {
+        return bookingId;
+    }
+
+    public UUID getLoadId() {
+        return loadId;
+    }
+
+    public BookingDto getBooking() {
+        return booking;
+    }
+
+    public boolean isDeleted() {
+        return booking == null;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingChangedEvent{" +
+                "bookingId=" + bookingId +
+                ", loadId=" + loadId +
+                ", deleted=" + isDeleted() +
+                '}';
+    }
+}
@@ -0,0 +1,21 @@
+package com.cargopro.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@code BookingSubmissionService} when a booking submission is
+ * queued, so idle workers of this instance pick it up after commit instead of
+ * on their next poll.
+ */
+public class BookingSubmittedEvent {
+
+    private final UUID submissionId;
+
+    public BookingSubmittedEvent(UUID submissionId) {
+        this.submissionId = submissionId;
+    }
+
+    public UUID getSubmissionId() {
+        return submissionId;
+    }
+}
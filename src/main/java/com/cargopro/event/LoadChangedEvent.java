@@ -0,0 +1,49 @@
+package com.cargopro.event;
+
+import com.cargopro.dto.LoadDto;
+
+import java.util.UUID;
+
+/**
+ * Published by {@code LoadService} whenever a load is created, updated, changes
+ * status or is deleted. Listeners that keep derived state should react after
+ * commit; {@link #getLoad()} is the state as written, or {@code null} for a delete.
+ */
+public class LoadChangedEvent {
+
+    private final UUID loadId;
+    private final LoadDto load;
+
+    private LoadChangedEvent(UUID loadId, LoadDto load) {
+        this.loadId = loadId;
+        this.load = load;
+    }
+
+    public static LoadChangedEvent saved(LoadDto load) {
+        return new LoadChangedEvent(load.getId(), load);
+    }
+
+    public static LoadChangedEvent deleted(UUID loadId) {
+        return new LoadChangedEvent(loadId, null);
+    }
+
+    public UUID getLoadId() {
+        return loadId;
+    }
+
+    public LoadDto getLoad() {
+        return load;
+    }
+
+    public boolean isDeleted() {
+        return load == null;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadChangedEvent{" +
+                "loadId=" + loadId +
+                ", deleted=" + isDeleted() +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.cargopro.exception;
+
+import java.time.Duration;
+
+// The client has used up its request budget for the endpoint; retryAfter tells when the next request is allowed
+public class RateLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
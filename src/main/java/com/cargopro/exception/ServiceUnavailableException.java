@@ -0,0 +1,18 @@
+package com.cargopro.exception;
+
+import java.time.Duration;
+
+// The request was refused to protect the service, e.g. a full queue; retryAfter (may be null) hints when to retry
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
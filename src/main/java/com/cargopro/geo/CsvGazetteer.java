@@ -0,0 +1,72 @@
+package com.cargopro.geo;
+
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Gazetteer backed by a {@code name,latitude,longitude} CSV file held in memory.
+ * Names are matched case-insensitively with surrounding whitespace ignored, and
+ * a place such as "Andheri, Mumbai" falls back to its last comma-separated part.
+ * Lines starting with {@code #} are comments.
+ */
+public class CsvGazetteer implements Gazetteer {
+
+    private final Map<String, GeoPoint> places;
+
+    public CsvGazetteer(Resource csv) {
+        this.places = load(csv);
+    }
+
+    @Override
+    public Optional<GeoPoint> lookup(String placeName) {
+        if (placeName == null || placeName.isBlank()) {
+            return Optional.empty();
+        }
+        GeoPoint point = places.get(normalize(placeName));
+        if (point == null && placeName.contains(",")) {
+            point = places.get(normalize(placeName.substring(placeName.lastIndexOf(',') + 1)));
+        }
+        return Optional.ofNullable(point);
+    }
+
+    public int size() {
+        return places.size();
+    }
+
+    private static Map<String, GeoPoint> load(Resource csv) {
+        Map<String, GeoPoint> places = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(csv.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                if (fields.length != 3) {
+                    throw new IllegalStateException("Malformed gazetteer line " + lineNumber + " in " + csv + ": " + line);
+                }
+                places.put(normalize(fields[0]),
+                        new GeoPoint(Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim())));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read gazetteer " + csv, e);
+        }
+        return places;
+    }
+
+    private static String normalize(String placeName) {
+        return placeName.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,14 @@
+package com.cargopro.geo;
+
+import java.util.Optional;
+
+/**
+ * Resolves free-text place names (as used in {@code Facility.loadingPoint} and
+ * {@code unloadingPoint}) to coordinates. Lookups must be local and fast: they
+ * run inside load create/update requests. Provide a bean of this type to
+ * replace the bundled CSV gazetteer.
+ */
+public interface Gazetteer {
+
+    Optional<GeoPoint> lookup(String placeName);
+}
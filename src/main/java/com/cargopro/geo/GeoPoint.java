@@ -0,0 +1,31 @@
+package com.cargopro.geo;
+
+/**
+ * A WGS84 latitude/longitude pair in degrees.
+ */
+public final class GeoPoint {
+
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    @Override
+    public String toString() {
+        return "GeoPoint{" +
+                "latitude=" + latitude +
+                ", longitude=" + longitude +
+                '}';
+    }
+}
@@ -0,0 +1,135 @@
+package com.cargopro.grpc;
+
+import com.cargopro.config.ReadYourWritesContext;
+import com.cargopro.dto.BookingDto;
+import com.cargopro.service.BookingService;
+import com.cargopro.service.LoadService;
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * gRPC face of {@link BookingService} for high-volume clients such as broker
+ * integrations. Requests are validated like {@code POST /booking} bodies and
+ * failures are reported with the status {@link GrpcStatuses} maps them to.
+ */
+@Component
+public class BookingGrpcService implements BindableService {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoadService loadService;
+
+    @Autowired
+    private BookingWatchers bookingWatchers;
+
+    @Autowired
+    private BookingRpc bookingRpc;
+
+    @Autowired
+    private Validator validator;
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition.builder(bookingRpc.getServiceDescriptor())
+                .addMethod(bookingRpc.getCreateBooking(), ServerCalls.asyncUnaryCall(this::createBooking))
+                .addMethod(bookingRpc.getCreateBookings(), ServerCalls.asyncClientStreamingCall(this::createBookings))
+                .addMethod(bookingRpc.getAcceptBooking(), ServerCalls.asyncUnaryCall(this::acceptBooking))
+                .addMethod(bookingRpc.getWatchLoadBookings(),
+                        ServerCalls.asyncServerStreamingCall(this::watchLoadBookings))
+                .build();
+    }
+
+    // CreateBooking - Same as POST /booking
+    void createBooking(BookingDto request, StreamObserver<BookingDto> responseObserver) {
+        try {
+            validate(request);
+            responseObserver.onNext(bookingService.createBooking(request));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(GrpcStatuses.from(ex).asRuntimeException());
+        }
+    }
+
+    // CreateBookings - A stream of bookings, each created in its own transaction as it arrives. One failing does not
+    // end the stream; the response lists the outcome of every booking.
+    StreamObserver<BookingDto> createBookings(StreamObserver<CreateBookingsResponse> responseObserver) {
+        CreateBookingsResponse response = new CreateBookingsResponse();
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(BookingDto booking) {
+                int index = response.getResults().size();
+                try {
+                    validate(booking);
+                    response.add(BookingResult.created(index, bookingService.createBooking(booking).getId()));
+                } catch (RuntimeException ex) {
+                    Status status = GrpcStatuses.from(ex);
+                    response.add(BookingResult.failed(index, status.getCode().name(), status.getDescription()));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Cancelled by the client; bookings created up to here stay
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    // AcceptBooking - Same as PUT /booking/{bookingId}/accept
+    void acceptBooking(BookingIdRequest request, StreamObserver<BookingDto> responseObserver) {
+        try {
+            UUID bookingId = required(request.getBookingId(), "Booking ID is required");
+            responseObserver.onNext(bookingService.acceptBooking(bookingId));
+            responseObserver.onCompleted();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(GrpcStatuses.from(ex).asRuntimeException());
+        }
+    }
+
+    // WatchLoadBookings - The load's bookings, then every change to them until the client cancels
+    void watchLoadBookings(LoadIdRequest request, StreamObserver<BookingUpdate> responseObserver) {
+        try {
+            UUID loadId = required(request.getLoadId(), "Load ID is required");
+            loadService.getLoadById(loadId);
+            // The snapshot must hold every booking committed before the watcher was registered, which a lagging
+            // replica may not have replayed yet; later changes come from events, so only the snapshot needs this
+            bookingWatchers.watch(loadId, (ServerCallStreamObserver<BookingUpdate>) responseObserver,
+                    () -> ReadYourWritesContext.onPrimary(() -> bookingService.getBookingsByLoadId(loadId, false)));
+        } catch (RuntimeException ex) {
+            responseObserver.onError(GrpcStatuses.from(ex).asRuntimeException());
+        }
+    }
+
+    private void validate(BookingDto booking) {
+        Set<ConstraintViolation<BookingDto>> violations = validator.validate(booking);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private static <T> T required(T value, String message) {
+        if (value == null) {
+            throw Status.INVALID_ARGUMENT.withDescription(message).asRuntimeException();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.cargopro.grpc;
+
+import java.util.UUID;
+
+// Request message of AcceptBooking
+public class BookingIdRequest {
+
+    private UUID bookingId;
+
+    // Default constructor
+    public BookingIdRequest() {}
+
+    public BookingIdRequest(UUID bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public UUID getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(UUID bookingId) {
+        this.bookingId = bookingId;
+    }
+}
@@ -0,0 +1,72 @@
+package com.cargopro.grpc;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one booking submitted through CreateBookings: the id of the
+ * created booking, or the gRPC status code and message it was refused with.
+ * {@code index} is the position of the booking in the request stream.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingResult {
+
+    private int index;
+
+    private UUID bookingId;
+
+    private String errorCode;
+
+    private String errorMessage;
+
+    // Default constructor
+    public BookingResult() {}
+
+    public static BookingResult created(int index, UUID bookingId) {
+        BookingResult result = new BookingResult();
+        result.index = index;
+        result.bookingId = bookingId;
+        return result;
+    }
+
+    public static BookingResult failed(int index, String errorCode, String errorMessage) {
+        BookingResult result = new BookingResult();
+        result.index = index;
+        result.errorCode = errorCode;
+        result.errorMessage = errorMessage;
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public UUID getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(UUID bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public void setErrorCode(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
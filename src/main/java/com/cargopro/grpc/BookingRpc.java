@@ -0,0 +1,120 @@
+package com.cargopro.grpc;
+
+import com.cargopro.config.ProtobufSchemas;
+import com.cargopro.dto.BookingDto;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.ServiceDescriptor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Method descriptors of the {@code cargopro.BookingService} gRPC service, the
+ * counterpart of what protoc would generate. Clients in other languages
+ * generate their stubs from {@link #protoSource()}, published at
+ * {@code GET /schemas/booking-service.proto}.
+ */
+public class BookingRpc {
+
+    public static final String SERVICE_NAME = "cargopro.BookingService";
+
+    private final MethodDescriptor<BookingDto, BookingDto> createBooking;
+    private final MethodDescriptor<BookingDto, CreateBookingsResponse> createBookings;
+    private final MethodDescriptor<BookingIdRequest, BookingDto> acceptBooking;
+    private final MethodDescriptor<LoadIdRequest, BookingUpdate> watchLoadBookings;
+    private final ServiceDescriptor serviceDescriptor;
+
+    public BookingRpc(ProtobufSchemas schemas) {
+        createBooking = method(schemas, "CreateBooking", MethodType.UNARY, BookingDto.class, BookingDto.class);
+        createBookings = method(schemas, "CreateBookings", MethodType.CLIENT_STREAMING,
+                BookingDto.class, CreateBookingsResponse.class);
+        acceptBooking = method(schemas, "AcceptBooking", MethodType.UNARY, BookingIdRequest.class, BookingDto.class);
+        watchLoadBookings = method(schemas, "WatchLoadBookings", MethodType.SERVER_STREAMING,
+                LoadIdRequest.class, BookingUpdate.class);
+        serviceDescriptor = ServiceDescriptor.newBuilder(SERVICE_NAME)
+                .addMethod(createBooking)
+                .addMethod(createBookings)
+                .addMethod(acceptBooking)
+                .addMethod(watchLoadBookings)
+                .build();
+    }
+
+    public MethodDescriptor<BookingDto, BookingDto> getCreateBooking() {
+        return createBooking;
+    }
+
+    public MethodDescriptor<BookingDto, CreateBookingsResponse> getCreateBookings() {
+        return createBookings;
+    }
+
+    public MethodDescriptor<BookingIdRequest, BookingDto> getAcceptBooking() {
+        return acceptBooking;
+    }
+
+    public MethodDescriptor<LoadIdRequest, BookingUpdate> getWatchLoadBookings() {
+        return watchLoadBookings;
+    }
+
+    public ServiceDescriptor getServiceDescriptor() {
+        return serviceDescriptor;
+    }
+
+    // The service and every message it uses as one .proto file
+    public String protoSource() {
+        List<MethodDescriptor<?, ?>> methods = List.of(createBooking, createBookings, acceptBooking,
+                watchLoadBookings);
+        StringBuilder service = new StringBuilder("service BookingService {\n");
+        Map<String, String> messages = new LinkedHashMap<>();
+        for (MethodDescriptor<?, ?> method : methods) {
+            ProtobufMarshaller<?> request = (ProtobufMarshaller<?>) method.getRequestMarshaller();
+            ProtobufMarshaller<?> response = (ProtobufMarshaller<?>) method.getResponseMarshaller();
+            service.append("  rpc ").append(method.getBareMethodName())
+                    .append(" (").append(method.getType().clientSendsOneMessage() ? "" : "stream ")
+                    .append(request.getSchema().getRootType().getName())
+                    .append(") returns (").append(method.getType().serverSendsOneMessage() ? "" : "stream ")
+                    .append(response.getSchema().getRootType().getName()).append(");\n");
+            addMessages(messages, request.getSchema().getSource().toString());
+            addMessages(messages, response.getSchema().getSource().toString());
+        }
+        service.append("}\n");
+
+        StringBuilder source = new StringBuilder("syntax = \"proto2\";\n\npackage cargopro;\n\n").append(service);
+        for (String message : messages.values()) {
+            source.append('\n').append(message);
+        }
+        return source.toString();
+    }
+
+    // Splits a generated schema into its "// Message for ..." and "// Enum for ..." blocks, keeping the first of each
+    private static void addMessages(Map<String, String> messages, String schema) {
+        String header = null;
+        StringBuilder block = new StringBuilder();
+        for (String line : schema.split("\n")) {
+            if (line.startsWith("// Message for ") || line.startsWith("// Enum for ")) {
+                if (header != null) {
+                    messages.putIfAbsent(header, block.toString());
+                }
+                header = line;
+                block.setLength(0);
+            }
+            if (header != null) {
+                block.append(line).append('\n');
+            }
+        }
+        if (header != null) {
+            messages.putIfAbsent(header, block.toString());
+        }
+    }
+
+    private static <Q, R> MethodDescriptor<Q, R> method(ProtobufSchemas schemas, String name, MethodType type,
+                                                        Class<Q> requestType, Class<R> responseType) {
+        return MethodDescriptor.<Q, R>newBuilder()
+                .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, name))
+                .setType(type)
+                .setRequestMarshaller(new ProtobufMarshaller<>(schemas, requestType))
+                .setResponseMarshaller(new ProtobufMarshaller<>(schemas, responseType))
+                .build();
+    }
+}
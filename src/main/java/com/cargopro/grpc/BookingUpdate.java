@@ -0,0 +1,61 @@
+package com.cargopro.grpc;
+
+import com.cargopro.dto.BookingDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Message of the WatchLoadBookings stream: the current state of a booking of
+ * the watched load, or only its id with {@code deleted} set once it is gone.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingUpdate {
+
+    private UUID bookingId;
+
+    private boolean deleted;
+
+    private BookingDto booking;
+
+    // Default constructor
+    public BookingUpdate() {}
+
+    public static BookingUpdate saved(BookingDto booking) {
+        BookingUpdate update = new BookingUpdate();
+        update.bookingId = booking.getId();
+        update.booking = booking;
+        return update;
+    }
+
+    public static BookingUpdate deleted(UUID bookingId) {
+        BookingUpdate update = new BookingUpdate();
+        update.bookingId = bookingId;
+        update.deleted = true;
+        return update;
+    }
+
+    public UUID getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(UUID bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public BookingDto getBooking() {
+        return booking;
+    }
+
+    public void setBooking(BookingDto booking) {
+        this.booking = booking;
+    }
+}
@@ -0,0 +1,155 @@
+package com.cargopro.grpc;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.event.BookingChangedEvent;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Open WatchLoadBookings streams by load. Each gets the load's bookings when
+ * it opens and then every committed change to them, as published by
+ * {@code BookingService}. A booking may be sent more than once; the last
+ * message for an id is its current state.
+ * <p>
+ * Messages are sent as fast as the client's flow control allows. Only changes
+ * made by this instance are seen. A client that falls {@link #MAX_QUEUED}
+ * messages behind is dropped with RESOURCE_EXHAUSTED and should reconnect.
+ */
+@Component
+public class BookingWatchers {
+
+    // Unsent messages a watcher may have queued before it is dropped
+    static final int MAX_QUEUED = 1000;
+
+    private final Map<UUID, Set<Watcher>> watchers = new ConcurrentHashMap<>();
+
+    void watch(UUID loadId, ServerCallStreamObserver<BookingUpdate> observer, Supplier<List<BookingDto>> snapshot) {
+        Watcher watcher = new Watcher(loadId, observer);
+        observer.setOnCancelHandler(() -> remove(watcher));
+        observer.setOnReadyHandler(watcher::drain);
+        // Registered before the snapshot is read, so changes committed meanwhile are held back rather than missed
+        watchers.compute(loadId, (id, forLoad) -> {
+            Set<Watcher> set = forLoad != null ? forLoad : ConcurrentHashMap.newKeySet();
+            set.add(watcher);
+            return set;
+        });
+        List<BookingDto> bookings;
+        try {
+            bookings = snapshot.get();
+        } catch (RuntimeException ex) {
+            remove(watcher);
+            throw ex;
+        }
+        watcher.start(bookings);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Set<Watcher> forLoad = watchers.get(event.getLoadId());
+        if (forLoad == null) {
+            return;
+        }
+        BookingUpdate update = event.isDeleted()
+                ? BookingUpdate.deleted(event.getBookingId())
+                : BookingUpdate.saved(event.getBooking());
+        for (Watcher watcher : forLoad) {
+            watcher.send(update);
+        }
+    }
+
+    // Ends every stream, e.g. before the server shuts down
+    public void closeAll() {
+        for (Set<Watcher> forLoad : watchers.values()) {
+            for (Watcher watcher : forLoad) {
+                watcher.complete();
+            }
+        }
+    }
+
+    public int size() {
+        return watchers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void remove(Watcher watcher) {
+        watchers.computeIfPresent(watcher.loadId, (id, forLoad) -> {
+            forLoad.remove(watcher);
+            return forLoad.isEmpty() ? null : forLoad;
+        });
+    }
+
+    // One stream; the observer is not thread-safe, so every call on it holds the watcher's lock
+    private final class Watcher {
+
+        private final UUID loadId;
+        private final ServerCallStreamObserver<BookingUpdate> observer;
+        // Changes that arrive before the snapshot is queued, then whatever the client has not yet asked for
+        private final Deque<BookingUpdate> queue = new ArrayDeque<>();
+        private boolean started;
+        private boolean closed;
+
+        Watcher(UUID loadId, ServerCallStreamObserver<BookingUpdate> observer) {
+            this.loadId = loadId;
+            this.observer = observer;
+        }
+
+        synchronized void start(List<BookingDto> bookings) {
+            for (int i = bookings.size() - 1; i >= 0; i--) {
+                queue.addFirst(BookingUpdate.saved(bookings.get(i)));
+            }
+            started = true;
+            drain();
+        }
+
+        synchronized void send(BookingUpdate update) {
+            if (closed) {
+                return;
+            }
+            if (queue.size() >= MAX_QUEUED) {
+                close(Status.RESOURCE_EXHAUSTED.withDescription("Watcher fell behind, please reconnect"));
+                return;
+            }
+            queue.addLast(update);
+            if (started) {
+                drain();
+            }
+        }
+
+        // Sends as much as the client's flow control allows; called again whenever it allows more
+        synchronized void drain() {
+            while (!closed && started && observer.isReady() && !queue.isEmpty()) {
+                try {
+                    observer.onNext(queue.pollFirst());
+                } catch (RuntimeException ex) {
+                    // Cancelled by the client in the meantime
+                    closed = true;
+                    remove(this);
+                }
+            }
+        }
+
+        synchronized void complete() {
+            if (!closed) {
+                closed = true;
+                remove(this);
+                observer.onCompleted();
+            }
+        }
+
+        private void close(Status status) {
+            closed = true;
+            remove(this);
+            observer.onError(status.asRuntimeException());
+        }
+    }
+}
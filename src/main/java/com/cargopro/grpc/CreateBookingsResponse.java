@@ -0,0 +1,50 @@
+package com.cargopro.grpc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Response message of CreateBookings, one result per submitted booking in submission order
+public class CreateBookingsResponse {
+
+    private int created;
+
+    private int failed;
+
+    private List<BookingResult> results = new ArrayList<>();
+
+    // Default constructor
+    public CreateBookingsResponse() {}
+
+    public void add(BookingResult result) {
+        results.add(result);
+        if (result.getBookingId() != null) {
+            created++;
+        } else {
+            failed++;
+        }
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BookingResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BookingResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,87 @@
+package com.cargopro.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC services in the same process as the REST API, on their own
+ * port ({@code cargopro.grpc.port}, plain HTTP/2). Tests switch it off with
+ * {@code cargopro.grpc.enabled=false} and use in-process channels instead.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cargopro.grpc", name = "enabled", matchIfMissing = true)
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    @Autowired
+    private List<BindableService> services;
+
+    @Autowired
+    private BookingWatchers bookingWatchers;
+
+    @Value("${cargopro.grpc.port:9090}")
+    private int port;
+
+    // How long in-flight calls get to finish on shutdown before they are cancelled
+    @Value("${cargopro.grpc.shutdown-grace-period:10s}")
+    private Duration shutdownGracePeriod;
+
+    private volatile Server server;
+
+    @Override
+    public void start() {
+        NettyServerBuilder builder = NettyServerBuilder.forPort(port);
+        services.forEach(builder::addService);
+        try {
+            server = builder.build().start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot start gRPC server on port " + port, ex);
+        }
+        log.info("gRPC server started on port {} with {} service(s)", server.getPort(), services.size());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        bookingWatchers.closeAll();
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+        log.info("gRPC server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    // The bound port, which differs from cargopro.grpc.port when that is 0
+    public int getPort() {
+        return server.getPort();
+    }
+}
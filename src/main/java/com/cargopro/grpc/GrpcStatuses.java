@@ -0,0 +1,48 @@
+package com.cargopro.grpc;
+
+import com.cargopro.exception.BusinessException;
+import com.cargopro.exception.ResourceNotFoundException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.stream.Collectors;
+
+/**
+ * gRPC counterpart of {@code GlobalExceptionHandler}: the status a service
+ * exception is reported with.
+ */
+final class GrpcStatuses {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcStatuses.class);
+
+    private GrpcStatuses() {
+    }
+
+    static Status from(Throwable ex) {
+        if (ex instanceof StatusRuntimeException statusException) {
+            return statusException.getStatus();
+        }
+        if (ex instanceof ResourceNotFoundException) {
+            return Status.NOT_FOUND.withDescription(ex.getMessage());
+        }
+        if (ex instanceof BusinessException) {
+            return Status.FAILED_PRECONDITION.withDescription(ex.getMessage());
+        }
+        if (ex instanceof ConstraintViolationException violations) {
+            return Status.INVALID_ARGUMENT.withDescription(violations.getConstraintViolations().stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (ex instanceof ObjectOptimisticLockingFailureException) {
+            return Status.ABORTED.withDescription("The resource was modified concurrently, please retry");
+        }
+        log.error("Unexpected error in gRPC call", ex);
+        return Status.INTERNAL.withDescription("An unexpected error occurred");
+    }
+}
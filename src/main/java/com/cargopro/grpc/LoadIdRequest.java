@@ -0,0 +1,24 @@
+package com.cargopro.grpc;
+
+import java.util.UUID;
+
+// Request message of WatchLoadBookings
+public class LoadIdRequest {
+
+    private UUID loadId;
+
+    // Default constructor
+    public LoadIdRequest() {}
+
+    public LoadIdRequest(UUID loadId) {
+        this.loadId = loadId;
+    }
+
+    public UUID getLoadId() {
+        return loadId;
+    }
+
+    public void setLoadId(UUID loadId) {
+        this.loadId = loadId;
+    }
+}
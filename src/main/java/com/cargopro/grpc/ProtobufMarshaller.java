@@ -0,0 +1,66 @@
+package com.cargopro.grpc;
+
+import com.cargopro.config.ProtobufSchemas;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * gRPC marshaller for a DTO class, encoding it with the protobuf schema
+ * {@link ProtobufSchemas} generates for it, the same encoding the REST API uses
+ * for {@code application/x-protobuf}.
+ */
+final class ProtobufMarshaller<T> implements MethodDescriptor.Marshaller<T> {
+
+    private final ProtobufMapper mapper;
+    private final JavaType type;
+    private final ProtobufSchema schema;
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+
+    ProtobufMarshaller(ProtobufSchemas schemas, Class<T> type) {
+        this.mapper = schemas.getMapper();
+        this.type = mapper.constructType(type);
+        this.schema = schemas.schemaFor(this.type)
+                .orElseThrow(() -> new IllegalArgumentException("No protobuf schema for " + type.getName()));
+        this.writer = mapper.writerFor(this.type).with(schema);
+        this.reader = mapper.readerFor(this.type).with(schema);
+    }
+
+    ProtobufSchema getSchema() {
+        return schema;
+    }
+
+    @Override
+    public InputStream stream(T value) {
+        try {
+            return new ByteArrayInputStream(writer.writeValueAsBytes(value));
+        } catch (IOException ex) {
+            throw Status.INTERNAL.withDescription("Cannot encode " + type).withCause(ex).asRuntimeException();
+        }
+    }
+
+    @Override
+    public T parse(InputStream stream) {
+        try {
+            byte[] bytes = stream.readAllBytes();
+            // A message with every field unset is zero bytes long, which the parser reads as no content
+            if (bytes.length == 0) {
+                return mapper.convertValue(Map.of(), type);
+            }
+            return reader.readValue(bytes);
+        } catch (IOException ex) {
+            throw Status.INTERNAL.withDescription("Invalid protobuf message for " + type).withCause(ex)
+                    .asRuntimeException();
+        }
+    }
+}
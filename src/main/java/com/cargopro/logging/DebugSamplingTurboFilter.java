@@ -0,0 +1,49 @@
+package com.cargopro.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lets through only a sample of DEBUG events for loggers under a prefix.
+ * <p>
+ * Turbo filters run before the level check, so a sampled-out event is denied
+ * before its message is formatted and {@code isDebugEnabled()} returns false
+ * for it as well. Everything that is not DEBUG, or outside the prefix, is left
+ * to the normal level rules, which the actuator loggers endpoint can still
+ * change at runtime.
+ */
+public class DebugSamplingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.cargopro";
+    private int sampleRate = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level != Level.DEBUG || sampleRate <= 1 || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(sampleRate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public String getLoggerPrefix() {
+        return loggerPrefix;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    // Keep one DEBUG event out of every sampleRate; 1 or less disables sampling
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
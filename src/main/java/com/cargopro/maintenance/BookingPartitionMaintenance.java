@@ -0,0 +1,106 @@
+package com.cargopro.maintenance;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of {@code bookings} in shape: creates the
+ * upcoming months ahead of time and, when a retention is configured, detaches
+ * partitions that have aged out. Detaching only updates the catalog, so old
+ * months leave the table without a bulk DELETE; the detached tables are left
+ * in place for archiving or dropping.
+ * <p>
+ * A detach skips the row triggers a DELETE would fire, so tombstones for the
+ * partition's bookings are written first, in the same transaction, for change
+ * feed clients to drop them. The detached table also loses the foreign key to
+ * {@code loads} it kept from {@code bookings}; otherwise the archival job could
+ * no longer delete loads with bookings in detached months.
+ */
+@Component
+public class BookingPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPartitionMaintenance.class);
+
+    // Monthly partitions of bookings whose upper bound is at or before the cutoff
+    private static final String EXPIRED_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = 'bookings'::regclass " +
+            "AND c.relname ~ '^bookings_[0-9]{4}_[0-9]{2}$' " +
+            "AND to_date(substring(c.relname FROM 10), 'YYYY_MM') + INTERVAL '1 month' <= ?::date " +
+            "ORDER BY c.relname";
+
+    // Foreign keys a detached partition kept from bookings
+    private static final String FOREIGN_KEYS_SQL =
+            "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'f'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${cargopro.bookings.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${cargopro.bookings.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        createUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "${cargopro.bookings.partitions.maintenance-cron:0 15 3 * * *}")
+    public void runMaintenance() {
+        createUpcomingPartitions();
+        detachExpiredPartitions();
+    }
+
+    public void createUpcomingPartitions() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        for (int i = 0; i <= monthsAhead; i++) {
+            String partition = jdbcTemplate.queryForObject(
+                    "SELECT create_bookings_partition(?)", String.class, month.plusMonths(i));
+            log.debug("Bookings partition {} is present", partition);
+        }
+    }
+
+    public void detachExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths);
+        List<String> expired = jdbcTemplate.queryForList(EXPIRED_PARTITIONS_SQL, String.class, cutoff);
+        for (String partition : expired) {
+            int bookings = transactionTemplate.execute(status -> detach(partition));
+            log.info("Detached bookings partition {} with {} bookings (older than {} months)",
+                    partition, bookings, retentionMonths);
+        }
+    }
+
+    // Returns the number of bookings that left the table
+    private int detach(String partition) {
+        String table = "\"" + partition + "\"";
+        int bookings = jdbcTemplate.update(
+                "INSERT INTO booking_tombstones (id, change_xid) " +
+                "SELECT id, pg_current_xact_id()::text::bigint FROM " + table + " " +
+                "ON CONFLICT (id) DO UPDATE SET change_xid = EXCLUDED.change_xid, deleted_at = LOCALTIMESTAMP");
+        jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION " + table);
+        for (String foreignKey : jdbcTemplate.queryForList(FOREIGN_KEYS_SQL, String.class, table)) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP CONSTRAINT \"" + foreignKey + "\"");
+        }
+        return bookings;
+    }
+}
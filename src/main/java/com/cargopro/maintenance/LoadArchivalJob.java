@@ -0,0 +1,65 @@
+package com.cargopro.maintenance;
+
+import com.cargopro.repository.ArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Moves BOOKED and CANCELLED loads older than {@code cargopro.archive.min-age},
+ * together with their bookings, into the archive tables. Each batch is its own
+ * short transaction and skips rows locked by live traffic, so the job can run
+ * next to normal load and several instances can run it at once.
+ */
+@Component
+public class LoadArchivalJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadArchivalJob.class);
+
+    @Autowired
+    private ArchiveRepository archiveRepository;
+
+    @Value("${cargopro.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cargopro.archive.min-age:90d}")
+    private Duration minAge;
+
+    @Value("${cargopro.archive.batch-size:500}")
+    private int batchSize;
+
+    // Upper bound on batches per run, so a large backlog is worked off over several runs
+    @Value("${cargopro.archive.max-batches-per-run:200}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(cron = "${cargopro.archive.cron:0 45 3 * * *}")
+    public void runArchival() {
+        if (!enabled) {
+            return;
+        }
+        archiveTerminalLoads();
+    }
+
+    // Returns the number of loads archived
+    public int archiveTerminalLoads() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int archived = archiveRepository.archiveTerminalLoads(cutoff, batchSize);
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} terminal loads posted before {}", total, cutoff);
+        }
+        return total;
+    }
+}
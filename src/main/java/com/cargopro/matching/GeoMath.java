@@ -0,0 +1,21 @@
+package com.cargopro.matching;
+
+/**
+ * Great-circle helpers for the in-memory index; accurate to well under 1% at lane-matching distances.
+ */
+final class GeoMath {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+    static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180.0;
+
+    private GeoMath() {
+    }
+
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,349 @@
+package com.cargopro.matching;
+
+import com.cargopro.dto.LoadDto;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.event.LoadChangedEvent;
+import com.cargopro.geo.GeoPoint;
+import com.cargopro.repository.LoadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory index of POSTED loads for real-time matching, answering
+ * "truck type X, loading window overlapping [from, to], near origin/destination"
+ * without touching the database.
+ * <p>
+ * Readers work on immutable per-truck-type {@link TruckTypeIndex} snapshots
+ * published through a volatile map, so lookups take no locks. Load changes
+ * after commit only update the writer-side maps and mark their truck types
+ * dirty; the snapshots of dirty truck types are rebuilt on a background
+ * thread, off the committing thread and outside the write lock, and a burst of
+ * changes costs one rebuild per truck type, not one per change. Matches may
+ * therefore trail a commit by the time a rebuild takes.
+ * <p>
+ * Changes made through other instances produce no events here, so the index
+ * is also reloaded from the database every {@code resync-interval}, which
+ * bounds how long it can miss them.
+ * <p>
+ * Returned {@link LoadDto}s are shared with the index and must not be modified.
+ */
+@Component
+public class LoadMatchIndex implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadMatchIndex.class);
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    // Grid cell edge for the coordinate buckets; about 55 km at 0.5
+    @Value("${cargopro.matching.cell-degrees:0.5}")
+    private double cellDegrees = 0.5;
+
+    @Value("${cargopro.matching.resync-interval:5m}")
+    private Duration resyncInterval = Duration.ofMinutes(5);
+
+    private final Object writeLock = new Object();
+
+    // Writer-side state, guarded by writeLock
+    private final Map<UUID, LoadDto> postedLoads = new HashMap<>();
+    private final Map<String, Map<UUID, LoadDto>> loadsByTruckType = new HashMap<>();
+    private final Set<String> dirtyTruckTypes = new HashSet<>();
+    private Set<UUID> changedDuringResync;
+
+    // Held for a whole resync, so the warm-up and a scheduled resync never interleave
+    private final Object resyncLock = new Object();
+
+    // Held while building and publishing snapshots, so they are published in the order their loads were read
+    private final Object publishLock = new Object();
+
+    private final AtomicBoolean refreshQueued = new AtomicBoolean();
+
+    private volatile ScheduledExecutorService executor;
+
+    // Reader-side snapshots, replaced as a whole on every refresh
+    private volatile Map<String, TruckTypeIndex> snapshots = Collections.emptyMap();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        resync();
+        log.info("Load match index warmed up with {} posted loads", size());
+    }
+
+    // Replace the index with the POSTED loads in the database, keeping changes applied while they were read
+    void resync() {
+        synchronized (resyncLock) {
+            synchronized (writeLock) {
+                changedDuringResync = new HashSet<>();
+            }
+            List<LoadDto> posted = loadRepository.findDtosByStatus(LoadStatus.POSTED);
+            synchronized (writeLock) {
+                // Changes that committed while the query ran are newer than what it returned
+                Map<UUID, LoadDto> loaded = new HashMap<>(posted.size() * 2);
+                for (LoadDto load : posted) {
+                    if (!changedDuringResync.contains(load.getId())) {
+                        loaded.put(load.getId(), load);
+                    }
+                }
+                for (LoadDto load : new ArrayList<>(postedLoads.values())) {
+                    if (!loaded.containsKey(load.getId()) && !changedDuringResync.contains(load.getId())) {
+                        dirtyTruckTypes.add(remove(load.getId()).getTruckType());
+                    }
+                }
+                for (LoadDto load : loaded.values()) {
+                    LoadDto current = postedLoads.get(load.getId());
+                    if (current != null && Objects.equals(current.getVersion(), load.getVersion())) {
+                        continue;
+                    }
+                    if (current != null) {
+                        dirtyTruckTypes.add(remove(load.getId()).getTruckType());
+                    }
+                    put(load);
+                    dirtyTruckTypes.add(load.getTruckType());
+                }
+                changedDuringResync = null;
+            }
+            refresh();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoadChanged(LoadChangedEvent event) {
+        synchronized (writeLock) {
+            if (changedDuringResync != null) {
+                changedDuringResync.add(event.getLoadId());
+            }
+            LoadDto previous = remove(event.getLoadId());
+            if (previous != null) {
+                dirtyTruckTypes.add(previous.getTruckType());
+            }
+            LoadDto load = event.getLoad();
+            if (load != null && load.getStatus() == LoadStatus.POSTED) {
+                put(load);
+                dirtyTruckTypes.add(load.getTruckType());
+            }
+        }
+        ScheduledExecutorService refreshes = executor;
+        if (refreshes != null && refreshQueued.compareAndSet(false, true)) {
+            refreshes.execute(this::refresh);
+        }
+    }
+
+    // Posted loads of the truck type whose loading-to-unloading interval overlaps [from, to] (either bound may be
+    // null), optionally loading within originRadiusKm of origin and unloading within destinationRadiusKm of
+    // destination. Ordered by distance from origin when given, otherwise by loading date.
+    public List<LoadDto> match(String truckType, LocalDateTime from, LocalDateTime to,
+                               GeoPoint origin, double originRadiusKm,
+                               GeoPoint destination, double destinationRadiusKm, int limit) {
+        TruckTypeIndex index = snapshots.getOrDefault(truckType, TruckTypeIndex.EMPTY);
+        long fromSeconds = from != null ? TruckTypeIndex.epochSeconds(from) : Long.MIN_VALUE;
+        long toSeconds = to != null ? TruckTypeIndex.epochSeconds(to) : Long.MAX_VALUE;
+
+        PositionCollector matches = new PositionCollector();
+        if (origin != null) {
+            index.forEachInCellsAround(origin.getLatitude(), origin.getLongitude(), originRadiusKm, position -> {
+                if (index.start(position) <= toSeconds && index.end(position) >= fromSeconds
+                        && within(index.originLat(position), index.originLng(position), origin, originRadiusKm)
+                        && (destination == null || within(index.destinationLat(position),
+                                index.destinationLng(position), destination, destinationRadiusKm))) {
+                    matches.add(position);
+                }
+            });
+        } else {
+            // In-order traversal, so matches come out sorted by loading date
+            index.forEachOverlapping(fromSeconds, toSeconds, position -> {
+                if (destination == null || within(index.destinationLat(position),
+                        index.destinationLng(position), destination, destinationRadiusKm)) {
+                    matches.add(position);
+                }
+            });
+        }
+
+        int[] positions = matches.toArray();
+        if (origin != null) {
+            sortByDistance(positions, index, origin);
+        }
+        List<LoadDto> result = new ArrayList<>(Math.min(limit, positions.length));
+        for (int i = 0; i < positions.length && i < limit; i++) {
+            result.add(index.load(positions[i]));
+        }
+        return result;
+    }
+
+    public int size() {
+        int size = 0;
+        for (TruckTypeIndex index : snapshots.values()) {
+            size += index.size();
+        }
+        return size;
+    }
+
+    // Sort positions by distance of their loading point from origin, ties in index order; distances are computed
+    // once into an array parallel to positions and both arrays are sorted together
+    private static void sortByDistance(int[] positions, TruckTypeIndex index, GeoPoint origin) {
+        double[] distances = new double[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            distances[i] = GeoMath.distanceKm(origin.getLatitude(), origin.getLongitude(),
+                    index.originLat(positions[i]), index.originLng(positions[i]));
+        }
+        sort(positions, distances, 0, positions.length, new int[positions.length], new double[positions.length]);
+    }
+
+    // Stable merge sort of positions[from, to) by distances[from, to), moving both arrays together
+    private static void sort(int[] positions, double[] distances, int from, int to,
+                             int[] positionBuffer, double[] distanceBuffer) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int position = positions[i];
+                double distance = distances[i];
+                int j = i - 1;
+                for (; j >= from && distances[j] > distance; j--) {
+                    positions[j + 1] = positions[j];
+                    distances[j + 1] = distances[j];
+                }
+                positions[j + 1] = position;
+                distances[j + 1] = distance;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(positions, distances, from, mid, positionBuffer, distanceBuffer);
+        sort(positions, distances, mid, to, positionBuffer, distanceBuffer);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            boolean takeLeft = right >= to || (left < mid && distances[left] <= distances[right]);
+            int source = takeLeft ? left++ : right++;
+            positionBuffer[i] = positions[source];
+            distanceBuffer[i] = distances[source];
+        }
+        System.arraycopy(positionBuffer, from, positions, from, to - from);
+        System.arraycopy(distanceBuffer, from, distances, from, to - from);
+    }
+
+    private static boolean within(double lat, double lng, GeoPoint point, double radiusKm) {
+        return !Double.isNaN(lat) && !Double.isNaN(lng)
+                && GeoMath.distanceKm(point.getLatitude(), point.getLongitude(), lat, lng) <= radiusKm;
+    }
+
+    private void put(LoadDto load) {
+        postedLoads.put(load.getId(), load);
+        loadsByTruckType.computeIfAbsent(load.getTruckType(), truckType -> new LinkedHashMap<>())
+                .put(load.getId(), load);
+    }
+
+    private LoadDto remove(UUID loadId) {
+        LoadDto previous = postedLoads.remove(loadId);
+        if (previous != null) {
+            Map<UUID, LoadDto> sameType = loadsByTruckType.get(previous.getTruckType());
+            sameType.remove(loadId);
+            if (sameType.isEmpty()) {
+                loadsByTruckType.remove(previous.getTruckType());
+            }
+        }
+        return previous;
+    }
+
+    // Rebuild and publish the snapshots of the truck types changed since the last refresh
+    void refresh() {
+        synchronized (publishLock) {
+            // Changes from here on queue another refresh
+            refreshQueued.set(false);
+            Map<String, List<LoadDto>> changed = new HashMap<>();
+            synchronized (writeLock) {
+                for (String truckType : dirtyTruckTypes) {
+                    Map<UUID, LoadDto> loads = loadsByTruckType.get(truckType);
+                    changed.put(truckType, loads != null ? new ArrayList<>(loads.values()) : null);
+                }
+                dirtyTruckTypes.clear();
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            Map<String, TruckTypeIndex> next = new HashMap<>(snapshots);
+            changed.forEach((truckType, loads) -> {
+                if (loads == null) {
+                    next.remove(truckType);
+                } else {
+                    next.put(truckType, TruckTypeIndex.build(loads, cellDegrees));
+                }
+            });
+            snapshots = Collections.unmodifiableMap(next);
+        }
+    }
+
+    private void resyncQuietly() {
+        try {
+            resync();
+        } catch (RuntimeException ex) {
+            log.warn("Load match index resync failed; keeping the current index", ex);
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService refreshes = Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("load-match-index-"));
+        long resyncMillis = resyncInterval.toMillis();
+        refreshes.scheduleWithFixedDelay(this::resyncQuietly, resyncMillis, resyncMillis, TimeUnit.MILLISECONDS);
+        executor = refreshes;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService refreshes = executor;
+        if (refreshes == null) {
+            return;
+        }
+        executor = null;
+        refreshes.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    // Growable int list, to avoid boxing positions while scanning
+    private static final class PositionCollector {
+
+        private int[] positions = new int[16];
+        private int size;
+
+        void add(int position) {
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+    }
+}
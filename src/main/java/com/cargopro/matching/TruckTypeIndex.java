@@ -0,0 +1,239 @@
+package com.cargopro.matching;
+
+import com.cargopro.dto.FacilityDto;
+import com.cargopro.dto.LoadDto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable snapshot of the POSTED loads of one truck type.
+ * <p>
+ * Loads are kept in arrays sorted by loading time. Over that order sits an
+ * implicit, array-backed interval tree: the node for a range {@code [lo, hi]} is
+ * its midpoint, and {@code maxEnd[mid]} holds the latest unloading time in the
+ * range, so overlap queries skip whole ranges that end too early. Loading points
+ * with coordinates are additionally bucketed into a lat/lng grid whose cells are
+ * keyed by a packed {@code long}. The occupied cells are kept as a sorted
+ * {@code long[]} of keys, each pointing at its run of positions in one shared
+ * {@code int[]}, so a lookup is a binary search with no boxing.
+ * <p>
+ * Times are epoch seconds of the (zone-less) {@code LocalDateTime} values.
+ */
+final class TruckTypeIndex {
+
+    static final TruckTypeIndex EMPTY = new TruckTypeIndex(new LoadDto[0], 1.0);
+
+    private final LoadDto[] loads;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+    private final double[] originLat;
+    private final double[] originLng;
+    private final double[] destinationLat;
+    private final double[] destinationLng;
+    private final double cellDegrees;
+
+    // Keys of the occupied grid cells, ascending; the positions in cell i are
+    // cellPositions[cellStarts[i] .. cellStarts[i + 1])
+    private final long[] cellKeys;
+    private final int[] cellStarts;
+    private final int[] cellPositions;
+
+    private TruckTypeIndex(LoadDto[] sortedLoads, double cellDegrees) {
+        int n = sortedLoads.length;
+        this.loads = sortedLoads;
+        this.cellDegrees = cellDegrees;
+        this.starts = new long[n];
+        this.ends = new long[n];
+        this.maxEnd = new long[n];
+        this.originLat = new double[n];
+        this.originLng = new double[n];
+        this.destinationLat = new double[n];
+        this.destinationLng = new double[n];
+
+        long[] positionKeys = new long[n];
+        int located = 0;
+        for (int i = 0; i < n; i++) {
+            FacilityDto facility = sortedLoads[i].getFacility();
+            starts[i] = epochSeconds(facility.getLoadingDate());
+            ends[i] = Math.max(starts[i], epochSeconds(facility.getUnloadingDate()));
+            originLat[i] = coordinate(facility.getLoadingLatitude());
+            originLng[i] = coordinate(facility.getLoadingLongitude());
+            destinationLat[i] = coordinate(facility.getUnloadingLatitude());
+            destinationLng[i] = coordinate(facility.getUnloadingLongitude());
+            if (located(i)) {
+                positionKeys[i] = cellKey(cellOf(originLat[i]), cellOf(originLng[i]));
+                located++;
+            }
+        }
+
+        // Distinct keys of the located positions, ascending
+        long[] keys = new long[located];
+        for (int i = 0, k = 0; i < n; i++) {
+            if (located(i)) {
+                keys[k++] = positionKeys[i];
+            }
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int k = 0; k < keys.length; k++) {
+            if (k == 0 || keys[k] != keys[k - 1]) {
+                keys[distinct++] = keys[k];
+            }
+        }
+        this.cellKeys = Arrays.copyOf(keys, distinct);
+
+        // Counting sort of the positions by cell, keeping loading-time order within a cell
+        this.cellStarts = new int[distinct + 1];
+        int[] cellOfPosition = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (located(i)) {
+                cellOfPosition[i] = Arrays.binarySearch(cellKeys, positionKeys[i]);
+                cellStarts[cellOfPosition[i] + 1]++;
+            }
+        }
+        for (int c = 0; c < distinct; c++) {
+            cellStarts[c + 1] += cellStarts[c];
+        }
+        this.cellPositions = new int[located];
+        int[] next = Arrays.copyOf(cellStarts, distinct);
+        for (int i = 0; i < n; i++) {
+            if (located(i)) {
+                cellPositions[next[cellOfPosition[i]]++] = i;
+            }
+        }
+        buildMaxEnd(0, n - 1);
+    }
+
+    static TruckTypeIndex build(Collection<LoadDto> loads, double cellDegrees) {
+        LoadDto[] sorted = loads.toArray(new LoadDto[0]);
+        Arrays.sort(sorted, (a, b) -> a.getFacility().getLoadingDate().compareTo(b.getFacility().getLoadingDate()));
+        return new TruckTypeIndex(sorted, cellDegrees);
+    }
+
+    int size() {
+        return loads.length;
+    }
+
+    LoadDto load(int position) {
+        return loads[position];
+    }
+
+    long start(int position) {
+        return starts[position];
+    }
+
+    long end(int position) {
+        return ends[position];
+    }
+
+    double originLat(int position) {
+        return originLat[position];
+    }
+
+    double originLng(int position) {
+        return originLng[position];
+    }
+
+    double destinationLat(int position) {
+        return destinationLat[position];
+    }
+
+    double destinationLng(int position) {
+        return destinationLng[position];
+    }
+
+    // Visits every position whose [loading, unloading] interval overlaps [from, to]
+    void forEachOverlapping(long from, long to, IntConsumer consumer) {
+        overlapping(0, loads.length - 1, from, to, consumer);
+    }
+
+    // Visits every position whose loading point falls in a grid cell touching the box around (lat, lng). The box
+    // is clamped to valid coordinates, so any radius visits at most the whole grid.
+    void forEachInCellsAround(double lat, double lng, double radiusKm, IntConsumer consumer) {
+        double latDelta = Math.min(90.0, radiusKm / GeoMath.KM_PER_DEGREE);
+        double cosLat = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(lat) + latDelta)));
+        double lngDelta = Math.min(180.0, radiusKm / (GeoMath.KM_PER_DEGREE * Math.max(cosLat, 1e-6)));
+        int minLatCell = cellOf(Math.max(-90.0, lat - latDelta));
+        int maxLatCell = cellOf(Math.min(90.0, lat + latDelta));
+        int minLngCell = cellOf(Math.max(-180.0, lng - lngDelta));
+        int maxLngCell = cellOf(Math.min(180.0, lng + lngDelta));
+        // Keys order by latitude cell, then longitude cell, so each row of the box is one run of cellKeys
+        for (int latCell = minLatCell; latCell <= maxLatCell; latCell++) {
+            long last = cellKey(latCell, maxLngCell);
+            for (int c = lowerBound(cellKey(latCell, minLngCell)); c < cellKeys.length && cellKeys[c] <= last; c++) {
+                for (int p = cellStarts[c]; p < cellStarts[c + 1]; p++) {
+                    consumer.accept(cellPositions[p]);
+                }
+            }
+        }
+    }
+
+    // Index of the first cell key at or above key
+    private int lowerBound(long key) {
+        int lo = 0;
+        int hi = cellKeys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cellKeys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private boolean located(int position) {
+        return !Double.isNaN(originLat[position]) && !Double.isNaN(originLng[position]);
+    }
+
+    private long buildMaxEnd(int lo, int hi) {
+        if (lo > hi) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (lo + hi) >>> 1;
+        long max = Math.max(ends[mid], Math.max(buildMaxEnd(lo, mid - 1), buildMaxEnd(mid + 1, hi)));
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    private void overlapping(int lo, int hi, long from, long to, IntConsumer consumer) {
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] < from) {
+                return;
+            }
+            overlapping(lo, mid - 1, from, to, consumer);
+            if (starts[mid] > to) {
+                // Everything to the right starts even later
+                return;
+            }
+            if (ends[mid] >= from) {
+                consumer.accept(mid);
+            }
+            lo = mid + 1;
+        }
+    }
+
+    private int cellOf(double degrees) {
+        return (int) Math.floor(degrees / cellDegrees);
+    }
+
+    // Flipping the sign bit of the longitude cell makes keys order like (latCell, lngCell)
+    private static long cellKey(int latCell, int lngCell) {
+        return ((long) latCell << 32) | ((lngCell ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    private static double coordinate(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    static long epochSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,103 @@
+package com.cargopro.ranking;
+
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.event.BookingChangedEvent;
+import com.cargopro.exception.BusinessException;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.service.BookingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies auto-accept rules ({@code PUT /booking/load/{loadId}/auto-accept})
+ * as bids come in: once a pending bid is committed, its load is checked on a
+ * background thread and its best pending bid accepted, through the regular
+ * accept path, if it is at or under the rule's rate.
+ * <p>
+ * The check runs off the request thread because the accept needs a
+ * transaction of its own, and with it a second pooled connection while the
+ * request still holds its first. A load is queued at most once at a time, so
+ * a burst of bids on a load costs one check, not one per bid.
+ */
+@Component
+@ConditionalOnProperty(name = "cargopro.ranking.auto-accept.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingAutoAcceptor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingAutoAcceptor.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    private final Set<UUID> queuedLoads = ConcurrentHashMap.newKeySet();
+
+    private volatile ExecutorService executor;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        ExecutorService checks = executor;
+        if (checks == null || event.isDeleted() || event.getBooking().getStatus() != BookingStatus.PENDING) {
+            return;
+        }
+        UUID loadId = event.getLoadId();
+        if (queuedLoads.add(loadId)) {
+            checks.execute(() -> check(loadId));
+        }
+    }
+
+    void check(UUID loadId) {
+        // Bids committed from here on queue the load again
+        queuedLoads.remove(loadId);
+        try {
+            bookingService.applyAutoAcceptRule(loadId)
+                    .ifPresent(accepted -> log.info("Auto-accepted booking {} for load {} at rate {}",
+                            accepted.getId(), loadId, accepted.getProposedRate()));
+        } catch (BusinessException | ResourceNotFoundException | ObjectOptimisticLockingFailureException ex) {
+            // The bid or its load changed in the meantime, e.g. another bid was accepted
+            log.debug("Auto-accept for load {} skipped: {}", loadId, ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.warn("Auto-accept for load {} failed", loadId, ex);
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("booking-auto-accept-"));
+    }
+
+    @Override
+    public void stop() {
+        ExecutorService checks = executor;
+        if (checks == null) {
+            return;
+        }
+        executor = null;
+        checks.shutdown();
+        try {
+            if (!checks.awaitTermination(5, TimeUnit.SECONDS)) {
+                checks.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            checks.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -0,0 +1,199 @@
+package com.cargopro.ranking;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.event.BookingChangedEvent;
+import com.cargopro.event.LoadChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-memory ranking of the pending bids of each load, best first: lowest
+ * proposed rate, then earliest request. Only the best {@code top-k} bids of a
+ * load are kept, in a bounded heap with the worst of them at its head, so a new
+ * bid costs O(log k) and is dropped straight away when it cannot make the cut.
+ * <p>
+ * A load is ranked on its first read, from the database, and then kept up to
+ * date by booking changes after commit. When a bid leaves a heap that had to
+ * drop bids, the next best one is not known; the load is marked stale and
+ * re-read on its next read. Loads that stop taking bids are forgotten, and
+ * loads that do not exist or are not POSTED are answered but never ranked.
+ * At most {@code max-loads} loads are ranked, the least recently read dropped
+ * first.
+ * <p>
+ * Bids committed through other instances produce no events here, so a ranking
+ * is also re-read once it is older than {@code ttl}, which bounds how long it
+ * can miss them.
+ * <p>
+ * Returned {@link BookingDto}s are shared with the ranking and must not be modified.
+ */
+@Component
+public class BookingRanking {
+
+    static final Comparator<BookingDto> BEST_FIRST = Comparator
+            .comparing(BookingDto::getProposedRate)
+            .thenComparing(BookingDto::getRequestedAt, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(BookingDto::getId);
+
+    // Bids kept per load
+    @Value("${cargopro.ranking.top-k:20}")
+    private int topK = 20;
+
+    @Value("${cargopro.ranking.max-loads:10000}")
+    private int maxLoads = 10000;
+
+    // Age at which a ranking is re-read from the database
+    @Value("${cargopro.ranking.ttl:30s}")
+    private Duration ttl = Duration.ofSeconds(30);
+
+    private LongSupplier nanoClock = System::nanoTime;
+
+    // Least recently read first, guarded by its own monitor
+    private final Map<UUID, LoadBids> loads = new LinkedHashMap<>(16, 0.75f, true);
+
+    // The best pending bids of the load, at most limit and at most top-k of them. When the load is not ranked yet,
+    // is stale or has expired, status tells whether the load exists and in which status, and loader reads its
+    // best n pending bids from the database, in BEST_FIRST order.
+    public List<BookingDto> top(UUID loadId, int limit, Supplier<Optional<LoadStatus>> status,
+                                IntFunction<List<BookingDto>> loader) {
+        int count = Math.max(1, Math.min(limit, topK));
+        LoadBids bids;
+        synchronized (loads) {
+            // In place while the database is read, so changes in the meantime are counted
+            bids = loads.computeIfAbsent(loadId, id -> new LoadBids());
+            if (loads.size() > maxLoads) {
+                Iterator<LoadBids> eldest = loads.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        long changes;
+        synchronized (bids) {
+            if (bids.complete && nanoClock.getAsLong() - bids.loadedAt < ttl.toNanos()) {
+                return bids.best(count);
+            }
+            changes = bids.changes;
+        }
+
+        long loadedAt = nanoClock.getAsLong();
+        Optional<LoadStatus> loadStatus = status.get();
+        List<BookingDto> loaded = loadStatus.isPresent() ? loader.apply(topK) : List.of();
+        if (loadStatus.orElse(null) != LoadStatus.POSTED) {
+            // Answered from the database every time; nothing is kept for a load that is gone or takes no bids
+            synchronized (loads) {
+                loads.remove(loadId, bids);
+            }
+        } else {
+            synchronized (bids) {
+                // A change applied while the query ran may be missing from what it returned; rank again next time
+                bids.heap.clear();
+                bids.complete = false;
+                if (bids.changes == changes) {
+                    bids.heap.addAll(loaded);
+                    bids.truncated = loaded.size() >= topK;
+                    bids.complete = true;
+                    bids.loadedAt = loadedAt;
+                }
+            }
+        }
+        return List.copyOf(loaded.subList(0, Math.min(count, loaded.size())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        LoadBids bids;
+        synchronized (loads) {
+            bids = loads.get(event.getLoadId());
+        }
+        if (bids == null) {
+            return;
+        }
+        synchronized (bids) {
+            bids.changes++;
+            if (!bids.complete) {
+                return;
+            }
+            boolean removed = bids.heap.removeIf(booking -> booking.getId().equals(event.getBookingId()));
+            if (removed && bids.truncated) {
+                // The best of the dropped bids would move up now, but it was not kept
+                bids.heap.clear();
+                bids.complete = false;
+                return;
+            }
+            BookingDto booking = event.getBooking();
+            if (booking != null && booking.getStatus() == BookingStatus.PENDING) {
+                bids.offer(booking, topK);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLoadChanged(LoadChangedEvent event) {
+        if (event.getLoad() == null || event.getLoad().getStatus() != LoadStatus.POSTED) {
+            synchronized (loads) {
+                loads.remove(event.getLoadId());
+            }
+        }
+    }
+
+    // Loads currently ranked in memory
+    public int size() {
+        synchronized (loads) {
+            return loads.size();
+        }
+    }
+
+    // Per-load state, guarded by its own monitor
+    private static final class LoadBids {
+
+        // Worst kept bid at the head, to be dropped first
+        final PriorityQueue<BookingDto> heap = new PriorityQueue<>(BEST_FIRST.reversed());
+
+        // The heap holds the best pending bids of the load; false until first loaded and after going stale
+        boolean complete;
+
+        // Bids were dropped to keep the heap at top-k, so there may be pending bids outside it
+        boolean truncated;
+
+        // Changes seen, to detect one racing a load from the database
+        long changes;
+
+        // When the heap was last read from the database, on the nanoClock
+        long loadedAt;
+
+        void offer(BookingDto booking, int topK) {
+            if (heap.size() < topK) {
+                heap.add(booking);
+                return;
+            }
+            truncated = true;
+            if (BEST_FIRST.compare(booking, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(booking);
+            }
+        }
+
+        List<BookingDto> best(int count) {
+            List<BookingDto> sorted = new ArrayList<>(heap);
+            sorted.sort(BEST_FIRST);
+            return List.copyOf(sorted.subList(0, Math.min(count, sorted.size())));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.cargopro.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tells whether requests are waiting too long for a database connection, from
+ * the Hikari metrics Spring Boot publishes ({@code hikaricp.connections.acquire}
+ * and {@code hikaricp.connections.timeout}, summed over all pools). The mean
+ * wait is recomputed at most once per sample interval, by whichever request
+ * thread gets there first; all others read the last verdict.
+ */
+@Component
+public class PoolWaitMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(PoolWaitMonitor.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Mean connection wait above which the pool counts as saturated
+    @Value("${cargopro.rate-limit.max-pool-wait:100ms}")
+    private Duration maxPoolWait = Duration.ofMillis(100);
+
+    @Value("${cargopro.rate-limit.pool-wait-sample-interval:1s}")
+    private Duration sampleInterval = Duration.ofSeconds(1);
+
+    private final AtomicLong nextSampleAt = new AtomicLong(System.nanoTime());
+
+    // Written only by the thread that won the sample, under nextSampleAt's compare-and-set
+    private long lastAcquires;
+    private double lastAcquireNanos;
+    private double lastTimeouts;
+
+    private volatile boolean saturated;
+
+    public boolean isSaturated() {
+        long now = System.nanoTime();
+        long sampleAt = nextSampleAt.get();
+        if (now - sampleAt >= 0 && nextSampleAt.compareAndSet(sampleAt, now + sampleInterval.toNanos())) {
+            sample();
+        }
+        return saturated;
+    }
+
+    private void sample() {
+        long acquires = 0;
+        double acquireNanos = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            acquires += timer.count();
+            acquireNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        double timeouts = 0;
+        for (Counter counter : meterRegistry.find("hikaricp.connections.timeout").counters()) {
+            timeouts += counter.count();
+        }
+
+        long newAcquires = acquires - lastAcquires;
+        double meanWaitNanos = newAcquires > 0 ? (acquireNanos - lastAcquireNanos) / newAcquires : 0;
+        boolean timedOut = timeouts > lastTimeouts;
+        lastAcquires = acquires;
+        lastAcquireNanos = acquireNanos;
+        lastTimeouts = timeouts;
+
+        boolean wasSaturated = saturated;
+        saturated = timedOut || meanWaitNanos > maxPoolWait.toNanos();
+        if (saturated != wasSaturated) {
+            log.warn(saturated ? "Connection pool saturated (mean wait {} ms), shedding requests"
+                    : "Connection pool recovered (mean wait {} ms)", String.format("%.1f", meanWaitNanos / 1e6));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.cargopro.ratelimit;
+
+import com.cargopro.config.ReadRequests;
+import com.cargopro.exception.RateLimitExceededException;
+import com.cargopro.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control in front of the load and booking endpoints, checked in
+ * this order:
+ * <ol>
+ * <li>load shedding: while the connection pool is saturated
+ * ({@link PoolWaitMonitor}) every request gets 503;</li>
+ * <li>a token bucket per client address and endpoint, and within it one per
+ * tenant: 429 once either is outrun. The tenant is the {@code shipperId} or
+ * {@code transporterId} query parameter, which the client chooses, so its
+ * bucket is keyed on the address as well: another client cannot drain it,
+ * and rotating ids only ever spends the address's own, larger budget;</li>
+ * <li>a cap on requests in flight, one for {@link ReadRequests reads} and one
+ * for writes, across all tenants: 503 beyond it.</li>
+ * </ol>
+ * All three are plain atomics, so admitting a request takes no locks.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String IN_FLIGHT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".inFlight";
+
+    @Autowired
+    private StripedTokenBuckets requestTokenBuckets;
+
+    @Autowired
+    private StripedTokenBuckets addressTokenBuckets;
+
+    @Autowired
+    private PoolWaitMonitor poolWaitMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cargopro.rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${cargopro.rate-limit.max-concurrent-reads:64}")
+    private int maxConcurrentReads = 64;
+
+    @Value("${cargopro.rate-limit.max-concurrent-writes:32}")
+    private int maxConcurrentWrites = 32;
+
+    // Sent as Retry-After with 503s, when there is no better estimate
+    @Value("${cargopro.rate-limit.retry-after:1s}")
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    private final AtomicInteger readsInFlight = new AtomicInteger();
+
+    private final AtomicInteger writesInFlight = new AtomicInteger();
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!enabled || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        if (poolWaitMonitor.isSaturated()) {
+            reject("shed");
+            throw new ServiceUnavailableException("The service is overloaded, please retry later", retryAfter);
+        }
+
+        String endpoint = request.getMethod() + " "
+                + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String address = "address:" + request.getRemoteAddr();
+        long waitNanos = addressTokenBuckets.tryAcquire(address + " " + endpoint);
+        if (waitNanos > 0) {
+            reject("address-rate-limit");
+            throw new RateLimitExceededException("Rate limit exceeded for " + endpoint, Duration.ofNanos(waitNanos));
+        }
+        String tenant = tenant(request);
+        waitNanos = requestTokenBuckets.tryAcquire((tenant != null ? tenant + " " : "") + address + " " + endpoint);
+        if (waitNanos > 0) {
+            reject("rate-limit");
+            throw new RateLimitExceededException("Rate limit exceeded for " + endpoint, Duration.ofNanos(waitNanos));
+        }
+
+        boolean read = ReadRequests.isRead(request);
+        AtomicInteger inFlight = read ? readsInFlight : writesInFlight;
+        if (inFlight.incrementAndGet() > (read ? maxConcurrentReads : maxConcurrentWrites)) {
+            inFlight.decrementAndGet();
+            reject(read ? "concurrent-reads" : "concurrent-writes");
+            throw new ServiceUnavailableException("Too many concurrent requests, please retry later", retryAfter);
+        }
+        request.setAttribute(IN_FLIGHT_ATTRIBUTE, inFlight);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object inFlight = request.getAttribute(IN_FLIGHT_ATTRIBUTE);
+        if (inFlight != null) {
+            request.removeAttribute(IN_FLIGHT_ATTRIBUTE);
+            ((AtomicInteger) inFlight).decrementAndGet();
+        }
+    }
+
+    // The tenant the request names, if any
+    private static String tenant(HttpServletRequest request) {
+        String shipperId = request.getParameter("shipperId");
+        if (shipperId != null) {
+            return "shipper:" + shipperId;
+        }
+        String transporterId = request.getParameter("transporterId");
+        if (transporterId != null) {
+            return "transporter:" + transporterId;
+        }
+        return null;
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("cargopro.requests.rejected", "reason", reason).increment();
+    }
+}
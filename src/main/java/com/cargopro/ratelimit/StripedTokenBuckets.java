@@ -0,0 +1,68 @@
+package com.cargopro.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets for an open-ended set of keys in a fixed amount of memory.
+ * Keys are hashed onto a power-of-two number of stripes, each a single
+ * {@code long} in an {@link AtomicLongArray}; keys that share a stripe share
+ * its bucket, so the stripe count should be well above the number of keys
+ * active at once.
+ * <p>
+ * A stripe holds the bucket as its "theoretical arrival time" (the generic
+ * cell rate algorithm): every granted request pushes it one emission interval
+ * further, and a request is refused while it is more than a full burst ahead
+ * of now. Checking and taking a token is one compare-and-set, with no locks
+ * and nothing to refill or evict.
+ */
+public class StripedTokenBuckets {
+
+    private final AtomicLongArray arrivalTimes;
+    private final int mask;
+    private final long emissionIntervalNanos;
+    private final long capacityNanos;
+    private final LongSupplier nanoClock;
+    private final long origin;
+
+    public StripedTokenBuckets(double permitsPerSecond, int burst, int stripes, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0 || burst < 1 || stripes < 1) {
+            throw new IllegalArgumentException("Rate, burst and stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes) == stripes ? stripes : Integer.highestOneBit(stripes) << 1;
+        this.arrivalTimes = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.capacityNanos = emissionIntervalNanos * burst;
+        this.nanoClock = nanoClock;
+        // Stripes start at 0, which must read as "long ago" whatever the clock's own origin
+        this.origin = nanoClock.getAsLong() - capacityNanos;
+    }
+
+    // Take a token from the key's bucket; returns 0 if one was taken, otherwise the nanoseconds until one is due
+    public long tryAcquire(String key) {
+        int stripe = stripe(key);
+        while (true) {
+            long now = nanoClock.getAsLong() - origin;
+            long arrivalTime = arrivalTimes.get(stripe);
+            long next = Math.max(arrivalTime, now) + emissionIntervalNanos;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (arrivalTimes.compareAndSet(stripe, arrivalTime, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int stripes() {
+        return mask + 1;
+    }
+
+    // Spreads the hash code, so keys differing only in their last characters land far apart
+    private int stripe(String key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,112 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.enums.BookingStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Moves terminal loads and their bookings into {@code loads_archive} /
+ * {@code bookings_archive} and reads them back. Plain JDBC rather than JPA:
+ * a batch is one data-modifying statement, and archived rows are never
+ * managed entities.
+ */
+@Repository
+public class ArchiveRepository {
+
+    private static final String LOAD_COLUMNS = LoadRows.COLUMNS;
+
+    private static final String BOOKING_COLUMNS =
+            "id, load_id, transporter_id, proposed_rate, comment, status, requested_at, version, updated_at";
+
+    // Picks a batch of terminal loads (skipping rows other transactions hold) and moves them with their bookings.
+    // The foreign key from bookings is checked at the end of the statement, when both deletes have run.
+    private static final String ARCHIVE_BATCH_SQL =
+            "WITH picked AS (" +
+            "  SELECT id FROM loads" +
+            "  WHERE status IN ('BOOKED', 'CANCELLED') AND date_posted < :cutoff" +
+            "  ORDER BY date_posted" +
+            "  LIMIT :batchSize" +
+            "  FOR UPDATE SKIP LOCKED" +
+            "), moved_bookings AS (" +
+            "  DELETE FROM bookings b USING picked p WHERE b.load_id = p.id" +
+            "  RETURNING b." + BOOKING_COLUMNS.replace(", ", ", b.") +
+            "), archived_bookings AS (" +
+            "  INSERT INTO bookings_archive (" + BOOKING_COLUMNS + ")" +
+            "  SELECT " + BOOKING_COLUMNS + " FROM moved_bookings" +
+            "), moved_loads AS (" +
+            "  DELETE FROM loads l USING picked p WHERE l.id = p.id" +
+            "  RETURNING " + LoadRows.columns("l") +
+            ") " +
+            "INSERT INTO loads_archive (" + LOAD_COLUMNS + ") " +
+            "SELECT " + LOAD_COLUMNS + " FROM moved_loads";
+
+    private static final RowMapper<LoadDto> LOAD_ROW_MAPPER = LoadRows.ROW_MAPPER;
+
+    private static final RowMapper<BookingDto> BOOKING_ROW_MAPPER = (rs, rowNum) -> new BookingDto(
+            rs.getObject("id", UUID.class),
+            rs.getObject("load_id", UUID.class),
+            rs.getString("transporter_id"),
+            rs.getDouble("proposed_rate"),
+            rs.getString("comment"),
+            BookingStatus.valueOf(rs.getString("status")),
+            toLocalDateTime(rs.getTimestamp("requested_at")),
+            rs.getLong("version"),
+            toLocalDateTime(rs.getTimestamp("updated_at")));
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Archive up to batchSize terminal loads posted before the cutoff; returns the number of loads moved
+    public int archiveTerminalLoads(LocalDateTime cutoff, int batchSize) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("cutoff", cutoff)
+                .addValue("batchSize", batchSize);
+        return jdbcTemplate.update(ARCHIVE_BATCH_SQL, params);
+    }
+
+    // Find an archived load by ID
+    public Optional<LoadDto> findLoadById(UUID loadId) {
+        List<LoadDto> loads = jdbcTemplate.query(
+                "SELECT " + LOAD_COLUMNS + " FROM loads_archive WHERE id = :id",
+                new MapSqlParameterSource("id", loadId), LOAD_ROW_MAPPER);
+        return loads.stream().findFirst();
+    }
+
+    // Find an archived booking by ID
+    public Optional<BookingDto> findBookingById(UUID bookingId) {
+        List<BookingDto> bookings = jdbcTemplate.query(
+                "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive WHERE id = :id",
+                new MapSqlParameterSource("id", bookingId), BOOKING_ROW_MAPPER);
+        return bookings.stream().findFirst();
+    }
+
+    // Archived loads with the given IDs, in no particular order
+    public List<LoadDto> findLoadsByIdIn(Collection<UUID> loadIds) {
+        return jdbcTemplate.query(
+                "SELECT " + LOAD_COLUMNS + " FROM loads_archive WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", loadIds), LOAD_ROW_MAPPER);
+    }
+
+    // Archived bookings with the given IDs, in no particular order
+    public List<BookingDto> findBookingsByIdIn(Collection<UUID> bookingIds) {
+        return jdbcTemplate.query(
+                "SELECT " + BOOKING_COLUMNS + " FROM bookings_archive WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", bookingIds), BOOKING_ROW_MAPPER);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.AutoAcceptRule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Auto-accept rules of loads, in {@code load_auto_accept_rules}; at most one
+ * per load, removed together with the load.
+ */
+@Repository
+public class AutoAcceptRuleRepository {
+
+    private static final RowMapper<AutoAcceptRule> ROW_MAPPER = (rs, rowNum) -> new AutoAcceptRule(
+            rs.getObject("load_id", UUID.class),
+            rs.getDouble("max_rate"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Set the load's rule, replacing any previous one
+    public AutoAcceptRule save(UUID loadId, double maxRate) {
+        AutoAcceptRule rule = new AutoAcceptRule(loadId, maxRate, LocalDateTime.now());
+        jdbcTemplate.update(
+                "INSERT INTO load_auto_accept_rules (load_id, max_rate, created_at) " +
+                "VALUES (:loadId, :maxRate, :createdAt) " +
+                "ON CONFLICT (load_id) DO UPDATE SET max_rate = EXCLUDED.max_rate, created_at = EXCLUDED.created_at",
+                new MapSqlParameterSource()
+                        .addValue("loadId", loadId)
+                        .addValue("maxRate", maxRate)
+                        .addValue("createdAt", Timestamp.valueOf(rule.getCreatedAt())));
+        return rule;
+    }
+
+    public Optional<AutoAcceptRule> findByLoadId(UUID loadId) {
+        return jdbcTemplate.query(
+                "SELECT load_id, max_rate, created_at FROM load_auto_accept_rules WHERE load_id = :loadId",
+                new MapSqlParameterSource("loadId", loadId), ROW_MAPPER).stream().findFirst();
+    }
+
+    // Returns false if the load had no rule
+    public boolean deleteByLoadId(UUID loadId) {
+        return jdbcTemplate.update("DELETE FROM load_auto_accept_rules WHERE load_id = :loadId",
+                new MapSqlParameterSource("loadId", loadId)) == 1;
+    }
+}
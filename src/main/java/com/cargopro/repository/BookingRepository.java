@@ -1,67 +1,95 @@
 package com.cargopro.repository;
 
+import com.cargopro.dto.BookingDto;
 import com.cargopro.entity.Booking;
 import com.cargopro.enums.BookingStatus;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-@Repository
-public interface BookingRepository extends JpaRepository<Booking, UUID> {
-
-    // Find bookings by load ID
-    Page<Booking> findByLoadId(UUID loadId, Pageable pageable);
-
-    // Find bookings by transporter ID
-    Page<Booking> findByTransporterId(String transporterId, Pageable pageable);
-
-    // Find bookings by status
-    Page<Booking> findByStatus(BookingStatus status, Pageable pageable);
-
-    // Find bookings by load ID and status
-    Page<Booking> findByLoadIdAndStatus(UUID loadId, BookingStatus status, Pageable pageable);
-
-    // Find bookings by transporter ID and status
-    Page<Booking> findByTransporterIdAndStatus(String transporterId, BookingStatus status, Pageable pageable);
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-    // Find bookings by load ID and transporter ID
-    Page<Booking> findByLoadIdAndTransporterId(UUID loadId, String transporterId, Pageable pageable);
-
-    // Find bookings by load ID, transporter ID, and status
-    Page<Booking> findByLoadIdAndTransporterIdAndStatus(UUID loadId, String transporterId, BookingStatus status, Pageable pageable);
-
-    // Custom query for complex filtering
-    @Query("SELECT b FROM Booking b WHERE " +
-           "(:loadId IS NULL OR b.loadId = :loadId) AND " +
-           "(:transporterId IS NULL OR b.transporterId = :transporterId) AND " +
-           "(:status IS NULL OR b.status = :status)")
-    Page<Booking> findBookingsWithFilters(
-            @Param("loadId") UUID loadId,
-            @Param("transporterId") String transporterId,
-            @Param("status") BookingStatus status,
-            Pageable pageable);
-
-    // Find all bookings for a specific load
-    List<Booking> findByLoadId(UUID loadId);
-
-    // Find active bookings for a specific load
-    @Query("SELECT b FROM Booking b WHERE b.loadId = :loadId AND b.status IN ('PENDING', 'ACCEPTED')")
-    List<Booking> findActiveBookingsByLoadId(@Param("loadId") UUID loadId);
-
-    // Find accepted bookings for a specific load
-    List<Booking> findByLoadIdAndStatus(UUID loadId, BookingStatus status);
+@Repository
+public interface BookingRepository extends JpaRepository<Booking, UUID>, BookingRepositoryCustom {
+
+    String BOOKING_DTO_SELECT = "SELECT new com.cargopro.dto.BookingDto(" +
+            "b.id, b.loadId, b.transporterId, b.proposedRate, b.comment, b.status, b.requestedAt, " +
+            "b.version, b.updatedAt) ";
+
+    // The bookings with the given ids as DTOs, e.g. for a page of the change feed. Not bounded on requested_at:
+    // each partition answers from its primary key index, whose leading column is the id.
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b WHERE b.id IN :ids")
+    List<BookingDto> findDtosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Every query below is bounded on requested_at, the partition key, so Postgres prunes partitions outside the window
+
+    // Find a booking by ID, probing only the partitions of the requested_at window
+    @Query("SELECT b FROM Booking b WHERE b.id = :id " +
+           "AND b.requestedAt >= :requestedFrom AND b.requestedAt < :requestedTo")
+    Optional<Booking> findByIdAndRequestedAtBetween(@Param("id") UUID id,
+                                                    @Param("requestedFrom") LocalDateTime requestedFrom,
+                                                    @Param("requestedTo") LocalDateTime requestedTo);
+
+    // Find all bookings for a specific load as DTOs
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b WHERE b.loadId = :loadId AND b.requestedAt >= :requestedFrom")
+    List<BookingDto> findDtosByLoadId(@Param("loadId") UUID loadId, @Param("requestedFrom") LocalDateTime requestedFrom);
+
+    // Find all bookings for a specific load together with the load itself
+    @EntityGraph(attributePaths = "load")
+    @QueryHints({@QueryHint(name = HINT_READ_ONLY, value = "true"), @QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL")})
+    @Query("SELECT b FROM Booking b WHERE b.loadId = :loadId AND b.requestedAt >= :requestedFrom")
+    List<Booking> findWithLoadByLoadId(@Param("loadId") UUID loadId, @Param("requestedFrom") LocalDateTime requestedFrom);
+
+    // Find active bookings for a specific load as DTOs
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b WHERE b.loadId = :loadId AND b.requestedAt >= :requestedFrom " +
+           "AND b.status IN ('PENDING', 'ACCEPTED')")
+    List<BookingDto> findActiveBookingsByLoadId(@Param("loadId") UUID loadId,
+                                                @Param("requestedFrom") LocalDateTime requestedFrom);
+
+    // The best pending bids for a specific load, lowest proposed rate first and earliest first among equal rates;
+    // refills the in-memory ranking of the load
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(BOOKING_DTO_SELECT + "FROM Booking b WHERE b.loadId = :loadId AND b.requestedAt >= :requestedFrom " +
+           "AND b.status = 'PENDING' ORDER BY b.proposedRate, b.requestedAt, b.id")
+    List<BookingDto> findPendingByLoadIdOrderByRate(@Param("loadId") UUID loadId,
+                                                    @Param("requestedFrom") LocalDateTime requestedFrom,
+                                                    Pageable pageable);
+
+    // Find bookings in a given status for a specific load
+    @Query("SELECT b FROM Booking b WHERE b.loadId = :loadId AND b.requestedAt >= :requestedFrom AND b.status = :status")
+    List<Booking> findByLoadIdAndStatus(@Param("loadId") UUID loadId, @Param("status") BookingStatus status,
+                                        @Param("requestedFrom") LocalDateTime requestedFrom);
 
     // Count active bookings for a specific load
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.loadId = :loadId AND b.status IN ('PENDING', 'ACCEPTED')")
-    long countActiveBookingsByLoadId(@Param("loadId") UUID loadId);
+    @Query("SELECT COUNT(b) FROM Booking b WHERE b.loadId = :loadId AND b.requestedAt >= :requestedFrom " +
+           "AND b.status IN ('PENDING', 'ACCEPTED')")
+    long countActiveBookingsByLoadId(@Param("loadId") UUID loadId, @Param("requestedFrom") LocalDateTime requestedFrom);
 
     // Check if a transporter has already booked a specific load
-    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.loadId = :loadId AND b.transporterId = :transporterId")
-    boolean existsByLoadIdAndTransporterId(@Param("loadId") UUID loadId, @Param("transporterId") String transporterId);
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.loadId = :loadId AND b.requestedAt >= :requestedFrom " +
+           "AND b.transporterId = :transporterId")
+    boolean existsByLoadIdAndTransporterId(@Param("loadId") UUID loadId, @Param("transporterId") String transporterId,
+                                           @Param("requestedFrom") LocalDateTime requestedFrom);
+
+    // Which of the transporters have already booked a specific load, checking a whole batch of bids in one query
+    @Query("SELECT DISTINCT b.transporterId FROM Booking b WHERE b.loadId = :loadId " +
+           "AND b.requestedAt >= :requestedFrom AND b.transporterId IN :transporterIds")
+    List<String> findTransporterIdsByLoadId(@Param("loadId") UUID loadId,
+                                            @Param("transporterIds") Collection<String> transporterIds,
+                                            @Param("requestedFrom") LocalDateTime requestedFrom);
 } 
\ No newline at end of file
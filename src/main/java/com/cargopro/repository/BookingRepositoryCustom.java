@@ -0,0 +1,29 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingFilter;
+import com.cargopro.dto.ListVersion;
+import com.cargopro.entity.Booking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Queries on {@code bookings} that are assembled at runtime, implemented in {@link BookingRepositoryImpl}.
+ */
+public interface BookingRepositoryCustom {
+
+    // Bookings matching every set criterion of the filter, newest first, projected into DTOs; no count query
+    Slice<BookingDto> findBookings(BookingFilter filter, Pageable pageable);
+
+    // Same as above, with each booking's load fetched in the same query
+    Slice<Booking> findBookingsWithLoad(BookingFilter filter, Pageable pageable);
+
+    // Exact number of bookings matching the filter
+    long countBookings(BookingFilter filter);
+
+    // The query planner's estimate of the number of bookings matching the filter
+    long estimateBookings(BookingFilter filter);
+
+    // Count and last change of the bookings matching the filter, e.g. for a list ETag
+    ListVersion findBookingsVersion(BookingFilter filter);
+}
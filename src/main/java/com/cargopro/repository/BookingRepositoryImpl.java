@@ -0,0 +1,113 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingFilter;
+import com.cargopro.dto.ListVersion;
+import com.cargopro.entity.Booking;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Builds the {@code GET /booking} queries from only the criteria that are set,
+ * like {@link LoadRepositoryImpl}. The requested-at bounds, when present, are
+ * plain comparisons on the partition key, so Postgres also prunes partitions.
+ */
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Slice<BookingDto> findBookings(BookingFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<BookingDto> query = cb.createQuery(BookingDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        query.select(cb.construct(BookingDto.class,
+                        booking.get("id"), booking.get("loadId"), booking.get("transporterId"),
+                        booking.get("proposedRate"), booking.get("comment"), booking.get("status"),
+                        booking.get("requestedAt"), booking.get("version"), booking.get("updatedAt")))
+                .where(criteria(filter).toPredicates(cb, booking))
+                .orderBy(cb.desc(booking.get("requestedAt")), cb.desc(booking.get("id")));
+
+        List<BookingDto> content = entityManager.createQuery(query)
+                .setHint(HINT_FLUSH_MODE, "MANUAL")
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        return toSlice(content, pageable);
+    }
+
+    @Override
+    public Slice<Booking> findBookingsWithLoad(BookingFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Booking> query = cb.createQuery(Booking.class);
+        Root<Booking> booking = query.from(Booking.class);
+        // Many-to-one, so fetching keeps one row per booking and paging stays in SQL
+        booking.fetch("load");
+        query.select(booking)
+                .where(criteria(filter).toPredicates(cb, booking))
+                .orderBy(cb.desc(booking.get("requestedAt")), cb.desc(booking.get("id")));
+
+        List<Booking> content = entityManager.createQuery(query)
+                .setHint(HINT_READ_ONLY, true)
+                .setHint(HINT_FLUSH_MODE, "MANUAL")
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        return toSlice(content, pageable);
+    }
+
+    @Override
+    public long countBookings(BookingFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Booking> booking = countQuery.from(Booking.class);
+        countQuery.select(cb.count(booking)).where(criteria(filter).toPredicates(cb, booking));
+        return entityManager.createQuery(countQuery)
+                .setHint(HINT_FLUSH_MODE, "MANUAL")
+                .getSingleResult();
+    }
+
+    @Override
+    public long estimateBookings(BookingFilter filter) {
+        return criteria(filter).estimateRows(jdbcTemplate, "bookings");
+    }
+
+    @Override
+    public ListVersion findBookingsVersion(BookingFilter filter) {
+        return criteria(filter).version(jdbcTemplate, "bookings");
+    }
+
+    // The queries fetch one row past the page, which tells whether there is a next one
+    private static <T> Slice<T> toSlice(List<T> content, Pageable pageable) {
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private static FilterCriteria criteria(BookingFilter filter) {
+        return new FilterCriteria()
+                .atLeast("requestedAt", "requested_at", filter.getRequestedFrom())
+                .before("requestedAt", "requested_at", filter.getRequestedTo())
+                .equal("loadId", "load_id", filter.getLoadId())
+                .equal("transporterId", "transporter_id", filter.getTransporterId())
+                .in("status", "status", filter.getStatus());
+    }
+}
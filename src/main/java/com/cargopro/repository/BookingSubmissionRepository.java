@@ -0,0 +1,124 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.BookingSubmission;
+import com.cargopro.enums.SubmissionStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code booking_submissions} queue. Plain JDBC rather than JPA: claiming
+ * needs {@code FOR UPDATE SKIP LOCKED}, and a processed batch is written back
+ * as one JDBC batch.
+ */
+@Repository
+public class BookingSubmissionRepository {
+
+    private static final String COLUMNS = "id, idempotency_key, load_id, transporter_id, proposed_rate, comment, " +
+            "status, booking_id, error, submitted_at, processed_at";
+
+    private static final RowMapper<BookingSubmission> ROW_MAPPER = (rs, rowNum) -> {
+        BookingSubmission submission = new BookingSubmission();
+        submission.setId(rs.getObject("id", UUID.class));
+        submission.setIdempotencyKey(rs.getString("idempotency_key"));
+        submission.setLoadId(rs.getObject("load_id", UUID.class));
+        submission.setTransporterId(rs.getString("transporter_id"));
+        submission.setProposedRate(rs.getDouble("proposed_rate"));
+        submission.setComment(rs.getString("comment"));
+        submission.setStatus(SubmissionStatus.valueOf(rs.getString("status")));
+        submission.setBookingId(rs.getObject("booking_id", UUID.class));
+        submission.setError(rs.getString("error"));
+        submission.setSubmittedAt(toLocalDateTime(rs.getTimestamp("submitted_at")));
+        submission.setProcessedAt(toLocalDateTime(rs.getTimestamp("processed_at")));
+        return submission;
+    };
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Queue a submission; returns false, inserting nothing, when its idempotency key is already taken
+    public boolean insert(BookingSubmission submission) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", submission.getId())
+                .addValue("idempotencyKey", submission.getIdempotencyKey())
+                .addValue("loadId", submission.getLoadId())
+                .addValue("transporterId", submission.getTransporterId())
+                .addValue("proposedRate", submission.getProposedRate())
+                .addValue("comment", submission.getComment())
+                .addValue("submittedAt", submission.getSubmittedAt());
+        return jdbcTemplate.update(
+                "INSERT INTO booking_submissions (id, idempotency_key, load_id, transporter_id, proposed_rate, " +
+                "comment, status, submitted_at) " +
+                "VALUES (:id, :idempotencyKey, :loadId, :transporterId, :proposedRate, :comment, 'QUEUED', " +
+                ":submittedAt) " +
+                "ON CONFLICT (idempotency_key) DO NOTHING", params) == 1;
+    }
+
+    public Optional<BookingSubmission> findById(UUID id) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM booking_submissions WHERE id = :id",
+                new MapSqlParameterSource("id", id), ROW_MAPPER).stream().findFirst();
+    }
+
+    public Optional<BookingSubmission> findByIdempotencyKey(String idempotencyKey) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM booking_submissions WHERE idempotency_key = :key",
+                new MapSqlParameterSource("key", idempotencyKey), ROW_MAPPER).stream().findFirst();
+    }
+
+    // Queued submissions, counted up to limit only, so a long backlog costs no more than a full one
+    public int countQueued(int limit) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM (SELECT 1 FROM booking_submissions WHERE status = 'QUEUED' LIMIT :limit) q",
+                new MapSqlParameterSource("limit", limit), Integer.class);
+        return count != null ? count : 0;
+    }
+
+    // Lock up to batchSize of the oldest queued submissions that no other worker holds; call within a transaction
+    public List<BookingSubmission> claimQueued(int batchSize) {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM booking_submissions WHERE status = 'QUEUED' " +
+                "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("batchSize", batchSize), ROW_MAPPER);
+    }
+
+    // Lock one submission if it is still queued and no other worker holds it; call within a transaction
+    public Optional<BookingSubmission> claimQueuedById(UUID id) {
+        return jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM booking_submissions WHERE id = :id AND status = 'QUEUED' " +
+                "FOR UPDATE SKIP LOCKED",
+                new MapSqlParameterSource("id", id), ROW_MAPPER).stream().findFirst();
+    }
+
+    // Record the outcome (status, booking id or error) of processed submissions
+    public void complete(List<BookingSubmission> submissions) {
+        SqlParameterSource[] params = submissions.stream()
+                .map(submission -> new MapSqlParameterSource()
+                        .addValue("id", submission.getId())
+                        .addValue("status", submission.getStatus().name())
+                        .addValue("bookingId", submission.getBookingId())
+                        .addValue("error", submission.getError())
+                        .addValue("processedAt", submission.getProcessedAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(
+                "UPDATE booking_submissions SET status = :status, booking_id = :bookingId, error = :error, " +
+                "processed_at = :processedAt WHERE id = :id", params);
+    }
+
+    // Delete submissions processed before the cutoff; returns the number deleted
+    public int deleteProcessedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM booking_submissions WHERE processed_at < :cutoff",
+                new MapSqlParameterSource("cutoff", cutoff));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
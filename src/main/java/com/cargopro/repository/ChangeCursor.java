@@ -0,0 +1,83 @@
+package com.cargopro.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a change feed: changes are ordered by the writing transaction's
+ * id, then by row id, and a cursor stands after the change it names. Handed to
+ * clients as an opaque URL-safe token.
+ */
+public final class ChangeCursor {
+
+    private static final UUID NIL = new UUID(0, 0);
+
+    // Before every change, including the rows written before the feed existed
+    public static final ChangeCursor START = from(0);
+
+    private final long xid;
+    private final UUID id;
+
+    private ChangeCursor(long xid, UUID id) {
+        this.xid = xid;
+        this.id = id;
+    }
+
+    // Just after the given change
+    public static ChangeCursor after(long xid, UUID id) {
+        return new ChangeCursor(xid, id);
+    }
+
+    // Before every change of the given and later transactions
+    public static ChangeCursor from(long xid) {
+        return new ChangeCursor(xid, NIL);
+    }
+
+    // Throws IllegalArgumentException for anything encode() did not produce
+    public static ChangeCursor parse(String token) {
+        byte[] bytes = Base64.getUrlDecoder().decode(token);
+        if (bytes.length != 24) {
+            throw new IllegalArgumentException("Unexpected token length " + bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new ChangeCursor(buffer.getLong(), new UUID(buffer.getLong(), buffer.getLong()));
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(24)
+                .putLong(xid)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public long getXid() {
+        return xid;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChangeCursor)) return false;
+        ChangeCursor that = (ChangeCursor) o;
+        return xid == that.xid && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(xid) * 31 + id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeCursor{" +
+                "xid=" + xid +
+                ", id=" + id +
+                '}';
+    }
+}
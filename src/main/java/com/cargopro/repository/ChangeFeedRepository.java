@@ -0,0 +1,92 @@
+package com.cargopro.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads the change feeds that V9 maintains: live rows stamped with the
+ * transaction that last wrote them ({@code change_xid}) and tombstones of
+ * deleted ones, merged in {@link ChangeCursor} order. Only changes below a
+ * horizon are returned, at which every earlier transaction has finished, so a
+ * cursor never has to move back.
+ */
+@Repository
+public class ChangeFeedRepository {
+
+    private static final String LOAD_CHANGES_SQL = changesSql("loads", "load_tombstones");
+
+    private static final String BOOKING_CHANGES_SQL = changesSql("bookings", "booking_tombstones");
+
+    private static final RowMapper<Change> CHANGE_ROW_MAPPER = (rs, rowNum) -> new Change(
+            rs.getObject("id", UUID.class),
+            rs.getBoolean("deleted"),
+            ChangeCursor.after(rs.getLong("change_xid"), rs.getObject("id", UUID.class)));
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Oldest transaction still running, as seen by the current snapshot; all changes below it are final
+    public long currentHorizon() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", Long.class);
+    }
+
+    // Up to limit load changes after the cursor and below the horizon
+    public List<Change> findLoadChanges(ChangeCursor after, long horizon, int limit) {
+        return jdbcTemplate.query(LOAD_CHANGES_SQL, parameters(after, horizon, limit), CHANGE_ROW_MAPPER);
+    }
+
+    // Up to limit booking changes after the cursor and below the horizon
+    public List<Change> findBookingChanges(ChangeCursor after, long horizon, int limit) {
+        return jdbcTemplate.query(BOOKING_CHANGES_SQL, parameters(after, horizon, limit), CHANGE_ROW_MAPPER);
+    }
+
+    // Each branch is a range scan on its (change_xid, id) index; Postgres merges the two ordered streams
+    private static String changesSql(String table, String tombstoneTable) {
+        String range = "WHERE (change_xid, id) > (:xid, :id) AND change_xid < :horizon ORDER BY change_xid, id LIMIT :limit";
+        return "(SELECT id, change_xid, FALSE AS deleted FROM " + table + " " + range + ") " +
+                "UNION ALL " +
+                "(SELECT id, change_xid, TRUE AS deleted FROM " + tombstoneTable + " " + range + ") " +
+                "ORDER BY change_xid, id LIMIT :limit";
+    }
+
+    private static MapSqlParameterSource parameters(ChangeCursor after, long horizon, int limit) {
+        return new MapSqlParameterSource()
+                .addValue("xid", after.getXid())
+                .addValue("id", after.getId())
+                .addValue("horizon", horizon)
+                .addValue("limit", limit);
+    }
+
+    // A row that was inserted or updated, or deleted, at the given position
+    public static final class Change {
+
+        private final UUID id;
+        private final boolean deleted;
+        private final ChangeCursor cursor;
+
+        public Change(UUID id, boolean deleted, ChangeCursor cursor) {
+            this.id = id;
+            this.deleted = deleted;
+            this.cursor = cursor;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public boolean isDeleted() {
+            return deleted;
+        }
+
+        public ChangeCursor getCursor() {
+            return cursor;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.ListVersion;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The criteria of a filter that are actually set, each naming both its entity
+ * attribute and its column. They become JPA Criteria predicates for the page and
+ * count queries, and plain SQL for asking the planner how many rows would match
+ * and for the list's {@link ListVersion}.
+ * A criterion with a null value, or an empty collection, is left out.
+ */
+final class FilterCriteria {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private enum Operator {
+        EQUAL("="), IN("IN"), AT_LEAST(">="), AT_MOST("<="), BEFORE("<");
+
+        private final String sql;
+
+        Operator(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    private record Criterion(String attribute, String column, Operator operator, Object value) {
+    }
+
+    private final List<Criterion> criteria = new ArrayList<>();
+
+    FilterCriteria equal(String attribute, String column, Object value) {
+        return add(attribute, column, Operator.EQUAL, value);
+    }
+
+    // A single value is compared with = rather than IN
+    FilterCriteria in(String attribute, String column, Collection<?> values) {
+        if (values == null || values.isEmpty()) {
+            return this;
+        }
+        return values.size() == 1
+                ? add(attribute, column, Operator.EQUAL, values.iterator().next())
+                : add(attribute, column, Operator.IN, values);
+    }
+
+    FilterCriteria atLeast(String attribute, String column, Comparable<?> value) {
+        return add(attribute, column, Operator.AT_LEAST, value);
+    }
+
+    FilterCriteria atMost(String attribute, String column, Comparable<?> value) {
+        return add(attribute, column, Operator.AT_MOST, value);
+    }
+
+    FilterCriteria before(String attribute, String column, Comparable<?> value) {
+        return add(attribute, column, Operator.BEFORE, value);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Predicate[] toPredicates(CriteriaBuilder cb, Root<?> root) {
+        List<Predicate> predicates = new ArrayList<>(criteria.size());
+        for (Criterion criterion : criteria) {
+            Path path = root;
+            for (String part : criterion.attribute().split("\\.")) {
+                path = path.get(part);
+            }
+            Comparable value = criterion.value() instanceof Comparable comparable ? comparable : null;
+            predicates.add(switch (criterion.operator()) {
+                case EQUAL -> cb.equal(path, criterion.value());
+                case IN -> path.in((Collection<?>) criterion.value());
+                case AT_LEAST -> cb.greaterThanOrEqualTo(path, value);
+                case AT_MOST -> cb.lessThanOrEqualTo(path, value);
+                case BEFORE -> cb.lessThan(path, value);
+            });
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    // Planner row estimate for the rows of table matching these criteria; reads statistics, touches no rows
+    long estimateRows(NamedParameterJdbcTemplate jdbcTemplate, String table) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = "EXPLAIN SELECT 1 FROM " + table + where(parameters);
+        // The first plan line is the top node, whose row count is the estimate for the whole statement
+        List<String> plan = jdbcTemplate.queryForList(sql, parameters, String.class);
+        Matcher rows = PLAN_ROWS.matcher(plan.get(0));
+        return rows.find() ? Long.parseLong(rows.group(1)) : 0;
+    }
+
+    // Count and last change_xid of the matching rows of table, with the older transactions still running; one
+    // statement, so all three come from the same snapshot
+    ListVersion version(NamedParameterJdbcTemplate jdbcTemplate, String table) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource();
+        String sql = "WITH matching AS (SELECT COUNT(*) AS row_count, COALESCE(MAX(change_xid), 0) AS write_xid "
+                + "FROM " + table + where(parameters) + ") "
+                + "SELECT row_count, write_xid, ARRAY(SELECT xid::text::bigint AS pending "
+                + "FROM pg_snapshot_xip(pg_current_snapshot()) AS xid "
+                + "WHERE xid::text::bigint < write_xid ORDER BY pending) AS pending_xids FROM matching";
+        return jdbcTemplate.queryForObject(sql, parameters, (rs, rowNum) -> {
+            Array pending = rs.getArray("pending_xids");
+            long[] pendingXids = Arrays.stream((Long[]) pending.getArray()).mapToLong(Long::longValue).toArray();
+            pending.free();
+            return new ListVersion(rs.getLong("row_count"), rs.getLong("write_xid"), pendingXids);
+        });
+    }
+
+    private String where(MapSqlParameterSource parameters) {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < criteria.size(); i++) {
+            Criterion criterion = criteria.get(i);
+            String name = "p" + i;
+            sql.append(i == 0 ? " WHERE " : " AND ")
+                    .append(criterion.column()).append(' ').append(criterion.operator().sql)
+                    .append(criterion.operator() == Operator.IN ? " (:" + name + ")" : " :" + name);
+            parameters.addValue(name, sqlValue(criterion.value()));
+        }
+        return sql.toString();
+    }
+
+    private FilterCriteria add(String attribute, String column, Operator operator, Object value) {
+        if (value != null) {
+            criteria.add(new Criterion(attribute, column, operator, value));
+        }
+        return this;
+    }
+
+    // Enums are stored by name
+    private static Object sqlValue(Object value) {
+        if (value instanceof Collection<?> values) {
+            return values.stream().map(FilterCriteria::sqlValue).collect(Collectors.toList());
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value;
+    }
+}
@@ -0,0 +1,107 @@
+package com.cargopro.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Stored responses of requests made with an {@code Idempotency-Key}, in
+ * {@code idempotency_keys}. A key is claimed before the request runs and
+ * completed in the same transaction, so other transactions only ever see
+ * completed keys.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+
+    private static final RowMapper<StoredResponse> ROW_MAPPER = (rs, rowNum) -> new StoredResponse(
+            rs.getBytes("request_hash"),
+            rs.getInt("status_code"),
+            rs.getString("response_body"),
+            rs.getTimestamp("expires_at").toLocalDateTime());
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Claim the key for a request, taking over an expired claim; returns false if the key is held. A claim made by
+    // a transaction still running blocks until it ends. Call within the transaction that will complete the key.
+    public boolean claim(String operation, String idempotencyKey, byte[] requestHash, LocalDateTime expiresAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("operation", operation)
+                .addValue("key", idempotencyKey)
+                .addValue("requestHash", requestHash)
+                .addValue("createdAt", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("expiresAt", Timestamp.valueOf(expiresAt));
+        return jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (operation, idempotency_key, request_hash, created_at, expires_at) " +
+                "VALUES (:operation, :key, :requestHash, :createdAt, :expiresAt) " +
+                "ON CONFLICT (operation, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+                "status_code = NULL, response_body = NULL, created_at = EXCLUDED.created_at, " +
+                "expires_at = EXCLUDED.expires_at " +
+                "WHERE idempotency_keys.expires_at < EXCLUDED.created_at", params) == 1;
+    }
+
+    // Store the response of a claimed key
+    public void complete(String operation, String idempotencyKey, int statusCode, String responseBody) {
+        jdbcTemplate.update(
+                "UPDATE idempotency_keys SET status_code = :statusCode, response_body = :responseBody " +
+                "WHERE operation = :operation AND idempotency_key = :key",
+                new MapSqlParameterSource()
+                        .addValue("operation", operation)
+                        .addValue("key", idempotencyKey)
+                        .addValue("statusCode", statusCode)
+                        .addValue("responseBody", responseBody));
+    }
+
+    // The stored response for a key, if one was completed
+    public Optional<StoredResponse> find(String operation, String idempotencyKey) {
+        return jdbcTemplate.query(
+                "SELECT request_hash, status_code, response_body, expires_at FROM idempotency_keys " +
+                "WHERE operation = :operation AND idempotency_key = :key AND status_code IS NOT NULL",
+                new MapSqlParameterSource()
+                        .addValue("operation", operation)
+                        .addValue("key", idempotencyKey), ROW_MAPPER).stream().findFirst();
+    }
+
+    // Delete keys that expired before the cutoff; returns the number deleted
+    public int deleteExpired(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < :cutoff",
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)));
+    }
+
+    public static final class StoredResponse {
+
+        private final byte[] requestHash;
+        private final int statusCode;
+        private final String body;
+        private final LocalDateTime expiresAt;
+
+        public StoredResponse(byte[] requestHash, int statusCode, String body, LocalDateTime expiresAt) {
+            this.requestHash = requestHash;
+            this.statusCode = statusCode;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+
+        public byte[] getRequestHash() {
+            return requestHash;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
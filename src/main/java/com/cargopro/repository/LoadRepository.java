@@ -1,51 +1,51 @@
 package com.cargopro.repository;
 
+import com.cargopro.dto.LoadDto;
 import com.cargopro.entity.Load;
 import com.cargopro.enums.LoadStatus;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-@Repository
-public interface LoadRepository extends JpaRepository<Load, UUID> {
-
-    // Find loads by shipper ID
-    Page<Load> findByShipperId(String shipperId, Pageable pageable);
-
-    // Find loads by truck type
-    Page<Load> findByTruckType(String truckType, Pageable pageable);
-
-    // Find loads by status
-    Page<Load> findByStatus(LoadStatus status, Pageable pageable);
-
-    // Find loads by shipper ID and status
-    Page<Load> findByShipperIdAndStatus(String shipperId, LoadStatus status, Pageable pageable);
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-    // Find loads by truck type and status
-    Page<Load> findByTruckTypeAndStatus(String truckType, LoadStatus status, Pageable pageable);
-
-    // Find loads by shipper ID and truck type
-    Page<Load> findByShipperIdAndTruckType(String shipperId, String truckType, Pageable pageable);
-
-    // Find loads by shipper ID, truck type, and status
-    Page<Load> findByShipperIdAndTruckTypeAndStatus(String shipperId, String truckType, LoadStatus status, Pageable pageable);
-
-    // Custom query for complex filtering
-    @Query("SELECT l FROM Load l WHERE " +
-           "(:shipperId IS NULL OR l.shipperId = :shipperId) AND " +
-           "(:truckType IS NULL OR l.truckType = :truckType) AND " +
-           "(:status IS NULL OR l.status = :status)")
-    Page<Load> findLoadsWithFilters(
-            @Param("shipperId") String shipperId,
-            @Param("truckType") String truckType,
-            @Param("status") LoadStatus status,
-            Pageable pageable);
+@Repository
+public interface LoadRepository extends JpaRepository<Load, UUID>, LoadRepositoryCustom {
+
+    String LOAD_DTO_SELECT = "SELECT new com.cargopro.dto.LoadDto(" +
+            "l.id, l.shipperId, l.facility.loadingPoint, l.facility.unloadingPoint, " +
+            "l.facility.loadingDate, l.facility.unloadingDate, " +
+            "l.facility.loadingLatitude, l.facility.loadingLongitude, " +
+            "l.facility.unloadingLatitude, l.facility.unloadingLongitude, l.productType, l.truckType, " +
+            "l.noOfTrucks, l.weight, l.comment, l.datePosted, l.status, l.version, l.updatedAt) ";
+
+    // All loads in a status as DTOs, e.g. to warm the in-memory match index
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(LOAD_DTO_SELECT + "FROM Load l WHERE l.status = :status")
+    List<LoadDto> findDtosByStatus(@Param("status") LoadStatus status);
+
+    // The loads with the given ids as DTOs, e.g. for a page of the change feed
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query(LOAD_DTO_SELECT + "FROM Load l WHERE l.id IN :ids")
+    List<LoadDto> findDtosByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Status only, without loading the entity into the persistence context
+    @Query("SELECT l.status FROM Load l WHERE l.id = :loadId")
+    Optional<LoadStatus> findStatusById(@Param("loadId") UUID loadId);
+
+    // Posting time only; bookings of a load are never older than this
+    @Query("SELECT l.datePosted FROM Load l WHERE l.id = :loadId")
+    Optional<LocalDateTime> findDatePostedById(@Param("loadId") UUID loadId);
 
     // Find loads that have active bookings
     @Query("SELECT DISTINCT l FROM Load l JOIN l.bookings b WHERE b.status IN ('PENDING', 'ACCEPTED')")
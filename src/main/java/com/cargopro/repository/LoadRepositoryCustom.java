@@ -0,0 +1,45 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.ListVersion;
+import com.cargopro.dto.LoadFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Queries on {@code loads} that are assembled at runtime, implemented in {@link LoadRepositoryImpl}.
+ */
+public interface LoadRepositoryCustom {
+
+    // Loads matching every set criterion of the filter, newest first, projected into DTOs; no count query
+    Slice<LoadDto> findLoads(LoadFilter filter, Pageable pageable);
+
+    // Exact number of loads matching the filter
+    long countLoads(LoadFilter filter);
+
+    // The query planner's estimate of the number of loads matching the filter
+    long estimateLoads(LoadFilter filter);
+
+    // Full-text match on the weighted search_vector, or fuzzy word match on route/product type; both are answered
+    // from GIN indexes and ranked by combined relevance. status may be null for any status.
+    Page<LoadDto> searchLoads(String query, String status, Pageable pageable);
+
+    // Radius queries on the generated geography columns; ST_DWithin is answered from their GiST indexes
+
+    // Loads in the status loaded within the radius of the origin, nearest first
+    Page<LoadDto> findNearOrigin(double originLat, double originLng, double originRadiusMeters,
+                                 String status, Pageable pageable);
+
+    // Loads in the status unloaded within the radius of the destination, nearest first
+    Page<LoadDto> findNearDestination(double destinationLat, double destinationLng, double destinationRadiusMeters,
+                                      String status, Pageable pageable);
+
+    // Loads in the status near both the origin and the destination, nearest to the origin first
+    Page<LoadDto> findNearOriginAndDestination(double originLat, double originLng, double originRadiusMeters,
+                                               double destinationLat, double destinationLng,
+                                               double destinationRadiusMeters, String status, Pageable pageable);
+
+    // Count and last change of the loads matching the filter, e.g. for a list ETag
+    ListVersion findLoadsVersion(LoadFilter filter);
+}
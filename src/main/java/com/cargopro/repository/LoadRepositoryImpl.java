@@ -0,0 +1,189 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.ListVersion;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.LoadFilter;
+import com.cargopro.entity.Load;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
+
+/**
+ * Builds the {@code GET /load} query from only the criteria that are set, so
+ * every filter combination becomes its own plain SQL statement that Postgres
+ * can plan against the matching index, instead of one catch-all
+ * {@code (:x IS NULL OR col = :x)} statement whose generic plan cannot use any.
+ * <p>
+ * The search and radius queries need Postgres operators JPQL does not have;
+ * they run as plain SQL and map rows straight into {@link LoadDto}s, so no
+ * managed {@link Load} entities are built for a read.
+ */
+public class LoadRepositoryImpl implements LoadRepositoryCustom {
+
+    private static final String LOAD_SEARCH_WHERE = "FROM loads l, websearch_to_tsquery('english', :query) q " +
+            "WHERE (l.search_vector @@ q OR lower(:query) <% l.search_text) ";
+
+    private static final String LOAD_SEARCH_ORDER = "ORDER BY ts_rank_cd(l.search_vector, q) + " +
+            "word_similarity(lower(:query), l.search_text) DESC, l.date_posted DESC";
+
+    private static final String NEAR_ORIGIN = "ST_DWithin(l.loading_geog, " +
+            "CAST(ST_SetSRID(ST_MakePoint(:originLng, :originLat), 4326) AS geography), :originRadiusMeters) ";
+
+    private static final String NEAR_DESTINATION = "ST_DWithin(l.unloading_geog, " +
+            "CAST(ST_SetSRID(ST_MakePoint(:destinationLng, :destinationLat), 4326) AS geography), " +
+            ":destinationRadiusMeters) ";
+
+    private static final String BY_ORIGIN_DISTANCE = "ORDER BY ST_Distance(l.loading_geog, " +
+            "CAST(ST_SetSRID(ST_MakePoint(:originLng, :originLat), 4326) AS geography)), l.date_posted DESC";
+
+    private static final String BY_DESTINATION_DISTANCE = "ORDER BY ST_Distance(l.unloading_geog, " +
+            "CAST(ST_SetSRID(ST_MakePoint(:destinationLng, :destinationLat), 4326) AS geography)), " +
+            "l.date_posted DESC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public Slice<LoadDto> findLoads(LoadFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<LoadDto> query = cb.createQuery(LoadDto.class);
+        Root<Load> load = query.from(Load.class);
+        Path<Object> facility = load.get("facility");
+        query.select(cb.construct(LoadDto.class,
+                        load.get("id"), load.get("shipperId"),
+                        facility.get("loadingPoint"), facility.get("unloadingPoint"),
+                        facility.get("loadingDate"), facility.get("unloadingDate"),
+                        facility.get("loadingLatitude"), facility.get("loadingLongitude"),
+                        facility.get("unloadingLatitude"), facility.get("unloadingLongitude"),
+                        load.get("productType"), load.get("truckType"), load.get("noOfTrucks"),
+                        load.get("weight"), load.get("comment"), load.get("datePosted"), load.get("status"),
+                        load.get("version"), load.get("updatedAt")))
+                .where(criteria(filter).toPredicates(cb, load))
+                .orderBy(cb.desc(load.get("datePosted")), cb.desc(load.get("id")));
+
+        // One row past the page tells whether there is a next one
+        List<LoadDto> content = entityManager.createQuery(query)
+                .setHint(HINT_FLUSH_MODE, "MANUAL")
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public long countLoads(LoadFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Load> load = countQuery.from(Load.class);
+        countQuery.select(cb.count(load)).where(criteria(filter).toPredicates(cb, load));
+        return entityManager.createQuery(countQuery)
+                .setHint(HINT_FLUSH_MODE, "MANUAL")
+                .getSingleResult();
+    }
+
+    @Override
+    public long estimateLoads(LoadFilter filter) {
+        return criteria(filter).estimateRows(jdbcTemplate, "loads");
+    }
+
+    @Override
+    public Page<LoadDto> searchLoads(String query, String status, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("query", query);
+        // Like the filters of findLoads, the status is only part of the statement when one is given
+        if (status == null) {
+            return page(LOAD_SEARCH_WHERE, LOAD_SEARCH_ORDER, params, pageable);
+        }
+        params.addValue("status", status);
+        return page(LOAD_SEARCH_WHERE + "AND l.status = :status ", LOAD_SEARCH_ORDER, params, pageable);
+    }
+
+    @Override
+    public Page<LoadDto> findNearOrigin(double originLat, double originLng, double originRadiusMeters,
+                                        String status, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status);
+        origin(params, originLat, originLng, originRadiusMeters);
+        return page("FROM loads l WHERE l.status = :status AND " + NEAR_ORIGIN, BY_ORIGIN_DISTANCE, params, pageable);
+    }
+
+    @Override
+    public Page<LoadDto> findNearDestination(double destinationLat, double destinationLng,
+                                             double destinationRadiusMeters, String status, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status);
+        destination(params, destinationLat, destinationLng, destinationRadiusMeters);
+        return page("FROM loads l WHERE l.status = :status AND " + NEAR_DESTINATION, BY_DESTINATION_DISTANCE,
+                params, pageable);
+    }
+
+    @Override
+    public Page<LoadDto> findNearOriginAndDestination(double originLat, double originLng, double originRadiusMeters,
+                                                      double destinationLat, double destinationLng,
+                                                      double destinationRadiusMeters, String status,
+                                                      Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status);
+        origin(params, originLat, originLng, originRadiusMeters);
+        destination(params, destinationLat, destinationLng, destinationRadiusMeters);
+        return page("FROM loads l WHERE l.status = :status AND " + NEAR_ORIGIN + "AND " + NEAR_DESTINATION,
+                BY_ORIGIN_DISTANCE, params, pageable);
+    }
+
+    @Override
+    public ListVersion findLoadsVersion(LoadFilter filter) {
+        return criteria(filter).version(jdbcTemplate, "loads");
+    }
+
+    private static FilterCriteria criteria(LoadFilter filter) {
+        return new FilterCriteria()
+                .equal("shipperId", "shipper_id", filter.getShipperId())
+                .equal("truckType", "truck_type", filter.getTruckType())
+                .equal("productType", "product_type", filter.getProductType())
+                .in("status", "status", filter.getStatus())
+                .atLeast("facility.loadingDate", "loading_date", filter.getLoadingFrom())
+                .atMost("facility.loadingDate", "loading_date", filter.getLoadingTo())
+                .atLeast("facility.unloadingDate", "unloading_date", filter.getUnloadingFrom())
+                .atMost("facility.unloadingDate", "unloading_date", filter.getUnloadingTo())
+                .atLeast("weight", "weight", filter.getMinWeight())
+                .atMost("weight", "weight", filter.getMaxWeight())
+                .atLeast("noOfTrucks", "no_of_trucks", filter.getMinTrucks())
+                .atMost("noOfTrucks", "no_of_trucks", filter.getMaxTrucks());
+    }
+
+    // One page of the loads selected by from (a FROM ... WHERE clause over loads l) in the given order; the
+    // count query only runs when the page does not already tell the total
+    private Page<LoadDto> page(String from, String orderBy, MapSqlParameterSource params, Pageable pageable) {
+        params.addValue("limit", pageable.getPageSize()).addValue("offset", pageable.getOffset());
+        List<LoadDto> content = jdbcTemplate.query(
+                "SELECT " + LoadRows.columns("l") + " " + from + orderBy + " LIMIT :limit OFFSET :offset",
+                params, LoadRows.ROW_MAPPER);
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject("SELECT COUNT(*) " + from, params, Long.class));
+    }
+
+    private static void origin(MapSqlParameterSource params, double lat, double lng, double radiusMeters) {
+        params.addValue("originLat", lat).addValue("originLng", lng).addValue("originRadiusMeters", radiusMeters);
+    }
+
+    private static void destination(MapSqlParameterSource params, double lat, double lng, double radiusMeters) {
+        params.addValue("destinationLat", lat).addValue("destinationLng", lng)
+                .addValue("destinationRadiusMeters", radiusMeters);
+    }
+}
@@ -0,0 +1,53 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.LoadDto;
+import com.cargopro.enums.LoadStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns of a load row and their mapping into a {@link LoadDto}, shared by the
+ * plain SQL read paths over {@code loads} and {@code loads_archive}, which have
+ * the same columns.
+ */
+final class LoadRows {
+
+    static final String COLUMNS = "id, shipper_id, loading_point, unloading_point, loading_date, " +
+            "unloading_date, loading_lat, loading_lng, unloading_lat, unloading_lng, " +
+            "product_type, truck_type, no_of_trucks, weight, comment, date_posted, status, version, updated_at";
+
+    static final RowMapper<LoadDto> ROW_MAPPER = (rs, rowNum) -> new LoadDto(
+            rs.getObject("id", UUID.class),
+            rs.getString("shipper_id"),
+            rs.getString("loading_point"),
+            rs.getString("unloading_point"),
+            toLocalDateTime(rs.getTimestamp("loading_date")),
+            toLocalDateTime(rs.getTimestamp("unloading_date")),
+            rs.getObject("loading_lat", Double.class),
+            rs.getObject("loading_lng", Double.class),
+            rs.getObject("unloading_lat", Double.class),
+            rs.getObject("unloading_lng", Double.class),
+            rs.getString("product_type"),
+            rs.getString("truck_type"),
+            rs.getInt("no_of_trucks"),
+            rs.getDouble("weight"),
+            rs.getString("comment"),
+            toLocalDateTime(rs.getTimestamp("date_posted")),
+            LoadStatus.valueOf(rs.getString("status")),
+            rs.getLong("version"),
+            toLocalDateTime(rs.getTimestamp("updated_at")));
+
+    private LoadRows() {}
+
+    // The columns qualified with a table alias, e.g. for a query joining loads to something else
+    static String columns(String alias) {
+        return alias + "." + COLUMNS.replace(", ", ", " + alias + ".");
+    }
+
+    static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,58 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BatchGetResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Resolves a list of ids with one {@code IN} query per chunk instead of one
+ * query per id; shared by the load and booking batch gets.
+ */
+final class BatchGets {
+
+    // Ids per IN list, keeping statements and their plans a bounded size
+    static final int CHUNK_SIZE = 500;
+
+    private BatchGets() {}
+
+    // loader reads the live rows with the given ids, archiveLoader the archived ones; the archive is only asked for
+    // ids the live tables do not have, as GET /load/{loadId} and GET /booking/{bookingId} fall back to it
+    static <T> BatchGetResponse<T> get(List<UUID> ids, Function<List<UUID>, List<T>> loader,
+                                       Function<List<UUID>, List<T>> archiveLoader, Function<T, UUID> idOf) {
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<UUID, T> rows = new HashMap<>(distinct.size() * 2);
+        load(distinct, loader, idOf, rows);
+
+        List<UUID> notLive = distinct.stream().filter(id -> !rows.containsKey(id)).toList();
+        if (!notLive.isEmpty()) {
+            load(notLive, archiveLoader, idOf, rows);
+        }
+
+        List<T> found = new ArrayList<>(rows.size());
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : distinct) {
+            T row = rows.get(id);
+            if (row != null) {
+                found.add(row);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BatchGetResponse<>(found, missing);
+    }
+
+    private static <T> void load(List<UUID> ids, Function<List<UUID>, List<T>> loader, Function<T, UUID> idOf,
+                                 Map<UUID, T> rows) {
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            for (T row : loader.apply(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))) {
+                rows.put(idOf.apply(row), row);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BookingDto;
+
+/**
+ * Result for one bid of {@link BookingService#createBookings}: the booking
+ * created for it, or why it was refused.
+ */
+public final class BookingOutcome {
+
+    private final BookingDto booking;
+    private final String error;
+
+    private BookingOutcome(BookingDto booking, String error) {
+        this.booking = booking;
+        this.error = error;
+    }
+
+    public static BookingOutcome created(BookingDto booking) {
+        return new BookingOutcome(booking, null);
+    }
+
+    public static BookingOutcome rejected(String error) {
+        return new BookingOutcome(null, error);
+    }
+
+    public boolean isCreated() {
+        return booking != null;
+    }
+
+    public BookingDto getBooking() {
+        return booking;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -1,34 +1,82 @@
 package com.cargopro.service;
 
+import com.cargopro.dto.AutoAcceptRule;
+import com.cargopro.dto.BatchGetResponse;
 import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingFilter;
+import com.cargopro.dto.ChangeSet;
+import com.cargopro.dto.ListVersion;
 import com.cargopro.dto.PagedResponse;
 import com.cargopro.entity.Booking;
+import com.cargopro.entity.UuidV7Generator;
 import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.CountMode;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.event.BookingChangedEvent;
 import com.cargopro.exception.BusinessException;
 import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.ranking.BookingRanking;
+import com.cargopro.repository.ArchiveRepository;
+import com.cargopro.repository.AutoAcceptRuleRepository;
 import com.cargopro.repository.BookingRepository;
+import com.cargopro.repository.ChangeCursor;
+import com.cargopro.repository.ChangeFeedRepository;
+import com.cargopro.repository.ChangeFeedRepository.Change;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class BookingService {
 
+    // Open-ended lower bound used when a load's posting time is unknown
+    static final LocalDateTime EARLIEST_REQUESTED_AT = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // How far requested_at may lie from the time in a booking's UUIDv7
+    static final Duration REQUESTED_AT_MARGIN = Duration.ofDays(2);
+
     @Autowired
     private BookingRepository bookingRepository;
 
     @Autowired
     private LoadService loadService;
 
+    @Autowired
+    private ArchiveRepository archiveRepository;
+
+    @Autowired
+    private ChangeFeedRepository changeFeedRepository;
+
+    @Autowired
+    private BookingRanking bookingRanking;
+
+    @Autowired
+    private AutoAcceptRuleRepository autoAcceptRuleRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Create a new booking
+    @Transactional
     public BookingDto createBooking(BookingDto bookingDto) {
         // Check if load exists and can accept bookings
         if (!loadService.canAcceptBookings(bookingDto.getLoadId())) {
@@ -36,47 +84,121 @@ public class BookingService {
         }
 
         // Check if transporter has already booked this load
-        if (bookingRepository.existsByLoadIdAndTransporterId(bookingDto.getLoadId(), bookingDto.getTransporterId())) {
+        if (bookingRepository.existsByLoadIdAndTransporterId(bookingDto.getLoadId(), bookingDto.getTransporterId(),
+                bookingsWindowStart(bookingDto.getLoadId()))) {
             throw new BusinessException("Transporter has already booked this load");
         }
 
         Booking booking = convertToEntity(bookingDto);
         booking.setStatus(BookingStatus.PENDING); // Default status
         Booking savedBooking = bookingRepository.save(booking);
-        return convertToDto(savedBooking);
+        return publishSaved(savedBooking);
+    }
+
+    // Create several bookings in one transaction, e.g. a batch of queued submissions. The rules of createBooking
+    // are checked once per load rather than once per bid, and the bookings are inserted as one JDBC batch. A bid
+    // that breaks a rule is reported in its outcome, at the bid's position, instead of failing the others.
+    @Transactional
+    public List<BookingOutcome> createBookings(List<BookingDto> bookingDtos) {
+        BookingOutcome[] outcomes = new BookingOutcome[bookingDtos.size()];
+        Map<UUID, List<Integer>> positionsByLoad = new LinkedHashMap<>();
+        for (int position = 0; position < bookingDtos.size(); position++) {
+            positionsByLoad.computeIfAbsent(bookingDtos.get(position).getLoadId(), loadId -> new ArrayList<>())
+                    .add(position);
+        }
+
+        List<Booking> bookings = new ArrayList<>();
+        List<Integer> bookingPositions = new ArrayList<>();
+        for (Map.Entry<UUID, List<Integer>> entry : positionsByLoad.entrySet()) {
+            UUID loadId = entry.getKey();
+            List<Integer> positions = entry.getValue();
+            Optional<LoadStatus> status = loadService.findStatus(loadId);
+            String loadError = status.isEmpty() ? new ResourceNotFoundException("Load", "id", loadId).getMessage()
+                    : !LoadService.acceptsBookings(status.get()) ? "Load is not available for booking" : null;
+            if (loadError != null) {
+                positions.forEach(position -> outcomes[position] = BookingOutcome.rejected(loadError));
+                continue;
+            }
+
+            // Transporters that booked the load before, or earlier in this batch
+            Set<String> transporterIds = positions.stream()
+                    .map(position -> bookingDtos.get(position).getTransporterId())
+                    .collect(Collectors.toSet());
+            Set<String> booked = new HashSet<>(bookingRepository.findTransporterIdsByLoadId(loadId, transporterIds,
+                    bookingsWindowStart(loadId)));
+            for (int position : positions) {
+                BookingDto bookingDto = bookingDtos.get(position);
+                if (!booked.add(bookingDto.getTransporterId())) {
+                    outcomes[position] = BookingOutcome.rejected("Transporter has already booked this load");
+                    continue;
+                }
+                Booking booking = convertToEntity(bookingDto);
+                booking.setStatus(BookingStatus.PENDING);
+                bookings.add(booking);
+                bookingPositions.add(position);
+            }
+        }
+
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        for (int i = 0; i < savedBookings.size(); i++) {
+            outcomes[bookingPositions.get(i)] = BookingOutcome.created(publishSaved(savedBookings.get(i)));
+        }
+        return Arrays.asList(outcomes);
     }
 
-    // Get bookings with pagination and filtering
-    public PagedResponse<BookingDto> getBookings(UUID loadId, String transporterId, BookingStatus status, 
-                                                 int page, int size) {
+    // Get bookings with pagination and filtering, optionally with each booking's load, totalled as countMode asks
+    public PagedResponse<BookingDto> getBookings(BookingFilter filter, CountMode countMode, int page, int size,
+                                                 boolean expandLoad) {
+        return getBookings(filter, countMode, page, size, expandLoad, null);
+    }
+
+    // Same as above; a version already read for the filter, if any, provides the exact count
+    public PagedResponse<BookingDto> getBookings(BookingFilter filter, CountMode countMode, int page, int size,
+                                                 boolean expandLoad, ListVersion version) {
+        prepareFilter(filter);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Booking> bookingPage = bookingRepository.findBookingsWithFilters(loadId, transporterId, status, pageable);
-        
-        List<BookingDto> bookingDtos = bookingPage.getContent().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Slice<BookingDto> bookingSlice = expandLoad
+                ? bookingRepository.findBookingsWithLoad(filter, pageable).map(this::convertToDtoWithLoad)
+                : bookingRepository.findBookings(filter, pageable);
 
-        return new PagedResponse<>(
-                bookingDtos,
-                page,
-                size,
-                bookingPage.getTotalElements(),
-                bookingPage.getTotalPages(),
-                bookingPage.hasNext(),
-                bookingPage.hasPrevious()
-        );
+        return PagedResponse.of(bookingSlice, countMode,
+                version != null ? version::getCount : () -> bookingRepository.countBookings(filter),
+                () -> bookingRepository.estimateBookings(filter));
     }
 
-    // Get booking by ID
+    // Count and last change of the bookings matching the filter, from which GET /booking derives its ETag
+    public ListVersion getBookingsVersion(BookingFilter filter) {
+        prepareFilter(filter);
+        return bookingRepository.findBookingsVersion(filter);
+    }
+
+    // Bookings inserted, updated or deleted since the token, oldest change first
+    public ChangeSet<BookingDto> getBookingChanges(String since, int size) {
+        ChangeCursor after = ChangeFeeds.cursor(since);
+        long horizon = changeFeedRepository.currentHorizon();
+        List<Change> changes = changeFeedRepository.findBookingChanges(after, horizon, size + 1);
+        return ChangeFeeds.toChangeSet(changes, size, after, horizon, bookingRepository::findDtosByIdIn,
+                BookingDto::getId);
+    }
+
+    // Get booking by ID, falling back to the archive for bookings of archived loads
     public BookingDto getBookingById(UUID bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        return findBooking(bookingId)
+                .map(this::convertToDto)
+                .or(() -> archiveRepository.findBookingById(bookingId))
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
-        return convertToDto(booking);
+    }
+
+    // Bookings by ID in request order, archived ones included; unknown IDs are reported rather than thrown
+    public BatchGetResponse<BookingDto> getBookingsByIds(List<UUID> bookingIds) {
+        return BatchGets.get(bookingIds, bookingRepository::findDtosByIdIn, archiveRepository::findBookingsByIdIn,
+                BookingDto::getId);
     }
 
     // Update booking
+    @Transactional
     public BookingDto updateBooking(UUID bookingId, BookingDto bookingDto) {
-        Booking existingBooking = bookingRepository.findById(bookingId)
+        Booking existingBooking = findBooking(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
         // Check if booking can be updated (not rejected)
@@ -90,24 +212,27 @@ public class BookingService {
         existingBooking.setComment(bookingDto.getComment());
 
         Booking updatedBooking = bookingRepository.save(existingBooking);
-        return convertToDto(updatedBooking);
+        return publishSaved(updatedBooking);
     }
 
     // Delete booking
+    @Transactional
     public void deleteBooking(UUID bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = findBooking(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
         UUID loadId = booking.getLoadId();
         bookingRepository.delete(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.deleted(bookingId, loadId));
 
         // Update load status if needed
         updateLoadStatusAfterBookingDeletion(loadId);
     }
 
     // Accept booking
+    @Transactional
     public BookingDto acceptBooking(UUID bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = findBooking(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
         // Check if booking is in PENDING status
@@ -130,12 +255,13 @@ public class BookingService {
         // Reject all other pending bookings for the same load
         rejectOtherPendingBookings(booking.getLoadId(), bookingId);
 
-        return convertToDto(savedBooking);
+        return publishSaved(savedBooking);
     }
 
     // Reject booking
+    @Transactional
     public BookingDto rejectBooking(UUID bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = findBooking(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
         // Check if booking is in PENDING status
@@ -149,43 +275,134 @@ public class BookingService {
         // Update load status if needed
         updateLoadStatusAfterBookingDeletion(booking.getLoadId());
 
-        return convertToDto(savedBooking);
+        return publishSaved(savedBooking);
     }
 
-    // Get all bookings for a specific load
-    public List<BookingDto> getBookingsByLoadId(UUID loadId) {
-        List<Booking> bookings = bookingRepository.findByLoadId(loadId);
-        return bookings.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    // Get all bookings for a specific load, optionally with the load itself
+    public List<BookingDto> getBookingsByLoadId(UUID loadId, boolean expandLoad) {
+        if (expandLoad) {
+            return bookingRepository.findWithLoadByLoadId(loadId, bookingsWindowStart(loadId)).stream()
+                    .map(this::convertToDtoWithLoad)
+                    .collect(Collectors.toList());
+        }
+        return bookingRepository.findDtosByLoadId(loadId, bookingsWindowStart(loadId));
     }
 
     // Get active bookings for a specific load
     public List<BookingDto> getActiveBookingsByLoadId(UUID loadId) {
-        List<Booking> bookings = bookingRepository.findActiveBookingsByLoadId(loadId);
-        return bookings.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return bookingRepository.findActiveBookingsByLoadId(loadId, bookingsWindowStart(loadId));
+    }
+
+    // The best pending bids for a specific load, lowest proposed rate first, from the in-memory ranking
+    public List<BookingDto> getTopBookingsByLoadId(UUID loadId, int limit) {
+        return bookingRanking.top(loadId, limit, () -> loadService.findStatus(loadId),
+                count -> bookingRepository.findPendingByLoadIdOrderByRate(loadId, bookingsWindowStart(loadId),
+                        PageRequest.of(0, count)));
+    }
+
+    // Set the load's auto-accept rule. A pending bid already at or under the rate is accepted right away, the
+    // best one if there are several; later bids are checked as they come in (see applyAutoAcceptRule).
+    @Transactional
+    public AutoAcceptRule setAutoAcceptRule(UUID loadId, AutoAcceptRule rule) {
+        if (!loadService.canAcceptBookings(loadId)) {
+            throw new BusinessException("Load is not available for booking");
+        }
+        AutoAcceptRule savedRule = autoAcceptRuleRepository.save(loadId, rule.getMaxRate());
+        acceptBestPendingBooking(savedRule);
+        return savedRule;
+    }
+
+    // Get the load's auto-accept rule
+    public AutoAcceptRule getAutoAcceptRule(UUID loadId) {
+        return autoAcceptRuleRepository.findByLoadId(loadId)
+                .orElseThrow(() -> new ResourceNotFoundException("Auto-accept rule", "loadId", loadId));
+    }
+
+    // Remove the load's auto-accept rule
+    @Transactional
+    public void deleteAutoAcceptRule(UUID loadId) {
+        if (!autoAcceptRuleRepository.deleteByLoadId(loadId)) {
+            throw new ResourceNotFoundException("Auto-accept rule", "loadId", loadId);
+        }
+    }
+
+    // Accept the best pending bid of the load if its auto-accept rule takes it. Throws like acceptBooking when
+    // the bid or the load changed in the meantime.
+    @Transactional
+    public Optional<BookingDto> applyAutoAcceptRule(UUID loadId) {
+        return autoAcceptRuleRepository.findByLoadId(loadId).flatMap(this::acceptBestPendingBooking);
     }
 
     // Private helper methods
+
+    private void prepareFilter(BookingFilter filter) {
+        validateFilter(filter);
+        // A load's bookings can never predate the load, so a load filter narrows the window on its own
+        if (filter.getRequestedFrom() == null && filter.getLoadId() != null) {
+            filter.setRequestedFrom(bookingsWindowStart(filter.getLoadId()));
+        }
+    }
+
+    private static void validateFilter(BookingFilter filter) {
+        if (filter.getRequestedFrom() != null && filter.getRequestedTo() != null
+                && filter.getRequestedFrom().isAfter(filter.getRequestedTo())) {
+            throw new BusinessException("Invalid requested date range: lower bound is after upper bound");
+        }
+    }
+
+    // Find a booking by ID. A UUIDv7 carries the time its booking was created, which is when requested_at was
+    // stamped, so only the partitions around it are probed; the margin covers differing JVM time zones.
+    // Older random IDs fall back to probing every partition.
+    private Optional<Booking> findBooking(UUID bookingId) {
+        return UuidV7Generator.timestampOf(bookingId)
+                .map(created -> LocalDateTime.ofInstant(created, ZoneId.systemDefault()))
+                .map(created -> bookingRepository.findByIdAndRequestedAtBetween(bookingId,
+                        created.minus(REQUESTED_AT_MARGIN), created.plus(REQUESTED_AT_MARGIN)))
+                .orElseGet(() -> bookingRepository.findById(bookingId));
+    }
+
+    // Earliest requested_at a booking for the load can have; lets Postgres skip partitions older than the load
+    private LocalDateTime bookingsWindowStart(UUID loadId) {
+        return loadService.findDatePosted(loadId)
+                .map(datePosted -> datePosted.minusDays(1))
+                .orElse(EARLIEST_REQUESTED_AT);
+    }
+
+    private Optional<BookingDto> acceptBestPendingBooking(AutoAcceptRule rule) {
+        UUID loadId = rule.getLoadId();
+        List<BookingDto> best = bookingRepository.findPendingByLoadIdOrderByRate(loadId, bookingsWindowStart(loadId),
+                PageRequest.of(0, 1));
+        return best.stream()
+                .filter(rule::accepts)
+                .findFirst()
+                .map(booking -> acceptBooking(booking.getId()));
+    }
+
     private void rejectOtherPendingBookings(UUID loadId, UUID acceptedBookingId) {
-        List<Booking> pendingBookings = bookingRepository.findByLoadIdAndStatus(loadId, BookingStatus.PENDING);
+        List<Booking> pendingBookings = bookingRepository.findByLoadIdAndStatus(loadId, BookingStatus.PENDING,
+                bookingsWindowStart(loadId));
         for (Booking booking : pendingBookings) {
             if (!booking.getId().equals(acceptedBookingId)) {
                 booking.setStatus(BookingStatus.REJECTED);
-                bookingRepository.save(booking);
+                publishSaved(bookingRepository.save(booking));
             }
         }
     }
 
     private void updateLoadStatusAfterBookingDeletion(UUID loadId) {
-        long activeBookingsCount = bookingRepository.countActiveBookingsByLoadId(loadId);
+        long activeBookingsCount = bookingRepository.countActiveBookingsByLoadId(loadId, bookingsWindowStart(loadId));
         if (activeBookingsCount == 0) {
             loadService.revertLoadStatusToPosted(loadId);
         }
     }
 
+    // Announce the written state, e.g. to gRPC watchers of the load's bookings (applied after commit)
+    private BookingDto publishSaved(Booking booking) {
+        BookingDto bookingDto = convertToDto(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.saved(bookingDto));
+        return bookingDto;
+    }
+
     // Convert DTO to Entity
     private Booking convertToEntity(BookingDto bookingDto) {
         Booking booking = new Booking();
@@ -206,6 +423,15 @@ public class BookingService {
         bookingDto.setComment(booking.getComment());
         bookingDto.setStatus(booking.getStatus());
         bookingDto.setRequestedAt(booking.getRequestedAt());
+        bookingDto.setVersion(booking.getVersion());
+        bookingDto.setUpdatedAt(booking.getUpdatedAt());
+        return bookingDto;
+    }
+
+    // Convert Entity to DTO including its (already fetched) load
+    private BookingDto convertToDtoWithLoad(Booking booking) {
+        BookingDto bookingDto = convertToDto(booking);
+        bookingDto.setLoad(loadService.convertToDto(booking.getLoad()));
         return bookingDto;
     }
 } 
\ No newline at end of file
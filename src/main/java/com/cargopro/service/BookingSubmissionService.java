@@ -0,0 +1,179 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingSubmission;
+import com.cargopro.entity.UuidV7Generator;
+import com.cargopro.enums.SubmissionStatus;
+import com.cargopro.event.BookingSubmittedEvent;
+import com.cargopro.exception.BusinessException;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.exception.ServiceUnavailableException;
+import com.cargopro.repository.BookingSubmissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Asynchronous booking creation: bids are queued in {@code booking_submissions}
+ * and answered with a tracking id, then turned into bookings in batches by
+ * background workers. A burst of bids on a hot load thus costs the request
+ * thread one insert, and the load's rules are checked once per batch instead
+ * of once per bid.
+ */
+@Service
+public class BookingSubmissionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSubmissionService.class);
+
+    @Autowired
+    private BookingSubmissionRepository submissionRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${cargopro.bookings.async.enabled:true}")
+    private boolean enabled = true;
+
+    // Submissions are refused with 503 while this many are waiting
+    @Value("${cargopro.bookings.async.max-queued:10000}")
+    private int maxQueued = 10000;
+
+    @Value("${cargopro.bookings.async.batch-size:100}")
+    private int batchSize = 100;
+
+    // Sent as Retry-After when the queue is full
+    @Value("${cargopro.bookings.async.retry-after:5s}")
+    private Duration retryAfter = Duration.ofSeconds(5);
+
+    // Processed submissions, and with them their idempotency keys, are kept this long
+    @Value("${cargopro.bookings.async.retention:7d}")
+    private Duration retention = Duration.ofDays(7);
+
+    // Queue a bid; a repeated idempotency key returns the submission made with it, provided the bid is the same
+    @Transactional
+    public BookingSubmission submit(BookingDto bookingDto, String idempotencyKey) {
+        if (!enabled) {
+            throw new ServiceUnavailableException("Asynchronous booking submission is disabled", null);
+        }
+        if (idempotencyKey != null) {
+            IdempotencyKeys.validate(idempotencyKey);
+            Optional<BookingSubmission> existing = submissionRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                return replay(existing.get(), bookingDto);
+            }
+        }
+        if (submissionRepository.countQueued(maxQueued) >= maxQueued) {
+            throw new ServiceUnavailableException("Booking submission queue is full, please retry later", retryAfter);
+        }
+
+        BookingSubmission submission = new BookingSubmission(UuidV7Generator.next(), bookingDto, idempotencyKey);
+        submission.setSubmittedAt(LocalDateTime.now());
+        if (!submissionRepository.insert(submission)) {
+            // A concurrent submission with the same key committed first
+            return replay(submissionRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(), bookingDto);
+        }
+        eventPublisher.publishEvent(new BookingSubmittedEvent(submission.getId()));
+        return submission;
+    }
+
+    // Get a submission by its tracking id
+    @Transactional(readOnly = true)
+    public BookingSubmission getSubmission(UUID submissionId) {
+        return submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking submission", "id", submissionId));
+    }
+
+    // Turn the oldest queued submissions into bookings, in one transaction with recording their outcome. Returns
+    // the number of submissions processed, 0 when none were waiting.
+    public int processBatch() {
+        List<UUID> claimed = new ArrayList<>();
+        try {
+            return transactionTemplate.execute(status -> {
+                List<BookingSubmission> submissions = submissionRepository.claimQueued(batchSize);
+                submissions.forEach(submission -> claimed.add(submission.getId()));
+                process(submissions);
+                return submissions.size();
+            });
+        } catch (RuntimeException ex) {
+            if (claimed.isEmpty()) {
+                throw ex;
+            }
+            // Not a broken rule, those end up in the outcomes; retry one by one so it only fails the bid causing it
+            log.warn("Batch of {} booking submissions failed, processing them one at a time", claimed.size(), ex);
+            claimed.forEach(this::processOne);
+            return claimed.size();
+        }
+    }
+
+    // Delete submissions processed longer ago than the retention; returns the number deleted
+    @Transactional
+    public int purgeProcessed() {
+        return submissionRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private BookingSubmission replay(BookingSubmission submission, BookingDto bookingDto) {
+        if (!submission.isSameBid(bookingDto)) {
+            throw new BusinessException(IdempotencyKeys.HEADER + " was already used for a different booking");
+        }
+        return submission;
+    }
+
+    private void processOne(UUID submissionId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> submissionRepository.claimQueuedById(submissionId)
+                    .ifPresent(submission -> process(List.of(submission))));
+        } catch (RuntimeException ex) {
+            log.error("Booking submission {} failed", submissionId, ex);
+            transactionTemplate.executeWithoutResult(status -> submissionRepository.claimQueuedById(submissionId)
+                    .ifPresent(submission -> {
+                        complete(submission, SubmissionStatus.REJECTED, null, "Booking could not be created");
+                        submissionRepository.complete(List.of(submission));
+                    }));
+        }
+    }
+
+    private void process(List<BookingSubmission> submissions) {
+        if (submissions.isEmpty()) {
+            return;
+        }
+        List<BookingOutcome> outcomes = bookingService.createBookings(submissions.stream()
+                .map(BookingSubmission::toBooking)
+                .collect(Collectors.toList()));
+        for (int i = 0; i < submissions.size(); i++) {
+            BookingOutcome outcome = outcomes.get(i);
+            if (outcome.isCreated()) {
+                complete(submissions.get(i), SubmissionStatus.CREATED, outcome.getBooking().getId(), null);
+            } else {
+                complete(submissions.get(i), SubmissionStatus.REJECTED, null, outcome.getError());
+            }
+        }
+        submissionRepository.complete(submissions);
+    }
+
+    private static void complete(BookingSubmission submission, SubmissionStatus status, UUID bookingId,
+                                 String error) {
+        submission.setStatus(status);
+        submission.setBookingId(bookingId);
+        submission.setError(error);
+        submission.setProcessedAt(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,66 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.ChangeSet;
+import com.cargopro.exception.BusinessException;
+import com.cargopro.repository.ChangeCursor;
+import com.cargopro.repository.ChangeFeedRepository.Change;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a page of {@link Change}s into the {@link ChangeSet} returned to
+ * clients; shared by the load and booking change feeds.
+ */
+final class ChangeFeeds {
+
+    private ChangeFeeds() {}
+
+    // Cursor for a client token; null (first sync) starts from the beginning
+    static ChangeCursor cursor(String since) {
+        if (since == null || since.isBlank()) {
+            return ChangeCursor.START;
+        }
+        try {
+            return ChangeCursor.parse(since);
+        } catch (IllegalArgumentException ex) {
+            throw new BusinessException("Invalid change token '" + since + "'");
+        }
+    }
+
+    // changes holds up to size + 1 entries read after the cursor and below the horizon; loader reads the current
+    // state of the changed rows
+    static <T> ChangeSet<T> toChangeSet(List<Change> changes, int size, ChangeCursor after, long horizon,
+                                        Function<List<UUID>, List<T>> loader, Function<T, UUID> idOf) {
+        boolean hasMore = changes.size() > size;
+        List<Change> page = hasMore ? changes.subList(0, size) : changes;
+
+        List<UUID> changedIds = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (Change change : page) {
+            (change.isDeleted() ? deleted : changedIds).add(change.getId());
+        }
+        Map<UUID, T> current = changedIds.isEmpty() ? Map.of()
+                : loader.apply(changedIds).stream().collect(Collectors.toMap(idOf, Function.identity()));
+        // A row deleted since the feed was read is skipped; its tombstone follows later in the feed
+        List<T> changed = changedIds.stream()
+                .map(current::get)
+                .filter(row -> row != null)
+                .collect(Collectors.toList());
+
+        // Without more to read, everything below the horizon has been returned and the next call can start there
+        ChangeCursor next;
+        if (hasMore) {
+            next = page.get(page.size() - 1).getCursor();
+        } else if (after.getXid() < horizon) {
+            next = ChangeCursor.from(horizon);
+        } else {
+            next = after;
+        }
+        return new ChangeSet<>(changed, deleted, next.encode(), hasMore);
+    }
+}
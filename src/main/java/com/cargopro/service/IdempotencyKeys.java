@@ -0,0 +1,24 @@
+package com.cargopro.service;
+
+import com.cargopro.exception.BusinessException;
+
+/**
+ * The {@code Idempotency-Key} request header, as accepted by both the
+ * idempotent create endpoints and {@code POST /booking/submissions}.
+ */
+public final class IdempotencyKeys {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    // Width of the key columns of idempotency_keys and booking_submissions
+    public static final int MAX_LENGTH = 255;
+
+    private IdempotencyKeys() {}
+
+    // Reject a blank key or one too long to store; a missing (null) key is left to the caller
+    public static void validate(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_LENGTH) {
+            throw new BusinessException(HEADER + " must be 1 to " + MAX_LENGTH + " characters");
+        }
+    }
+}
@@ -1,55 +1,148 @@
 package com.cargopro.service;
 
+import com.cargopro.dto.BatchGetResponse;
+import com.cargopro.dto.ChangeSet;
 import com.cargopro.dto.FacilityDto;
+import com.cargopro.dto.ListVersion;
 import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.LoadFilter;
 import com.cargopro.dto.PagedResponse;
 import com.cargopro.entity.Facility;
 import com.cargopro.entity.Load;
+import com.cargopro.enums.CountMode;
 import com.cargopro.enums.LoadStatus;
+import com.cargopro.event.LoadChangedEvent;
 import com.cargopro.exception.BusinessException;
 import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.geo.Gazetteer;
+import com.cargopro.geo.GeoPoint;
+import com.cargopro.repository.ArchiveRepository;
+import com.cargopro.repository.ChangeCursor;
+import com.cargopro.repository.ChangeFeedRepository;
+import com.cargopro.repository.ChangeFeedRepository.Change;
 import com.cargopro.repository.LoadRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class LoadService {
 
+    // Half the earth's circumference; every point on earth lies within it
+    static final double MAX_SEARCH_RADIUS_KM = 20_000;
+
     @Autowired
     private LoadRepository loadRepository;
 
     @Autowired
-    private BookingService bookingService;
+    private ArchiveRepository archiveRepository;
+
+    @Autowired
+    private ChangeFeedRepository changeFeedRepository;
+
+    @Autowired
+    private Gazetteer gazetteer;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     // Create a new load
+    @Transactional
     public LoadDto createLoad(LoadDto loadDto) {
         Load load = convertToEntity(loadDto);
         load.setStatus(LoadStatus.POSTED); // Default status
         Load savedLoad = loadRepository.save(load);
-        return convertToDto(savedLoad);
+        return publishSaved(savedLoad);
+    }
+
+    // Get loads with pagination and filtering, newest first, totalled as countMode asks
+    public PagedResponse<LoadDto> getLoads(LoadFilter filter, CountMode countMode, int page, int size) {
+        return getLoads(filter, countMode, page, size, null);
     }
 
-    // Get loads with pagination and filtering
-    public PagedResponse<LoadDto> getLoads(String shipperId, String truckType, LoadStatus status, 
-                                          int page, int size) {
+    // Same as above; a version already read for the filter, if any, provides the exact count
+    public PagedResponse<LoadDto> getLoads(LoadFilter filter, CountMode countMode, int page, int size,
+                                           ListVersion version) {
+        validateFilter(filter);
         Pageable pageable = PageRequest.of(page, size);
-        Page<Load> loadPage = loadRepository.findLoadsWithFilters(shipperId, truckType, status, pageable);
-        
-        List<LoadDto> loadDtos = loadPage.getContent().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Slice<LoadDto> loadSlice = loadRepository.findLoads(filter, pageable);
+
+        return PagedResponse.of(loadSlice, countMode,
+                version != null ? version::getCount : () -> loadRepository.countLoads(filter),
+                () -> loadRepository.estimateLoads(filter));
+    }
+
+    // Count and last change of the loads matching the filter, from which GET /load derives its ETag
+    public ListVersion getLoadsVersion(LoadFilter filter) {
+        validateFilter(filter);
+        return loadRepository.findLoadsVersion(filter);
+    }
+
+    // Loads inserted, updated or deleted since the token, oldest change first
+    public ChangeSet<LoadDto> getLoadChanges(String since, int size) {
+        ChangeCursor after = ChangeFeeds.cursor(since);
+        long horizon = changeFeedRepository.currentHorizon();
+        List<Change> changes = changeFeedRepository.findLoadChanges(after, horizon, size + 1);
+        return ChangeFeeds.toChangeSet(changes, size, after, horizon, loadRepository::findDtosByIdIn, LoadDto::getId);
+    }
+
+    // Search loads by route, product type and comment, best matches first
+    public PagedResponse<LoadDto> searchLoads(String query, LoadStatus status, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BusinessException("Search query must not be blank");
+        }
+        Pageable pageable = PageRequest.of(page, size);
+        Page<LoadDto> loadPage = loadRepository.searchLoads(query.trim(), status != null ? status.name() : null, pageable);
+
+        return new PagedResponse<>(
+                loadPage.getContent(),
+                page,
+                size,
+                loadPage.getTotalElements(),
+                loadPage.getTotalPages(),
+                loadPage.hasNext(),
+                loadPage.hasPrevious()
+        );
+    }
+
+    // Find loads whose loading point lies within a radius of origin and/or whose unloading point lies within a
+    // radius of destination; nearest to origin (or destination) first
+    public PagedResponse<LoadDto> findNearbyLoads(GeoPoint origin, double originRadiusKm,
+                                                  GeoPoint destination, double destinationRadiusKm,
+                                                  LoadStatus status, int page, int size) {
+        if (origin == null && destination == null) {
+            throw new BusinessException("An origin or a destination is required");
+        }
+        validateSearchRadius(origin, originRadiusKm);
+        validateSearchRadius(destination, destinationRadiusKm);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<LoadDto> loadPage;
+        if (destination == null) {
+            loadPage = loadRepository.findNearOrigin(origin.getLatitude(), origin.getLongitude(),
+                    originRadiusKm * 1000, status.name(), pageable);
+        } else if (origin == null) {
+            loadPage = loadRepository.findNearDestination(destination.getLatitude(), destination.getLongitude(),
+                    destinationRadiusKm * 1000, status.name(), pageable);
+        } else {
+            loadPage = loadRepository.findNearOriginAndDestination(origin.getLatitude(), origin.getLongitude(),
+                    originRadiusKm * 1000, destination.getLatitude(), destination.getLongitude(),
+                    destinationRadiusKm * 1000, status.name(), pageable);
+        }
 
         return new PagedResponse<>(
-                loadDtos,
+                loadPage.getContent(),
                 page,
                 size,
                 loadPage.getTotalElements(),
@@ -59,14 +152,51 @@ public class LoadService {
         );
     }
 
-    // Get load by ID
+    // Point from explicit coordinates, else from a place name via the gazetteer; null when neither is given.
+    // Needs no database, so it does not open a transaction.
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public GeoPoint resolvePoint(Double latitude, Double longitude, String placeName) {
+        GeoPoint given = givenPoint(latitude, longitude);
+        if (given != null) {
+            return given;
+        }
+        if (placeName == null || placeName.isBlank()) {
+            return null;
+        }
+        return gazetteer.lookup(placeName)
+                .orElseThrow(() -> new BusinessException("Unknown place: " + placeName));
+    }
+
+    // A radius around a given point must be positive and at most half the earth's circumference; radii of
+    // points not given are ignored
+    public void validateSearchRadius(GeoPoint point, double radiusKm) {
+        if (point == null) {
+            return;
+        }
+        if (!(radiusKm > 0)) {
+            throw new BusinessException("Search radius must be positive");
+        }
+        if (radiusKm > MAX_SEARCH_RADIUS_KM) {
+            throw new BusinessException("Search radius must be at most " + (int) MAX_SEARCH_RADIUS_KM + " km");
+        }
+    }
+
+    // Get load by ID, falling back to the archive for loads the archival job has moved
     public LoadDto getLoadById(UUID loadId) {
-        Load load = loadRepository.findById(loadId)
+        return loadRepository.findById(loadId)
+                .map(this::convertToDto)
+                .or(() -> archiveRepository.findLoadById(loadId))
                 .orElseThrow(() -> new ResourceNotFoundException("Load", "id", loadId));
-        return convertToDto(load);
+    }
+
+    // Loads by ID in request order, archived ones included; unknown IDs are reported rather than thrown
+    public BatchGetResponse<LoadDto> getLoadsByIds(List<UUID> loadIds) {
+        return BatchGets.get(loadIds, loadRepository::findDtosByIdIn, archiveRepository::findLoadsByIdIn,
+                LoadDto::getId);
     }
 
     // Update load
+    @Transactional
     public LoadDto updateLoad(UUID loadId, LoadDto loadDto) {
         Load existingLoad = loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load", "id", loadId));
@@ -86,10 +216,11 @@ public class LoadService {
         existingLoad.setComment(loadDto.getComment());
 
         Load updatedLoad = loadRepository.save(existingLoad);
-        return convertToDto(updatedLoad);
+        return publishSaved(updatedLoad);
     }
 
     // Delete load
+    @Transactional
     public void deleteLoad(UUID loadId) {
         Load load = loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load", "id", loadId));
@@ -100,43 +231,82 @@ public class LoadService {
         }
 
         loadRepository.delete(load);
+        eventPublisher.publishEvent(LoadChangedEvent.deleted(loadId));
     }
 
     // Update load status when booking is accepted
+    @Transactional
     public void updateLoadStatusToBooked(UUID loadId) {
         Load load = loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load", "id", loadId));
         
         load.setStatus(LoadStatus.BOOKED);
-        loadRepository.save(load);
+        publishSaved(loadRepository.save(load));
     }
 
     // Update load status when booking is cancelled
+    @Transactional
     public void updateLoadStatusToCancelled(UUID loadId) {
         Load load = loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load", "id", loadId));
         
         load.setStatus(LoadStatus.CANCELLED);
-        loadRepository.save(load);
+        publishSaved(loadRepository.save(load));
     }
 
     // Revert load status to POSTED when all bookings are deleted/rejected
+    @Transactional
     public void revertLoadStatusToPosted(UUID loadId) {
         Load load = loadRepository.findById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load", "id", loadId));
         
         if (!load.hasActiveBookings()) {
             load.setStatus(LoadStatus.POSTED);
-            loadRepository.save(load);
+            publishSaved(loadRepository.save(load));
         }
     }
 
     // Check if load can accept bookings
     public boolean canAcceptBookings(UUID loadId) {
-        Load load = loadRepository.findById(loadId)
+        LoadStatus status = loadRepository.findStatusById(loadId)
                 .orElseThrow(() -> new ResourceNotFoundException("Load", "id", loadId));
         
-        return load.getStatus() != LoadStatus.CANCELLED && load.getStatus() != LoadStatus.BOOKED;
+        return acceptsBookings(status);
+    }
+
+    // Current status of a load, empty if there is no such load; unlike canAcceptBookings it never throws, so
+    // callers checking many loads in one transaction do not get it marked rollback-only
+    public Optional<LoadStatus> findStatus(UUID loadId) {
+        return loadRepository.findStatusById(loadId);
+    }
+
+    static boolean acceptsBookings(LoadStatus status) {
+        return status != LoadStatus.CANCELLED && status != LoadStatus.BOOKED;
+    }
+
+    // Posting time of a load, used to bound booking queries to the partitions that can hold its bookings
+    public Optional<LocalDateTime> findDatePosted(UUID loadId) {
+        return loadRepository.findDatePostedById(loadId);
+    }
+
+    private static void validateFilter(LoadFilter filter) {
+        validateRange(filter.getLoadingFrom(), filter.getLoadingTo(), "loading date");
+        validateRange(filter.getUnloadingFrom(), filter.getUnloadingTo(), "unloading date");
+        validateRange(filter.getMinWeight(), filter.getMaxWeight(), "weight");
+        validateRange(filter.getMinTrucks(), filter.getMaxTrucks(), "number of trucks");
+    }
+
+    private static <T extends Comparable<? super T>> void validateRange(T from, T to, String name) {
+        if (from != null && to != null && from.compareTo(to) > 0) {
+            throw new BusinessException("Invalid " + name + " range: lower bound is after upper bound");
+        }
+    }
+
+    // Announce the written state, e.g. to the in-memory match index (applied after commit)
+    private LoadDto publishSaved(Load load) {
+        LoadDto loadDto = convertToDto(load);
+        eventPublisher.publishEvent(LoadChangedEvent.saved(loadDto));
+        return loadDto;
     }
 
     // Convert DTO to Entity
@@ -152,8 +322,8 @@ public class LoadService {
         return load;
     }
 
-    // Convert Entity to DTO
-    private LoadDto convertToDto(Load load) {
+    // Convert Entity to DTO; also used by BookingService to expand a booking's load
+    public LoadDto convertToDto(Load load) {
         LoadDto loadDto = new LoadDto();
         loadDto.setId(load.getId());
         loadDto.setShipperId(load.getShipperId());
@@ -165,17 +335,51 @@ public class LoadService {
         loadDto.setComment(load.getComment());
         loadDto.setDatePosted(load.getDatePosted());
         loadDto.setStatus(load.getStatus());
+        loadDto.setVersion(load.getVersion());
+        loadDto.setUpdatedAt(load.getUpdatedAt());
         return loadDto;
     }
 
-    // Convert Facility DTO to Entity
+    // Point from explicit coordinates, null when neither is given. Half a pair is an error rather than a cue to
+    // geocode, and out-of-range values are caught here rather than by the geography column.
+    private static GeoPoint givenPoint(Double latitude, Double longitude) {
+        if (latitude == null && longitude == null) {
+            return null;
+        }
+        if (latitude == null || longitude == null) {
+            throw new BusinessException("Latitude and longitude must be given together");
+        }
+        if (!(Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180)) {
+            throw new BusinessException("Coordinates out of range");
+        }
+        return new GeoPoint(latitude, longitude);
+    }
+
+    // Convert Facility DTO to Entity, geocoding points that come without coordinates
     private Facility convertToFacilityEntity(FacilityDto facilityDto) {
-        return new Facility(
+        Facility facility = new Facility(
                 facilityDto.getLoadingPoint(),
                 facilityDto.getUnloadingPoint(),
                 facilityDto.getLoadingDate(),
                 facilityDto.getUnloadingDate()
         );
+        GeoPoint loading = givenPoint(facilityDto.getLoadingLatitude(), facilityDto.getLoadingLongitude());
+        if (loading == null) {
+            loading = gazetteer.lookup(facilityDto.getLoadingPoint()).orElse(null);
+        }
+        if (loading != null) {
+            facility.setLoadingLatitude(loading.getLatitude());
+            facility.setLoadingLongitude(loading.getLongitude());
+        }
+        GeoPoint unloading = givenPoint(facilityDto.getUnloadingLatitude(), facilityDto.getUnloadingLongitude());
+        if (unloading == null) {
+            unloading = gazetteer.lookup(facilityDto.getUnloadingPoint()).orElse(null);
+        }
+        if (unloading != null) {
+            facility.setUnloadingLatitude(unloading.getLatitude());
+            facility.setUnloadingLongitude(unloading.getLongitude());
+        }
+        return facility;
     }
 
     // Convert Facility Entity to DTO
@@ -184,7 +388,11 @@ public class LoadService {
                 facility.getLoadingPoint(),
                 facility.getUnloadingPoint(),
                 facility.getLoadingDate(),
-                facility.getUnloadingDate()
+                facility.getUnloadingDate(),
+                facility.getLoadingLatitude(),
+                facility.getLoadingLongitude(),
+                facility.getUnloadingLatitude(),
+                facility.getUnloadingLongitude()
         );
     }
 } 
\ No newline at end of file
@@ -0,0 +1,127 @@
+package com.cargopro.submission;
+
+import com.cargopro.event.BookingSubmittedEvent;
+import com.cargopro.service.BookingSubmissionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background threads draining the booking submission queue. Each worker
+ * processes batches back to back while there is a backlog, then waits until
+ * a submission is queued on this instance or, for those queued on others,
+ * until the poll interval has passed. Workers on any number of instances can
+ * run at once, as each batch is claimed with {@code SKIP LOCKED}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cargopro.bookings.async", name = "enabled", matchIfMissing = true)
+public class BookingSubmissionWorkers implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSubmissionWorkers.class);
+
+    @Autowired
+    private BookingSubmissionService submissionService;
+
+    @Value("${cargopro.bookings.async.workers:2}")
+    private int workerCount = 2;
+
+    @Value("${cargopro.bookings.async.poll-interval:1s}")
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    // How long a batch in progress gets to finish on shutdown; an interrupted one is rolled back and stays queued
+    @Value("${cargopro.bookings.async.shutdown-grace-period:10s}")
+    private Duration shutdownGracePeriod = Duration.ofSeconds(10);
+
+    private final Semaphore wakeUps = new Semaphore(0);
+
+    private volatile boolean running;
+
+    private volatile ExecutorService executor;
+
+    @Override
+    public void start() {
+        running = true;
+        executor = Executors.newFixedThreadPool(workerCount, new CustomizableThreadFactory("booking-submission-"));
+        for (int i = 0; i < workerCount; i++) {
+            executor.execute(this::work);
+        }
+        log.info("Started {} booking submission worker(s)", workerCount);
+    }
+
+    @Override
+    public void stop() {
+        ExecutorService workers = executor;
+        if (workers == null) {
+            return;
+        }
+        running = false;
+        wakeUps.release(workerCount);
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(shutdownGracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+        log.info("Booking submission workers stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingSubmitted(BookingSubmittedEvent event) {
+        // One permit per idle worker at most, so a burst does not leave spurious wake-ups behind
+        if (wakeUps.availablePermits() < workerCount) {
+            wakeUps.release();
+        }
+    }
+
+    @Scheduled(cron = "${cargopro.bookings.async.purge-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        int purged = submissionService.purgeProcessed();
+        if (purged > 0) {
+            log.info("Purged {} processed booking submissions", purged);
+        }
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                if (submissionService.processBatch() == 0) {
+                    wakeUps.tryAcquire(pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // E.g. the database is unreachable; back off instead of spinning
+                log.error("Processing booking submissions failed", ex);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+-- Queue behind POST /booking/submissions: bids are accepted here with 202 and turned into bookings by background
+-- workers, which claim the oldest QUEUED rows with FOR UPDATE SKIP LOCKED and mark them CREATED or REJECTED in the
+-- same transaction as the bookings they insert. Rows outlive processing so clients can poll their outcome, and are
+-- purged after cargopro.bookings.async.retention.
+
+CREATE TABLE booking_submissions (
+    id              UUID             NOT NULL,
+    idempotency_key VARCHAR(255),
+    load_id         UUID             NOT NULL,
+    transporter_id  VARCHAR(255)     NOT NULL,
+    proposed_rate   DOUBLE PRECISION NOT NULL,
+    comment         VARCHAR(1000),
+    status          VARCHAR(20)      NOT NULL,
+    booking_id      UUID,
+    error           VARCHAR(1000),
+    submitted_at    TIMESTAMP(6)     NOT NULL DEFAULT LOCALTIMESTAMP,
+    processed_at    TIMESTAMP(6),
+    CONSTRAINT booking_submissions_pkey PRIMARY KEY (id),
+    CONSTRAINT booking_submissions_status_check CHECK (status IN ('QUEUED', 'CREATED', 'REJECTED')),
+    -- NULLs never conflict, so submissions without a key are not deduplicated
+    CONSTRAINT uk_booking_submissions_idempotency_key UNIQUE (idempotency_key)
+);
+
+-- Only the backlog is indexed for claiming; ids are UUIDv7, so id order is submission order
+CREATE INDEX idx_booking_submissions_queued ON booking_submissions (id) WHERE status = 'QUEUED';
+CREATE INDEX idx_booking_submissions_processed_at ON booking_submissions (processed_at) WHERE processed_at IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Responses of POST /load and POST /booking kept per Idempotency-Key, so a retried request is answered from here
+-- instead of creating a second load or tripping "already booked". The key is claimed and its response stored in
+-- the same transaction as the create, so a concurrent retry waits for that transaction and then replays it; a
+-- create that fails leaves no row behind. Rows expire after cargopro.idempotency.ttl and are purged hourly.
+
+CREATE TABLE idempotency_keys (
+    operation       VARCHAR(50)  NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    -- SHA-256 of the request body, to refuse a key reused for a different request
+    request_hash    BYTEA        NOT NULL,
+    status_code     SMALLINT,
+    response_body   TEXT,
+    created_at      TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP,
+    expires_at      TIMESTAMP(6) NOT NULL,
+    CONSTRAINT idempotency_keys_pkey PRIMARY KEY (operation, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
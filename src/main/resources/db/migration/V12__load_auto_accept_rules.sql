@@ -0,0 +1,11 @@
+-- Auto-accept rules set by shippers through PUT /booking/load/{loadId}/auto-accept: the first pending bid at or
+-- under max_rate is accepted on the load's behalf, through the same path as POST /booking/{bookingId}/accept.
+-- A rule goes away with its load, including when the load is archived.
+
+CREATE TABLE load_auto_accept_rules (
+    load_id    UUID             NOT NULL,
+    max_rate   DOUBLE PRECISION NOT NULL,
+    created_at TIMESTAMP(6)     NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT load_auto_accept_rules_pkey PRIMARY KEY (load_id),
+    CONSTRAINT fk_load_auto_accept_rules_load FOREIGN KEY (load_id) REFERENCES loads (id) ON DELETE CASCADE
+);
@@ -0,0 +1,33 @@
+-- Schema as previously created by Hibernate (ddl-auto: update).
+-- IF NOT EXISTS lets databases that were created that way adopt Flyway unchanged.
+
+CREATE TABLE IF NOT EXISTS loads (
+    id              UUID             NOT NULL,
+    shipper_id      VARCHAR(255)     NOT NULL,
+    loading_point   VARCHAR(255)     NOT NULL,
+    unloading_point VARCHAR(255)     NOT NULL,
+    loading_date    TIMESTAMP(6)     NOT NULL,
+    unloading_date  TIMESTAMP(6)     NOT NULL,
+    product_type    VARCHAR(255)     NOT NULL,
+    truck_type      VARCHAR(255)     NOT NULL,
+    no_of_trucks    INTEGER          NOT NULL,
+    weight          DOUBLE PRECISION NOT NULL,
+    comment         VARCHAR(1000),
+    date_posted     TIMESTAMP(6)     NOT NULL,
+    status          VARCHAR(255)     NOT NULL,
+    CONSTRAINT loads_pkey PRIMARY KEY (id),
+    CONSTRAINT loads_status_check CHECK (status IN ('POSTED', 'BOOKED', 'CANCELLED'))
+);
+
+CREATE TABLE IF NOT EXISTS bookings (
+    id             UUID             NOT NULL,
+    load_id        UUID             NOT NULL,
+    transporter_id VARCHAR(255)     NOT NULL,
+    proposed_rate  DOUBLE PRECISION NOT NULL,
+    comment        VARCHAR(1000),
+    status         VARCHAR(255)     NOT NULL,
+    requested_at   TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT bookings_pkey PRIMARY KEY (id),
+    CONSTRAINT bookings_status_check CHECK (status IN ('PENDING', 'ACCEPTED', 'REJECTED')),
+    CONSTRAINT fk_bookings_load FOREIGN KEY (load_id) REFERENCES loads (id)
+);
@@ -0,0 +1,57 @@
+-- Range-partition bookings by month of requested_at.
+-- The primary key has to include the partition key; ids stay unique because they are generated UUIDs.
+
+ALTER TABLE bookings RENAME TO bookings_unpartitioned;
+ALTER INDEX bookings_pkey RENAME TO bookings_unpartitioned_pkey;
+
+CREATE TABLE bookings (
+    id             UUID             NOT NULL,
+    load_id        UUID             NOT NULL,
+    transporter_id VARCHAR(255)     NOT NULL,
+    proposed_rate  DOUBLE PRECISION NOT NULL,
+    comment        VARCHAR(1000),
+    status         VARCHAR(255)     NOT NULL,
+    requested_at   TIMESTAMP(6)     NOT NULL,
+    CONSTRAINT bookings_pkey PRIMARY KEY (id, requested_at),
+    CONSTRAINT bookings_status_check CHECK (status IN ('PENDING', 'ACCEPTED', 'REJECTED')),
+    CONSTRAINT fk_bookings_load FOREIGN KEY (load_id) REFERENCES loads (id)
+) PARTITION BY RANGE (requested_at);
+
+-- Safety net for rows outside every monthly partition; kept empty by creating partitions ahead of time
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX idx_bookings_load_id ON bookings (load_id, requested_at);
+CREATE INDEX idx_bookings_transporter_id ON bookings (transporter_id, requested_at);
+
+-- Creates the partition holding the month of the given date, if missing; returns its name
+CREATE OR REPLACE FUNCTION create_bookings_partition(month_of DATE) RETURNS TEXT AS $$
+DECLARE
+    range_start    TIMESTAMP := date_trunc('month', month_of);
+    range_end      TIMESTAMP := range_start + INTERVAL '1 month';
+    partition_name TEXT      := 'bookings_' || to_char(range_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF bookings FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, range_start, range_end);
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month that has data, plus the next three
+DO $$
+DECLARE
+    month_of DATE := date_trunc('month', COALESCE((SELECT min(requested_at) FROM bookings_unpartitioned), now()));
+BEGIN
+    WHILE month_of <= date_trunc('month', now() + INTERVAL '3 months') LOOP
+        PERFORM create_bookings_partition(month_of);
+        month_of := month_of + INTERVAL '1 month';
+    END LOOP;
+END;
+$$;
+
+INSERT INTO bookings (id, load_id, transporter_id, proposed_rate, comment, status, requested_at)
+SELECT id, load_id, transporter_id, proposed_rate, comment, status, requested_at
+FROM bookings_unpartitioned;
+
+DROP TABLE bookings_unpartitioned;
@@ -0,0 +1,37 @@
+-- Cold storage for loads in a terminal state (BOOKED, CANCELLED) and their bookings.
+-- Same columns as the live tables plus archived_at; no foreign keys so rows can be moved in any order.
+
+CREATE TABLE loads_archive (
+    id              UUID             NOT NULL,
+    shipper_id      VARCHAR(255)     NOT NULL,
+    loading_point   VARCHAR(255)     NOT NULL,
+    unloading_point VARCHAR(255)     NOT NULL,
+    loading_date    TIMESTAMP(6)     NOT NULL,
+    unloading_date  TIMESTAMP(6)     NOT NULL,
+    product_type    VARCHAR(255)     NOT NULL,
+    truck_type      VARCHAR(255)     NOT NULL,
+    no_of_trucks    INTEGER          NOT NULL,
+    weight          DOUBLE PRECISION NOT NULL,
+    comment         VARCHAR(1000),
+    date_posted     TIMESTAMP(6)     NOT NULL,
+    status          VARCHAR(255)     NOT NULL,
+    archived_at     TIMESTAMP(6)     NOT NULL DEFAULT now(),
+    CONSTRAINT loads_archive_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE bookings_archive (
+    id             UUID             NOT NULL,
+    load_id        UUID             NOT NULL,
+    transporter_id VARCHAR(255)     NOT NULL,
+    proposed_rate  DOUBLE PRECISION NOT NULL,
+    comment        VARCHAR(1000),
+    status         VARCHAR(255)     NOT NULL,
+    requested_at   TIMESTAMP(6)     NOT NULL,
+    archived_at    TIMESTAMP(6)     NOT NULL DEFAULT now(),
+    CONSTRAINT bookings_archive_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_bookings_archive_load_id ON bookings_archive (load_id);
+
+-- Lets the archival job pick its candidates without scanning open loads
+CREATE INDEX idx_loads_archivable ON loads (date_posted) WHERE status IN ('BOOKED', 'CANCELLED');
@@ -0,0 +1,18 @@
+-- Full-text and fuzzy search over route, product type and comment (GET /load/search).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Route matches weigh most, then product type, then free-text comment
+ALTER TABLE loads ADD COLUMN search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', loading_point || ' ' || unloading_point), 'A') ||
+    setweight(to_tsvector('english', product_type), 'B') ||
+    setweight(to_tsvector('english', coalesce(comment, '')), 'C')
+) STORED;
+
+-- Short text for typo-tolerant matching on city names and product type
+ALTER TABLE loads ADD COLUMN search_text TEXT GENERATED ALWAYS AS (
+    lower(loading_point || ' ' || unloading_point || ' ' || product_type)
+) STORED;
+
+CREATE INDEX idx_loads_search_vector ON loads USING GIN (search_vector);
+CREATE INDEX idx_loads_search_text_trgm ON loads USING GIN (search_text gin_trgm_ops);
@@ -0,0 +1,27 @@
+-- Optional coordinates for loading/unloading points, with PostGIS geography columns for radius queries (GET /load/nearby).
+
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+ALTER TABLE loads
+    ADD COLUMN loading_lat   DOUBLE PRECISION,
+    ADD COLUMN loading_lng   DOUBLE PRECISION,
+    ADD COLUMN unloading_lat DOUBLE PRECISION,
+    ADD COLUMN unloading_lng DOUBLE PRECISION;
+
+-- Derived from the plain columns so the application never writes geography values itself
+ALTER TABLE loads
+    ADD COLUMN loading_geog GEOGRAPHY(POINT, 4326) GENERATED ALWAYS AS (
+        ST_SetSRID(ST_MakePoint(loading_lng, loading_lat), 4326)::geography
+    ) STORED,
+    ADD COLUMN unloading_geog GEOGRAPHY(POINT, 4326) GENERATED ALWAYS AS (
+        ST_SetSRID(ST_MakePoint(unloading_lng, unloading_lat), 4326)::geography
+    ) STORED;
+
+CREATE INDEX idx_loads_loading_geog ON loads USING GIST (loading_geog);
+CREATE INDEX idx_loads_unloading_geog ON loads USING GIST (unloading_geog);
+
+ALTER TABLE loads_archive
+    ADD COLUMN loading_lat   DOUBLE PRECISION,
+    ADD COLUMN loading_lng   DOUBLE PRECISION,
+    ADD COLUMN unloading_lat DOUBLE PRECISION,
+    ADD COLUMN unloading_lng DOUBLE PRECISION;
@@ -0,0 +1,12 @@
+-- Indexes for the dynamic GET /load filters. Results are ordered newest first, so the equality
+-- columns lead and date_posted follows to serve both the filter and the ORDER BY ... LIMIT.
+
+CREATE INDEX idx_loads_date_posted ON loads (date_posted DESC);
+CREATE INDEX idx_loads_status_date_posted ON loads (status, date_posted DESC);
+CREATE INDEX idx_loads_shipper_date_posted ON loads (shipper_id, date_posted DESC);
+CREATE INDEX idx_loads_truck_type_status_date_posted ON loads (truck_type, status, date_posted DESC);
+CREATE INDEX idx_loads_product_type_date_posted ON loads (product_type, date_posted DESC);
+
+-- Date windows are usually combined with a status (typically POSTED)
+CREATE INDEX idx_loads_status_loading_date ON loads (status, loading_date);
+CREATE INDEX idx_loads_status_unloading_date ON loads (status, unloading_date);
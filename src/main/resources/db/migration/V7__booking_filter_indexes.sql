@@ -0,0 +1,5 @@
+-- Indexes for the dynamic GET /booking filters, next to the load_id and transporter_id ones from V2.
+-- Results are ordered newest first; indexes on the partitioned table cascade to every partition.
+
+CREATE INDEX idx_bookings_requested_at ON bookings (requested_at DESC);
+CREATE INDEX idx_bookings_status ON bookings (status, requested_at DESC);
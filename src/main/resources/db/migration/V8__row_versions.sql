@@ -0,0 +1,22 @@
+-- Optimistic-locking version and last-change time of every row, the basis of the ETag and Last-Modified
+-- headers. Constant defaults are stored in the catalog, so existing rows are not rewritten.
+
+ALTER TABLE loads
+    ADD COLUMN version    BIGINT       NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP;
+
+ALTER TABLE bookings
+    ADD COLUMN version    BIGINT       NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP;
+
+ALTER TABLE loads_archive
+    ADD COLUMN version    BIGINT       NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP;
+
+ALTER TABLE bookings_archive
+    ADD COLUMN version    BIGINT       NOT NULL DEFAULT 0,
+    ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP;
+
+-- Lets an unfiltered list ETag read MAX(updated_at) from the end of an index
+CREATE INDEX idx_loads_updated_at ON loads (updated_at);
+CREATE INDEX idx_bookings_updated_at ON bookings (updated_at);
@@ -0,0 +1,58 @@
+-- Change feed for GET /load/changes and GET /booking/changes.
+--
+-- Every insert and update stamps the row with the id of the writing transaction (change_xid), and every delete
+-- leaves a tombstone stamped the same way. Readers page through rows in (change_xid, id) order, but only below
+-- the xmin of their snapshot: every transaction with a smaller id has finished, so nothing can still appear
+-- behind the cursor. A sequence would not do, as its values are handed out before commit, in a different order.
+-- Rows written before this migration keep change_xid 0 and come first in a full sync.
+
+ALTER TABLE loads ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE bookings ADD COLUMN change_xid BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE load_tombstones (
+    id         UUID         NOT NULL,
+    change_xid BIGINT       NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT load_tombstones_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE booking_tombstones (
+    id         UUID         NOT NULL,
+    change_xid BIGINT       NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL DEFAULT LOCALTIMESTAMP,
+    CONSTRAINT booking_tombstones_pkey PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_loads_change_xid ON loads (change_xid, id);
+CREATE INDEX idx_bookings_change_xid ON bookings (change_xid, id);
+CREATE INDEX idx_load_tombstones_change_xid ON load_tombstones (change_xid, id);
+CREATE INDEX idx_booking_tombstones_change_xid ON booking_tombstones (change_xid, id);
+
+CREATE OR REPLACE FUNCTION stamp_change_xid() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- TG_ARGV[0] names the tombstone table
+CREATE OR REPLACE FUNCTION record_tombstone() RETURNS TRIGGER AS $$
+BEGIN
+    EXECUTE format('INSERT INTO %I (id, change_xid) VALUES ($1, $2) '
+                   'ON CONFLICT (id) DO UPDATE SET change_xid = EXCLUDED.change_xid, deleted_at = LOCALTIMESTAMP',
+                   TG_ARGV[0])
+        USING OLD.id, pg_current_xact_id()::text::bigint;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER loads_stamp_change_xid BEFORE INSERT OR UPDATE ON loads
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_xid();
+CREATE TRIGGER bookings_stamp_change_xid BEFORE INSERT OR UPDATE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION stamp_change_xid();
+
+-- Also fires for rows the archival job moves out, which leave the live listings just the same
+CREATE TRIGGER loads_record_tombstone AFTER DELETE ON loads
+    FOR EACH ROW EXECUTE FUNCTION record_tombstone('load_tombstones');
+CREATE TRIGGER bookings_record_tombstone AFTER DELETE ON bookings
+    FOR EACH ROW EXECUTE FUNCTION record_tombstone('booking_tombstones');
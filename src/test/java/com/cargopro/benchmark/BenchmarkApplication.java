@@ -0,0 +1,82 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.LoadBookingApplication;
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.FacilityDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.service.BookingService;
+import com.cargopro.service.LoadService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The application, for benchmarks that go through the persistence layer:
+ * started without the web server, scheduled jobs or request logging, against
+ * the database {@code spring.datasource.*} names (the local one from
+ * application.yml unless {@code -D} options say otherwise; JMH passes them on
+ * to its forked JVM). Use a scratch database: the benchmarks insert their own
+ * loads under {@link #SHIPPER_ID}, and bookings on them under
+ * {@link #TRANSPORTER_ID}, and delete them again afterwards.
+ */
+final class BenchmarkApplication {
+
+    static final String SHIPPER_ID = "BENCHMARK";
+
+    static final String TRANSPORTER_ID = "BENCHMARK";
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(LoadBookingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("cargopro.grpc.port=0",
+                        "cargopro.scheduling.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.cargopro=WARN",
+                        "logging.level.org.springframework.web=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run();
+    }
+
+    // Posts count loads for SHIPPER_ID through the service, as POST /load would; returns their ids
+    static List<UUID> postLoads(ConfigurableApplicationContext context, int count) {
+        LoadService loadService = context.getBean(LoadService.class);
+        LocalDateTime start = LocalDateTime.now().plusDays(7);
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime loading = start.plusHours(i);
+            FacilityDto facility = new FacilityDto("Mumbai", i % 2 == 0 ? "Delhi" : "Bengaluru",
+                    loading, loading.plusDays(2), 19.076, 72.8777, 28.7041, 77.1025);
+            LoadDto load = new LoadDto(SHIPPER_ID, facility, i % 3 == 0 ? "Electronics" : "Steel coils",
+                    i % 2 == 0 ? "Container" : "Flatbed", 1 + i % 4, 1000.0 + i * 37.5,
+                    i % 5 == 0 ? "Handle with care" : null);
+            ids.add(loadService.createLoad(load).getId());
+        }
+        return ids;
+    }
+
+    // Books each load once for TRANSPORTER_ID through the service, as POST /booking would
+    static void bookLoads(ConfigurableApplicationContext context, List<UUID> loadIds) {
+        BookingService bookingService = context.getBean(BookingService.class);
+        for (int i = 0; i < loadIds.size(); i++) {
+            bookingService.createBooking(new BookingDto(loadIds.get(i), TRANSPORTER_ID, 4000.0 + i * 12.5,
+                    i % 4 == 0 ? "Can load tomorrow" : null));
+        }
+    }
+
+    // Removes what postLoads and bookLoads inserted
+    static void deleteLoads(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM bookings WHERE load_id IN (SELECT id FROM loads WHERE shipper_id = ?)",
+                SHIPPER_ID);
+        jdbcTemplate.update("DELETE FROM loads WHERE shipper_id = ?", SHIPPER_ID);
+    }
+}
@@ -0,0 +1,146 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.config.ProtobufSchemas;
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.PagedResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writing and reading a 100-item {@code GET /load} and {@code GET /booking}
+ * page in each representation the API negotiates: JSON, CBOR, Smile and
+ * protobuf. Not a test; run it like {@link SerializationBenchmark} with
+ * {@code com.cargopro.benchmark.FormatBenchmark}, which first prints the body
+ * size of each page per format, plain and gzipped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FormatBenchmark {
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    private Codec loads;
+    private Codec bookings;
+    private PagedResponse<LoadDto> loadPage;
+    private PagedResponse<BookingDto> bookingPage;
+    private byte[] loadBytes;
+    private byte[] bookingBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        loads = codec(format, PagedResponse.class, LoadDto.class);
+        bookings = codec(format, PagedResponse.class, BookingDto.class);
+        loadPage = SerializationBenchmark.loadPage();
+        bookingPage = SerializationBenchmark.bookingPage();
+        loadBytes = loads.writer.writeValueAsBytes(loadPage);
+        bookingBytes = bookings.writer.writeValueAsBytes(bookingPage);
+    }
+
+    @Benchmark
+    public byte[] writeLoadPage() throws IOException {
+        return loads.writer.writeValueAsBytes(loadPage);
+    }
+
+    @Benchmark
+    public Object readLoadPage() throws IOException {
+        return loads.reader.readValue(loadBytes);
+    }
+
+    @Benchmark
+    public byte[] writeBookingPage() throws IOException {
+        return bookings.writer.writeValueAsBytes(bookingPage);
+    }
+
+    @Benchmark
+    public Object readBookingPage() throws IOException {
+        return bookings.reader.readValue(bookingBytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (String format : new String[] {"json", "cbor", "smile", "protobuf"}) {
+            System.out.printf("%-8s load page %6d bytes (%5d gzip), booking page %6d bytes (%5d gzip)%n", format,
+                    size(format, LoadDto.class, SerializationBenchmark.loadPage(), false),
+                    size(format, LoadDto.class, SerializationBenchmark.loadPage(), true),
+                    size(format, BookingDto.class, SerializationBenchmark.bookingPage(), false),
+                    size(format, BookingDto.class, SerializationBenchmark.bookingPage(), true));
+        }
+        new Runner(new OptionsBuilder().include(FormatBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private static int size(String format, Class<?> itemType, Object page, boolean gzip) {
+        ObjectWriter writer = codec(format, PagedResponse.class, itemType).writer;
+        try {
+            if (!gzip) {
+                return writer.writeValueAsBytes(page).length;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                writer.writeValue(out, page);
+            }
+            return bytes.size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    // Each format configured as WebConfig configures its converter
+    static Codec codec(String format, Class<?> type, Class<?> parameter) {
+        ObjectMapper mapper = switch (format) {
+            case "json" -> builder().build();
+            case "cbor" -> builder().factory(new CBORFactory()).build();
+            case "smile" -> builder().factory(new SmileFactory()).build();
+            case "protobuf" -> {
+                ProtobufMapper protobufMapper = new ProtobufMapper();
+                builder().configure(protobufMapper);
+                yield protobufMapper;
+            }
+            default -> throw new IllegalArgumentException(format);
+        };
+        JavaType javaType = mapper.getTypeFactory().constructParametricType(type, parameter);
+        ObjectWriter writer = mapper.writerFor(javaType);
+        ObjectReader reader = mapper.readerFor(javaType);
+        if (mapper instanceof ProtobufMapper protobufMapper) {
+            ProtobufSchema schema = new ProtobufSchemas(protobufMapper).schemaFor(javaType)
+                    .orElseThrow(() -> new IllegalStateException("No schema for " + javaType));
+            writer = writer.with(schema);
+            reader = reader.with(schema);
+        }
+        return new Codec(writer, reader);
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new BlackbirdModule());
+    }
+
+    record Codec(ObjectWriter writer, ObjectReader reader) {
+    }
+}
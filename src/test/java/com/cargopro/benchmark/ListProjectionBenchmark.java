@@ -0,0 +1,129 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingFilter;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.LoadFilter;
+import com.cargopro.entity.Booking;
+import com.cargopro.entity.Load;
+import com.cargopro.repository.BookingRepository;
+import com.cargopro.repository.LoadRepository;
+import com.cargopro.service.LoadService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 100-item {@code GET /load} and {@code GET /booking} page, read either as
+ * managed entities copied field by field into DTOs, as the list queries did
+ * before, or projected straight into the DTOs the way
+ * {@code findLoads}/{@code findBookings} do now. Both run in a read-only
+ * transaction. Needs a database; see {@link BenchmarkApplication}. Run it like
+ * {@link TransactionModeBenchmark} with
+ * {@code com.cargopro.benchmark.ListProjectionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ListProjectionBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"entities", "projection"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private LoadService loadService;
+    private LoadRepository loadRepository;
+    private BookingRepository bookingRepository;
+    private LoadFilter loadFilter;
+    private BookingFilter bookingFilter;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.bookLoads(context, BenchmarkApplication.postLoads(context, 10 * PAGE_SIZE));
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        loadService = context.getBean(LoadService.class);
+        loadRepository = context.getBean(LoadRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        loadFilter = new LoadFilter();
+        loadFilter.setShipperId(BenchmarkApplication.SHIPPER_ID);
+        bookingFilter = new BookingFilter();
+        bookingFilter.setTransporterId(BenchmarkApplication.TRANSPORTER_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkApplication.deleteLoads(context);
+        context.close();
+    }
+
+    @Benchmark
+    public List<LoadDto> listLoads() {
+        if ("projection".equals(query)) {
+            return transactionTemplate.execute(status ->
+                    loadRepository.findLoads(loadFilter, PageRequest.of(0, PAGE_SIZE)).getContent());
+        }
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT l FROM Load l WHERE l.shipperId = :shipperId "
+                        + "ORDER BY l.datePosted DESC, l.id DESC", Load.class)
+                .setParameter("shipperId", BenchmarkApplication.SHIPPER_ID)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList().stream()
+                .limit(PAGE_SIZE)
+                .map(loadService::convertToDto)
+                .toList());
+    }
+
+    @Benchmark
+    public List<BookingDto> listBookings() {
+        if ("projection".equals(query)) {
+            return transactionTemplate.execute(status ->
+                    bookingRepository.findBookings(bookingFilter, PageRequest.of(0, PAGE_SIZE)).getContent());
+        }
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT b FROM Booking b WHERE b.transporterId = :transporterId "
+                        + "ORDER BY b.requestedAt DESC, b.id DESC", Booking.class)
+                .setParameter("transporterId", BenchmarkApplication.TRANSPORTER_ID)
+                .setMaxResults(PAGE_SIZE + 1)
+                .getResultList().stream()
+                .limit(PAGE_SIZE)
+                .map(ListProjectionBenchmark::toDto)
+                .toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    // Field by field, as BookingService.convertToDto copies an entity
+    private static BookingDto toDto(Booking booking) {
+        return new BookingDto(booking.getId(), booking.getLoadId(), booking.getTransporterId(),
+                booking.getProposedRate(), booking.getComment(), booking.getStatus(), booking.getRequestedAt(),
+                booking.getVersion(), booking.getUpdatedAt());
+    }
+}
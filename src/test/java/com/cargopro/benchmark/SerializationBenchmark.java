@@ -0,0 +1,136 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.PagedResponse;
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.LoadStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost of writing a 100-item {@code GET /load} and {@code GET /booking}
+ * page, with reflective or Blackbird accessors, as plain JSON or gzipped the
+ * way Tomcat compresses it. Not a test; run it with
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.cargopro.benchmark.SerializationBenchmark
+ * </pre>
+ * which first prints the body size of each page per encoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"reflection", "blackbird"})
+    private String accessors;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ObjectMapper mapper;
+    private PagedResponse<LoadDto> loadPage;
+    private PagedResponse<BookingDto> bookingPage;
+
+    @Setup
+    public void setUp() {
+        mapper = objectMapper("blackbird".equals(accessors));
+        loadPage = loadPage();
+        bookingPage = bookingPage();
+    }
+
+    @Benchmark
+    public byte[] writeLoadPage() {
+        return write(mapper, loadPage, "gzip".equals(encoding));
+    }
+
+    @Benchmark
+    public byte[] writeBookingPage() {
+        return write(mapper, bookingPage, "gzip".equals(encoding));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        ObjectMapper mapper = objectMapper(true);
+        System.out.printf("Load page:    %6d bytes identity, %6d bytes gzip%n",
+                write(mapper, loadPage(), false).length, write(mapper, loadPage(), true).length);
+        System.out.printf("Booking page: %6d bytes identity, %6d bytes gzip%n",
+                write(mapper, bookingPage(), false).length, write(mapper, bookingPage(), true).length);
+        new Runner(new OptionsBuilder().include(SerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // Configured as application.yml configures the application's mapper
+    static ObjectMapper objectMapper(boolean blackbird) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (blackbird) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        return builder.build();
+    }
+
+    static byte[] write(ObjectMapper mapper, Object value, boolean gzip) {
+        try {
+            if (!gzip) {
+                return mapper.writeValueAsBytes(value);
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                mapper.writeValue(out, value);
+            }
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    static PagedResponse<LoadDto> loadPage() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 15, 8, 0);
+        List<LoadDto> loads = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            LocalDateTime loading = start.plusHours(i * 7L);
+            loads.add(new LoadDto(new UUID(0x01a1500000007000L + i, 0x8000000000000000L + i * 7919L),
+                    "SHIPPER" + (i % 40), "Mumbai", i % 2 == 0 ? "Delhi" : "Bengaluru",
+                    loading, loading.plusDays(2), 19.076, 72.8777, 28.7041, 77.1025,
+                    i % 3 == 0 ? "Electronics" : "Steel coils", i % 2 == 0 ? "Container" : "Flatbed",
+                    1 + i % 4, 1000.0 + i * 37.5, i % 5 == 0 ? "Handle with care" : null,
+                    loading.minusDays(3), LoadStatus.POSTED, 1L, loading.minusDays(1)));
+        }
+        return new PagedResponse<>(loads, 0, PAGE_SIZE, 25_000, 250, true, false);
+    }
+
+    static PagedResponse<BookingDto> bookingPage() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 8, 0);
+        List<BookingDto> bookings = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            bookings.add(new BookingDto(new UUID(0x01a1510000007000L + i, 0x9000000000000000L + i * 7919L),
+                    new UUID(0x01a1500000007000L + i / 3, 0x8000000000000000L + i / 3 * 7919L),
+                    "TRANSPORTER" + (i % 60), 4000.0 + i * 12.5, i % 4 == 0 ? "Can load tomorrow" : null,
+                    BookingStatus.values()[i % 3], start.plusMinutes(i * 17L), 1L, start.plusMinutes(i * 17L)));
+        }
+        return new PagedResponse<>(bookings, 0, PAGE_SIZE, 40_000, 400, true, false);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.dto.LoadDto;
+import com.cargopro.entity.Load;
+import com.cargopro.service.LoadService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 100-load page read as managed entities and copied into DTOs, in a
+ * read-write transaction (what every service read opened before the services
+ * defaulted to {@code @Transactional(readOnly = true)}) and in a read-only one.
+ * Read-only, Hibernate keeps no snapshot of each entity and, with flush mode
+ * MANUAL, neither dirty-checks nor flushes them at commit. Needs a database;
+ * see {@link BenchmarkApplication}. Run it like {@link SerializationBenchmark}
+ * with {@code com.cargopro.benchmark.TransactionModeBenchmark}; it reports
+ * bytes allocated per page ({@code gc.alloc.rate.norm}) alongside the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransactionModeBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"read-write", "read-only"})
+    private String transaction;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private EntityManager entityManager;
+    private LoadService loadService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        BenchmarkApplication.postLoads(context, 10 * PAGE_SIZE);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly("read-only".equals(transaction));
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        loadService = context.getBean(LoadService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkApplication.deleteLoads(context);
+        context.close();
+    }
+
+    @Benchmark
+    public List<LoadDto> listLoads() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery("SELECT l FROM Load l WHERE l.shipperId = :shipperId ORDER BY l.datePosted DESC",
+                        Load.class)
+                .setParameter("shipperId", BenchmarkApplication.SHIPPER_ID)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList().stream()
+                .map(loadService::convertToDto)
+                .toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransactionModeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
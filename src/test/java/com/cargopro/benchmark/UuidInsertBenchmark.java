@@ -0,0 +1,123 @@
+package com.cargopro.benchmark;
+
+import com.cargopro.entity.UuidV7Generator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting rows keyed by random (v4) UUIDs, as {@code loads} and
+ * {@code bookings} were, or by time-ordered UUIDv7s from
+ * {@link UuidV7Generator}, into a table with a UUID primary key. Random keys
+ * land all over the B-tree, so its pages split half full and each insert
+ * dirties a page of its own; v7 keys append to the rightmost page.
+ * <p>
+ * Each operation is one JDBC batch of {@value #BATCH_SIZE} rows, sent the way
+ * the application sends them ({@code reWriteBatchedInserts}). A checkpoint
+ * precedes each iteration, as one does every {@code checkpoint_timeout} on a
+ * running server, so the full-page writes that follow count towards the WAL.
+ * The trial ends by printing the primary key's size and the WAL written, per
+ * row. Needs a database: {@code -Dspring.datasource.url}, {@code .username}
+ * and {@code .password}, defaulting to the local one from application.yml,
+ * where it creates and finally drops a scratch table. {@code CHECKPOINT}
+ * needs a superuser or {@code pg_checkpoint}; without it, iterations just
+ * run without one. Run it like {@link SerializationBenchmark} with
+ * {@code com.cargopro.benchmark.UuidInsertBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"random", "v7"})
+    private String keys;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private String table;
+    private String walStart;
+    private long sequence;
+
+    @Setup
+    public void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", System.getProperty("spring.datasource.username", "postgres"));
+        properties.setProperty("password", System.getProperty("spring.datasource.password", "postgres"));
+        properties.setProperty("reWriteBatchedInserts", "true");
+        connection = DriverManager.getConnection(
+                System.getProperty("spring.datasource.url", "jdbc:postgresql://localhost:5432/cargopro"), properties);
+        connection.setAutoCommit(false);
+        table = "uuid_insert_benchmark_" + keys;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + table);
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, sequence BIGINT NOT NULL, "
+                    + "created_at TIMESTAMP(6) NOT NULL DEFAULT now())");
+        }
+        connection.commit();
+        insert = connection.prepareStatement("INSERT INTO " + table + " (id, sequence) VALUES (?, ?)");
+        walStart = query("SELECT pg_current_wal_lsn()::text");
+    }
+
+    @Setup(Level.Iteration)
+    public void checkpoint() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CHECKPOINT");
+        } catch (SQLException ex) {
+            // Not permitted for this user
+        } finally {
+            connection.commit();
+        }
+    }
+
+    @Benchmark
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, "v7".equals(keys) ? UuidV7Generator.next() : UUID.randomUUID());
+            insert.setLong(2, sequence++);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        long rows = Long.parseLong(query("SELECT count(*) FROM " + table));
+        long indexBytes = Long.parseLong(query("SELECT pg_relation_size('" + table + "_pkey')"));
+        long walBytes = Long.parseLong(query("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '" + walStart + "')"));
+        System.out.printf("%n%s keys: %,d rows, primary key %,d bytes (%.1f per row), WAL %,d bytes (%.1f per row)%n",
+                keys, rows, indexBytes, (double) indexBytes / rows, walBytes, (double) walBytes / rows);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + table);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(UuidInsertBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    private String query(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.cargopro.config;
+
+import com.cargopro.dto.FacilityDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.PagedResponse;
+import com.cargopro.enums.LoadStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonConfigTest {
+
+    @Test
+    void blackbirdModule_SameJsonAsReflection() throws Exception {
+        // Arrange
+        ObjectMapper reflection = objectMapper();
+        ObjectMapper blackbird = objectMapper();
+        blackbird.registerModule(new JacksonConfig().blackbirdModule());
+
+        FacilityDto facility = new FacilityDto("Mumbai", "Delhi",
+                LocalDateTime.of(2030, 1, 15, 10, 0), LocalDateTime.of(2030, 1, 16, 18, 0));
+        LoadDto load = new LoadDto("SHIPPER001", facility, "Electronics", "Container", 2, 5000.0, null);
+        load.setId(UUID.randomUUID());
+        load.setStatus(LoadStatus.POSTED);
+        load.setVersion(3L);
+        PagedResponse<LoadDto> page = new PagedResponse<>(List.of(load), 0, 10, 1, 1, false, false);
+
+        // Act
+        String expected = reflection.writeValueAsString(page);
+        String actual = blackbird.writeValueAsString(page);
+        PagedResponse<LoadDto> readBack = blackbird.readValue(actual, new TypeReference<>() {});
+
+        // Assert
+        assertEquals(expected, actual);
+        assertFalse(actual.contains("version"));
+        assertEquals(load.getId(), readBack.getContent().get(0).getId());
+        assertEquals("Delhi", readBack.getContent().get(0).getFacility().getUnloadingPoint());
+    }
+
+    private static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package com.cargopro.config;
+
+import com.cargopro.dto.FacilityDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.dto.PagedResponse;
+import com.cargopro.enums.LoadStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.lang.reflect.Type;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.cargopro.config.JacksonProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonProtobufHttpMessageConverterTest {
+
+    private static final Type LOAD_PAGE = new TypeReference<PagedResponse<LoadDto>>() {}.getType();
+
+    private JacksonProtobufHttpMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        ProtobufMapper mapper = new ProtobufMapper();
+        Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .configure(mapper);
+        converter = new JacksonProtobufHttpMessageConverter(new ProtobufSchemas(mapper));
+    }
+
+    @Test
+    void writeAndRead_PagedLoads_RoundTrip() throws Exception {
+        // Arrange
+        FacilityDto facility = new FacilityDto("Mumbai", "Delhi",
+                LocalDateTime.of(2030, 1, 15, 10, 0), LocalDateTime.of(2030, 1, 16, 18, 0));
+        LoadDto load = new LoadDto("SHIPPER001", facility, "Electronics", "Container", 2, 5000.0, null);
+        load.setId(UUID.randomUUID());
+        load.setStatus(LoadStatus.POSTED);
+        PagedResponse<LoadDto> page = new PagedResponse<>(List.of(load), 0, 10, 1, 1, false, false);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        // Act
+        converter.write(page, LOAD_PAGE, APPLICATION_PROTOBUF, output);
+        @SuppressWarnings("unchecked")
+        PagedResponse<LoadDto> readBack = (PagedResponse<LoadDto>) converter.read(LOAD_PAGE, null,
+                new MockHttpInputMessage(output.getBodyAsBytes()));
+
+        // Assert
+        assertEquals(APPLICATION_PROTOBUF, output.getHeaders().getContentType());
+        assertEquals(1, readBack.getTotalElements());
+        LoadDto loaded = readBack.getContent().get(0);
+        assertEquals(load.getId(), loaded.getId());
+        assertEquals(LoadStatus.POSTED, loaded.getStatus());
+        assertEquals(facility.getUnloadingDate(), loaded.getFacility().getUnloadingDate());
+    }
+
+    @Test
+    void canWrite_OnlyTypesWithSchema() {
+        // Arrange
+        Type loadList = new TypeReference<List<LoadDto>>() {}.getType();
+
+        // Act & Assert
+        assertTrue(converter.canWrite(LOAD_PAGE, PagedResponse.class, APPLICATION_PROTOBUF));
+        assertTrue(converter.canRead(LoadDto.class, null, APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(loadList, List.class, APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(LoadDto.class, LoadDto.class, MediaType.APPLICATION_JSON));
+    }
+}
@@ -0,0 +1,170 @@
+package com.cargopro.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private ReadReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReadReplicaRoutingDataSource(primary, replica);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplica() throws Exception {
+        // Arrange
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(replicaConnection, connection);
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void readWriteTransactionInRequest_UsesPrimaryAndPinsThread() throws Exception {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        assertTrue(ReadYourWritesContext.isPinnedToPrimary());
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransactionAfterWriteOnPlainThread_UsesReplica() throws Exception {
+        // Arrange: a pooled thread outside any request, such as a scheduled job or background worker
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        List<Connection> used = new ArrayList<>();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        // Act
+        Thread worker = new Thread(() -> {
+            transactionTemplate.executeWithoutResult(status -> used.add(target(dataSource)));
+            transactionTemplate.setReadOnly(true);
+            transactionTemplate.executeWithoutResult(status -> used.add(target(dataSource)));
+            pinned.set(ReadYourWritesContext.isPinnedToPrimary());
+        });
+        worker.start();
+        worker.join();
+
+        // Assert
+        assertEquals(List.of(primaryConnection, replicaConnection), used);
+        assertFalse(pinned.get());
+    }
+
+    @Test
+    void readOnlyTransactionAfterWrite_UsesPrimary() throws Exception {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReadYourWritesContext.pinToPrimary();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransactionOnPrimary_UsesPrimaryThenUnpins() throws Exception {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = ReadYourWritesContext.onPrimary(() -> {
+            try {
+                return routingDataSource.getConnection();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        verify(replica, never()).getConnection();
+        assertFalse(ReadYourWritesContext.isPinnedToPrimary());
+    }
+
+    @Test
+    void noTransaction_UsesPrimary() throws Exception {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = routingDataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        assertFalse(ReadYourWritesContext.isPinnedToPrimary());
+    }
+
+    // The physical connection behind the transaction's lazy proxy, fetched as the first statement would
+    private static Connection target(DataSource dataSource) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        return ((ConnectionProxy) connection).getTargetConnection();
+    }
+}
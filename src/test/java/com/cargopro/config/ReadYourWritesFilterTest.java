@@ -0,0 +1,41 @@
+package com.cargopro.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    void doFilter_WriteSetsPrimaryCookie() throws Exception {
+        // Act
+        MockHttpServletResponse response = filter(new MockHttpServletRequest("POST", "/api/load"));
+
+        // Assert
+        assertNotNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    @Test
+    void doFilter_BatchGetIsARead() throws Exception {
+        // Act
+        MockHttpServletResponse loads = filter(new MockHttpServletRequest("POST", "/api/load/batch-get"));
+        MockHttpServletResponse bookings = filter(new MockHttpServletRequest("POST", "/api/booking/batch-get"));
+
+        // Assert
+        assertNull(loads.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+        assertNull(bookings.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
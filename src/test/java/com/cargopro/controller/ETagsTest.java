@@ -0,0 +1,45 @@
+package com.cargopro.controller;
+
+import com.cargopro.dto.ListVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    void forList_NoTransactionPending() {
+        // Act
+        String eTag = ETags.forList(new ListVersion(0x12, 0x2e4, new long[0]));
+
+        // Assert
+        assertEquals("W/\"12-2e4\"", eTag);
+    }
+
+    @Test
+    void forList_OlderTransactionStillRunning() {
+        // Arrange
+        String settled = ETags.forList(new ListVersion(18, 740, new long[0]));
+
+        // Act
+        String pending = ETags.forList(new ListVersion(18, 740, new long[] {700}));
+
+        // Assert: the tag moves once the transaction commits, though neither count nor last write may
+        assertTrue(pending.startsWith("W/\"12-2e4-"));
+        assertNotEquals(settled, pending);
+        assertNotEquals(pending, ETags.forList(new ListVersion(18, 740, new long[] {700, 720})));
+    }
+
+    @Test
+    void forList_DeleteMovesTag() {
+        // Act & Assert
+        assertNotEquals(ETags.forList(new ListVersion(18, 740, new long[0])),
+                ETags.forList(new ListVersion(17, 740, new long[0])));
+    }
+
+    @Test
+    void forList_NoMatchingRows() {
+        // Act & Assert
+        assertEquals("W/\"0-0\"", ETags.forList(new ListVersion(0, 0, new long[0])));
+    }
+}
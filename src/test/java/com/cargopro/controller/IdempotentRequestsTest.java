@@ -0,0 +1,149 @@
+package com.cargopro.controller;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.exception.BusinessException;
+import com.cargopro.repository.IdempotencyKeyRepository;
+import com.cargopro.repository.IdempotencyKeyRepository.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentRequestsTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    // Runs the callbacks as they come; the mocked manager has nothing to commit or roll back
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private IdempotentRequests idempotentRequests;
+
+    private BookingDto request;
+    private BookingDto created;
+    private AtomicInteger creates;
+
+    @BeforeEach
+    void setUp() {
+        request = new BookingDto(UUID.randomUUID(), "TRANSPORTER001", 5000.0, "Test booking");
+        created = new BookingDto(request.getLoadId(), "TRANSPORTER001", 5000.0, "Test booking");
+        created.setId(UUID.randomUUID());
+        creates = new AtomicInteger();
+    }
+
+    @Test
+    void execute_WithoutKey_Runs() {
+        // Act
+        ResponseEntity<BookingDto> response = execute(null, request);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertSame(created, response.getBody());
+        assertEquals(1, creates.get());
+        verifyNoInteractions(idempotencyKeyRepository, transactionTemplate);
+    }
+
+    @Test
+    void execute_RetryReplayedFromMemory() {
+        // Arrange
+        when(idempotencyKeyRepository.claim(eq("POST /booking"), eq("key-1"), any(), any())).thenReturn(true);
+
+        // Act
+        ResponseEntity<BookingDto> first = execute("key-1", request);
+        ResponseEntity<BookingDto> retry = execute("key-1", request);
+
+        // Assert
+        assertEquals(1, creates.get());
+        assertNull(first.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER));
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotentRequests.REPLAYED_HEADER));
+        assertEquals(created.getId(), retry.getBody().getId());
+        verify(idempotencyKeyRepository).complete(eq("POST /booking"), eq("key-1"), eq(201), anyString());
+        verify(idempotencyKeyRepository, never()).find(any(), any());
+    }
+
+    @Test
+    void execute_KeyHeldElsewhere_ReplaysStoredResponse() throws Exception {
+        // Arrange
+        ArgumentCaptor<byte[]> requestHash = ArgumentCaptor.forClass(byte[].class);
+        when(idempotencyKeyRepository.claim(eq("POST /booking"), eq("key-1"), requestHash.capture(), any()))
+                .thenReturn(false);
+        when(idempotencyKeyRepository.find("POST /booking", "key-1")).thenAnswer(invocation ->
+                Optional.of(new StoredResponse(requestHash.getValue(), 201, objectMapper.writeValueAsString(created),
+                        LocalDateTime.now().plusHours(1))));
+
+        // Act
+        ResponseEntity<BookingDto> response = execute("key-1", request);
+
+        // Assert
+        assertEquals(0, creates.get());
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(created.getId(), response.getBody().getId());
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void execute_KeyReusedForDifferentRequest() {
+        // Arrange
+        when(idempotencyKeyRepository.claim(eq("POST /booking"), eq("key-1"), any(), any())).thenReturn(true);
+        execute("key-1", request);
+        BookingDto otherRequest = new BookingDto(request.getLoadId(), "TRANSPORTER001", 6000.0, "Test booking");
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> execute("key-1", otherRequest));
+        assertThrows(BusinessException.class, () -> execute(" ", request));
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void execute_FailedCreateStoresNothing() {
+        // Arrange
+        when(idempotencyKeyRepository.claim(eq("POST /booking"), eq("key-1"), any(), any())).thenReturn(true);
+        Supplier<BookingDto> failing = () -> {
+            throw new BusinessException("Transporter has already booked this load");
+        };
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> idempotentRequests.execute("POST /booking", "key-1", request,
+                BookingDto.class, HttpStatus.CREATED, failing));
+        verify(idempotencyKeyRepository, never()).complete(any(), any(), anyInt(), any());
+        execute("key-1", request);
+        assertEquals(1, creates.get());
+    }
+
+    private ResponseEntity<BookingDto> execute(String idempotencyKey, BookingDto bookingDto) {
+        return idempotentRequests.execute("POST /booking", idempotencyKey, bookingDto, BookingDto.class,
+                HttpStatus.CREATED, () -> {
+                    creates.incrementAndGet();
+                    return created;
+                });
+    }
+}
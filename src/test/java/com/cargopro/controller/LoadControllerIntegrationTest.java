@@ -6,7 +6,7 @@ import com.cargopro.enums.LoadStatus;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -114,6 +114,26 @@ class LoadControllerIntegrationTest {
                 .andExpect(jsonPath("$.content").exists());
     }
 
+    @Test
+    void getLoads_NotModified() throws Exception {
+        // Arrange
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        String eTag = mockMvc.perform(get("/api/load")
+                        .param("shipperId", "SHIPPER001"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/load")
+                        .param("shipperId", "SHIPPER001")
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getLoadById_Success() throws Exception {
         // Arrange
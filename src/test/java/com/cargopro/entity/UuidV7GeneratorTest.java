@@ -0,0 +1,50 @@
+package com.cargopro.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void next_HasVersion7AndRfcVariant() {
+        // Act
+        UUID uuid = UuidV7Generator.next();
+
+        // Assert
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void next_EmbedsCurrentTimestamp() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID uuid = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        // Assert
+        // The counter may have carried into the timestamp during earlier bursts, so allow a little drift ahead
+        long timestamp = uuid.getMostSignificantBits() >>> 16;
+        assertTrue(timestamp >= before && timestamp <= after + 1000);
+    }
+
+    @Test
+    void next_IsStrictlyIncreasing() {
+        // Arrange
+        UUID previous = UuidV7Generator.next();
+
+        for (int i = 0; i < 100_000; i++) {
+            // Act
+            UUID current = UuidV7Generator.next();
+
+            // Assert: compare as unsigned, the way Postgres orders uuid values
+            assertTrue(Long.compareUnsigned(current.getMostSignificantBits(), previous.getMostSignificantBits()) > 0);
+            previous = current;
+        }
+    }
+}
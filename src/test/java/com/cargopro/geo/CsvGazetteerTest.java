@@ -0,0 +1,56 @@
+package com.cargopro.geo;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvGazetteerTest {
+
+    private final CsvGazetteer gazetteer = new CsvGazetteer(new ByteArrayResource((
+            "# name,latitude,longitude\n" +
+            "Mumbai,19.0760,72.8777\n" +
+            "\n" +
+            "New Delhi,28.6139,77.2090\n").getBytes(StandardCharsets.UTF_8)));
+
+    @Test
+    void lookup_IgnoresCaseAndWhitespace() {
+        // Act
+        Optional<GeoPoint> point = gazetteer.lookup("  new DELHI ");
+
+        // Assert
+        assertTrue(point.isPresent());
+        assertEquals(28.6139, point.get().getLatitude());
+        assertEquals(77.2090, point.get().getLongitude());
+        assertEquals(2, gazetteer.size());
+    }
+
+    @Test
+    void lookup_FallsBackToLastCommaSeparatedPart() {
+        // Act & Assert
+        assertEquals(19.0760, gazetteer.lookup("Andheri East, Mumbai").orElseThrow().getLatitude());
+        assertTrue(gazetteer.lookup("Andheri East").isEmpty());
+        assertTrue(gazetteer.lookup(null).isEmpty());
+    }
+
+    @Test
+    void bundledPlacesFile_Loads() {
+        // Act
+        CsvGazetteer bundled = new CsvGazetteer(new ClassPathResource("geo/places.csv"));
+
+        // Assert
+        assertTrue(bundled.size() > 0);
+        assertTrue(bundled.lookup("Bengaluru").isPresent());
+    }
+
+    @Test
+    void malformedLine_Rejected() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new CsvGazetteer(
+                new ByteArrayResource("Mumbai;19.07;72.87\n".getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,255 @@
+package com.cargopro.grpc;
+
+import com.cargopro.config.ProtobufSchemas;
+import com.cargopro.config.ReadYourWritesContext;
+import com.cargopro.dto.BookingDto;
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.event.BookingChangedEvent;
+import com.cargopro.exception.BusinessException;
+import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.service.BookingService;
+import com.cargopro.service.LoadService;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingGrpcServiceTest {
+
+    private static final BookingRpc RPC = new BookingRpc(protobufSchemas());
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private LoadService loadService;
+
+    @Spy
+    private BookingWatchers bookingWatchers = new BookingWatchers();
+
+    @Spy
+    private BookingRpc bookingRpc = RPC;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private BookingGrpcService bookingGrpcService;
+
+    private Server server;
+    private ManagedChannel channel;
+    private UUID loadId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(bookingGrpcService).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        loadId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void createBooking_Success() {
+        // Arrange
+        BookingDto created = booking(loadId, "TRANSPORTER001");
+        created.setId(UUID.randomUUID());
+        created.setStatus(BookingStatus.PENDING);
+        when(bookingService.createBooking(any(BookingDto.class))).thenReturn(created);
+
+        // Act
+        BookingDto result = ClientCalls.blockingUnaryCall(channel, RPC.getCreateBooking(), CallOptions.DEFAULT,
+                booking(loadId, "TRANSPORTER001"));
+
+        // Assert
+        assertEquals(created.getId(), result.getId());
+        assertEquals(BookingStatus.PENDING, result.getStatus());
+        verify(bookingService).createBooking(argThat(booking -> loadId.equals(booking.getLoadId())
+                && "TRANSPORTER001".equals(booking.getTransporterId())));
+    }
+
+    @Test
+    void createBooking_InvalidRequest_NotCreated() {
+        // Arrange
+        BookingDto invalid = booking(loadId, "");
+
+        // Act
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () ->
+                ClientCalls.blockingUnaryCall(channel, RPC.getCreateBooking(), CallOptions.DEFAULT, invalid));
+
+        // Assert
+        assertEquals(Status.Code.INVALID_ARGUMENT, ex.getStatus().getCode());
+        assertEquals("Transporter ID is required", ex.getStatus().getDescription());
+        verify(bookingService, never()).createBooking(any(BookingDto.class));
+    }
+
+    @Test
+    void createBookings_ReportsEachBooking() throws Exception {
+        // Arrange
+        UUID firstId = UUID.randomUUID();
+        UUID thirdId = UUID.randomUUID();
+        when(bookingService.createBooking(any(BookingDto.class))).thenAnswer(invocation -> {
+            BookingDto booking = invocation.getArgument(0);
+            return switch (booking.getTransporterId()) {
+                case "TRANSPORTER001" -> withId(booking, firstId);
+                case "TRANSPORTER002" -> throw new BusinessException("Transporter has already booked this load");
+                default -> withId(booking, thirdId);
+            };
+        });
+        CompletableFuture<CreateBookingsResponse> response = new CompletableFuture<>();
+
+        // Act
+        StreamObserver<BookingDto> requests = ClientCalls.asyncClientStreamingCall(
+                channel.newCall(RPC.getCreateBookings(), CallOptions.DEFAULT), observer(response));
+        requests.onNext(booking(loadId, "TRANSPORTER001"));
+        requests.onNext(booking(loadId, "TRANSPORTER002"));
+        requests.onNext(booking(loadId, "TRANSPORTER003"));
+        requests.onCompleted();
+        CreateBookingsResponse result = response.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(firstId, result.getResults().get(0).getBookingId());
+        assertEquals(1, result.getResults().get(1).getIndex());
+        assertEquals("FAILED_PRECONDITION", result.getResults().get(1).getErrorCode());
+        assertEquals("Transporter has already booked this load", result.getResults().get(1).getErrorMessage());
+        assertEquals(thirdId, result.getResults().get(2).getBookingId());
+    }
+
+    @Test
+    void acceptBooking_NotFound() {
+        // Arrange
+        UUID bookingId = UUID.randomUUID();
+        when(bookingService.acceptBooking(bookingId))
+                .thenThrow(new ResourceNotFoundException("Booking", "id", bookingId));
+
+        // Act
+        StatusRuntimeException ex = assertThrows(StatusRuntimeException.class, () -> ClientCalls.blockingUnaryCall(
+                channel, RPC.getAcceptBooking(), CallOptions.DEFAULT, new BookingIdRequest(bookingId)));
+
+        // Assert
+        assertEquals(Status.Code.NOT_FOUND, ex.getStatus().getCode());
+    }
+
+    @Test
+    void watchLoadBookings_CurrentBookingsThenChanges() {
+        // Arrange
+        BookingDto existing = withId(booking(loadId, "TRANSPORTER001"), UUID.randomUUID());
+        existing.setStatus(BookingStatus.PENDING);
+        AtomicBoolean snapshotOnPrimary = new AtomicBoolean();
+        when(bookingService.getBookingsByLoadId(loadId, false)).thenAnswer(invocation -> {
+            snapshotOnPrimary.set(ReadYourWritesContext.isPinnedToPrimary());
+            return List.of(existing);
+        });
+        BookingDto accepted = withId(booking(loadId, "TRANSPORTER001"), existing.getId());
+        accepted.setStatus(BookingStatus.ACCEPTED);
+
+        // Act
+        Iterator<BookingUpdate> updates = ClientCalls.blockingServerStreamingCall(channel,
+                RPC.getWatchLoadBookings(), CallOptions.DEFAULT, new LoadIdRequest(loadId));
+        BookingUpdate first = updates.next();
+        bookingWatchers.onBookingChanged(BookingChangedEvent.saved(accepted));
+        bookingWatchers.onBookingChanged(BookingChangedEvent.saved(withId(booking(UUID.randomUUID(), "OTHER"),
+                UUID.randomUUID())));
+        bookingWatchers.onBookingChanged(BookingChangedEvent.deleted(existing.getId(), loadId));
+        BookingUpdate second = updates.next();
+        BookingUpdate third = updates.next();
+        bookingWatchers.closeAll();
+
+        // Assert
+        assertEquals(BookingStatus.PENDING, first.getBooking().getStatus());
+        assertEquals(BookingStatus.ACCEPTED, second.getBooking().getStatus());
+        assertTrue(third.isDeleted());
+        assertEquals(existing.getId(), third.getBookingId());
+        assertFalse(updates.hasNext());
+        assertEquals(0, bookingWatchers.size());
+        assertTrue(snapshotOnPrimary.get());
+        verify(loadService).getLoadById(loadId);
+    }
+
+    @Test
+    void protoSource_DescribesStreamingMethods() {
+        // Act
+        String proto = RPC.protoSource();
+
+        // Assert
+        assertTrue(proto.contains("package cargopro;"));
+        assertTrue(proto.contains("rpc CreateBookings (stream BookingDto) returns (CreateBookingsResponse);"));
+        assertTrue(proto.contains("rpc WatchLoadBookings (LoadIdRequest) returns (stream BookingUpdate);"));
+        assertEquals(proto.indexOf("message BookingDto {"), proto.lastIndexOf("message BookingDto {"));
+    }
+
+    private static BookingDto booking(UUID loadId, String transporterId) {
+        BookingDto booking = new BookingDto(loadId, transporterId, 4500.0, null);
+        booking.setRequestedAt(LocalDateTime.of(2030, 1, 10, 8, 0));
+        return booking;
+    }
+
+    private static BookingDto withId(BookingDto booking, UUID id) {
+        booking.setId(id);
+        return booking;
+    }
+
+    private static <T> StreamObserver<T> observer(CompletableFuture<T> result) {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                result.completeExceptionally(t);
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+        };
+    }
+
+    private static ProtobufSchemas protobufSchemas() {
+        ProtobufMapper mapper = new ProtobufMapper();
+        Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .configure(mapper);
+        return new ProtobufSchemas(mapper);
+    }
+}
@@ -0,0 +1,74 @@
+package com.cargopro.maintenance;
+
+import com.cargopro.repository.ArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadArchivalJobTest {
+
+    @Mock
+    private ArchiveRepository archiveRepository;
+
+    @InjectMocks
+    private LoadArchivalJob loadArchivalJob;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(loadArchivalJob, "enabled", true);
+        ReflectionTestUtils.setField(loadArchivalJob, "minAge", Duration.ofDays(90));
+        ReflectionTestUtils.setField(loadArchivalJob, "batchSize", 100);
+        ReflectionTestUtils.setField(loadArchivalJob, "maxBatchesPerRun", 5);
+    }
+
+    @Test
+    void archiveTerminalLoads_StopsAfterPartialBatch() {
+        // Arrange
+        when(archiveRepository.archiveTerminalLoads(any(LocalDateTime.class), eq(100))).thenReturn(100, 100, 30);
+
+        // Act
+        int archived = loadArchivalJob.archiveTerminalLoads();
+
+        // Assert
+        assertEquals(230, archived);
+        verify(archiveRepository, times(3)).archiveTerminalLoads(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void archiveTerminalLoads_BoundedByMaxBatches() {
+        // Arrange
+        when(archiveRepository.archiveTerminalLoads(any(LocalDateTime.class), eq(100))).thenReturn(100);
+
+        // Act
+        int archived = loadArchivalJob.archiveTerminalLoads();
+
+        // Assert
+        assertEquals(500, archived);
+        verify(archiveRepository, times(5)).archiveTerminalLoads(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void runArchival_Disabled() {
+        // Arrange
+        ReflectionTestUtils.setField(loadArchivalJob, "enabled", false);
+
+        // Act
+        loadArchivalJob.runArchival();
+
+        // Assert
+        verifyNoInteractions(archiveRepository);
+    }
+}
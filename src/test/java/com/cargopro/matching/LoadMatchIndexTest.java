@@ -0,0 +1,267 @@
+package com.cargopro.matching;
+
+import com.cargopro.dto.FacilityDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.event.LoadChangedEvent;
+import com.cargopro.geo.GeoPoint;
+import com.cargopro.repository.LoadRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadMatchIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 15, 0, 0);
+    private static final GeoPoint MUMBAI = new GeoPoint(19.0760, 72.8777);
+    private static final GeoPoint PUNE = new GeoPoint(18.5204, 73.8567);
+    private static final GeoPoint DELHI = new GeoPoint(28.7041, 77.1025);
+
+    @Mock
+    private LoadRepository loadRepository;
+
+    @InjectMocks
+    private LoadMatchIndex loadMatchIndex;
+
+    @Test
+    void match_ByTruckTypeAndOverlappingWindow() {
+        // Arrange
+        LoadDto early = load("Container", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+        LoadDto late = load("Container", DAY.plusDays(5), DAY.plusDays(6), MUMBAI, DELHI);
+        LoadDto otherType = load("Flatbed", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(Arrays.asList(late, early, otherType));
+        loadMatchIndex.warmUp();
+
+        // Act
+        List<LoadDto> result = loadMatchIndex.match("Container", DAY.plusHours(12), DAY.plusDays(2),
+                null, 0, null, 0, 10);
+        List<LoadDto> all = loadMatchIndex.match("Container", null, null, null, 0, null, 0, 10);
+
+        // Assert
+        assertEquals(List.of(early.getId()), ids(result));
+        assertEquals(List.of(early.getId(), late.getId()), ids(all));
+        assertEquals(3, loadMatchIndex.size());
+    }
+
+    @Test
+    void match_NearOriginOrderedByDistance() {
+        // Arrange
+        LoadDto fromPune = load("Container", DAY, DAY.plusDays(1), PUNE, DELHI);
+        LoadDto fromMumbai = load("Container", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+        LoadDto fromDelhi = load("Container", DAY, DAY.plusDays(1), DELHI, MUMBAI);
+        LoadDto noCoordinates = load("Container", DAY, DAY.plusDays(1), null, null);
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED))
+                .thenReturn(Arrays.asList(fromPune, fromMumbai, fromDelhi, noCoordinates));
+        loadMatchIndex.warmUp();
+
+        // Act
+        List<LoadDto> nearMumbai = loadMatchIndex.match("Container", null, null,
+                new GeoPoint(19.0, 72.9), 200, null, 0, 10);
+        List<LoadDto> nearMumbaiToDelhi = loadMatchIndex.match("Container", null, null,
+                new GeoPoint(19.0, 72.9), 200, DELHI, 50, 10);
+        List<LoadDto> toMumbai = loadMatchIndex.match("Container", null, null, null, 0, MUMBAI, 50, 10);
+
+        // Assert
+        assertEquals(List.of(fromMumbai.getId(), fromPune.getId()), ids(nearMumbai));
+        assertEquals(List.of(fromMumbai.getId(), fromPune.getId()), ids(nearMumbaiToDelhi));
+        assertEquals(List.of(fromDelhi.getId()), ids(toMumbai));
+    }
+
+    @Test
+    void onLoadChanged_KeepsOnlyPostedLoads() {
+        // Arrange
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(List.of());
+        loadMatchIndex.warmUp();
+        LoadDto load = load("Container", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+
+        // Act & Assert
+        loadMatchIndex.onLoadChanged(LoadChangedEvent.saved(load));
+        loadMatchIndex.refresh();
+        assertEquals(1, loadMatchIndex.match("Container", null, null, null, 0, null, 0, 10).size());
+
+        LoadDto retyped = load("Flatbed", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+        retyped.setId(load.getId());
+        loadMatchIndex.onLoadChanged(LoadChangedEvent.saved(retyped));
+        loadMatchIndex.refresh();
+        assertTrue(loadMatchIndex.match("Container", null, null, null, 0, null, 0, 10).isEmpty());
+        assertEquals(1, loadMatchIndex.match("Flatbed", null, null, null, 0, null, 0, 10).size());
+
+        retyped.setStatus(LoadStatus.BOOKED);
+        loadMatchIndex.onLoadChanged(LoadChangedEvent.saved(retyped));
+        loadMatchIndex.refresh();
+        assertEquals(0, loadMatchIndex.size());
+
+        loadMatchIndex.onLoadChanged(LoadChangedEvent.saved(load));
+        loadMatchIndex.onLoadChanged(LoadChangedEvent.deleted(load.getId()));
+        loadMatchIndex.refresh();
+        assertEquals(0, loadMatchIndex.size());
+    }
+
+    @Test
+    void onLoadChanged_PublishedOnRefresh() {
+        // Arrange
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(List.of());
+        loadMatchIndex.warmUp();
+
+        // Act
+        loadMatchIndex.onLoadChanged(LoadChangedEvent.saved(load("Container", DAY, DAY.plusDays(1), MUMBAI, DELHI)));
+        loadMatchIndex.onLoadChanged(LoadChangedEvent.saved(load("Container", DAY, DAY.plusDays(2), MUMBAI, DELHI)));
+
+        // Assert
+        assertEquals(0, loadMatchIndex.size());
+        loadMatchIndex.refresh();
+        assertEquals(2, loadMatchIndex.size());
+    }
+
+    @Test
+    void resync_PicksUpChangesFromOtherInstances() {
+        // Arrange
+        LoadDto kept = load("Container", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+        LoadDto bookedElsewhere = load("Container", DAY, DAY.plusDays(1), PUNE, DELHI);
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(List.of(kept, bookedElsewhere));
+        loadMatchIndex.warmUp();
+        LoadDto postedElsewhere = load("Flatbed", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(List.of(kept, postedElsewhere));
+
+        // Act
+        loadMatchIndex.resync();
+
+        // Assert
+        assertEquals(List.of(kept.getId()), ids(loadMatchIndex.match("Container", null, null, null, 0, null, 0, 10)));
+        assertEquals(List.of(postedElsewhere.getId()),
+                ids(loadMatchIndex.match("Flatbed", null, null, null, 0, null, 0, 10)));
+    }
+
+    @Test
+    void match_DistanceOrderAgreesWithFullSort() {
+        // Arrange
+        Random random = new Random(42);
+        List<LoadDto> loads = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            GeoPoint origin = new GeoPoint(18.5 + random.nextInt(100) / 100.0, 72.5 + random.nextInt(100) / 100.0);
+            loads.add(load("Container", DAY, DAY.plusDays(1), origin, DELHI));
+        }
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(loads);
+        loadMatchIndex.warmUp();
+
+        // Act
+        List<LoadDto> matched = loadMatchIndex.match("Container", null, null, MUMBAI, 500, null, 0, 1000);
+
+        // Assert
+        assertEquals(loads.size(), matched.size());
+        for (int i = 1; i < matched.size(); i++) {
+            assertTrue(distanceFromMumbai(matched.get(i - 1)) <= distanceFromMumbai(matched.get(i)));
+        }
+    }
+
+    @Test
+    void match_IntervalTreeAgreesWithLinearScan() {
+        // Arrange
+        Random random = new Random(42);
+        List<LoadDto> loads = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime start = DAY.plusHours(random.nextInt(24 * 60));
+            loads.add(load("Container", start, start.plusHours(1 + random.nextInt(24 * 5)), null, null));
+        }
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(loads);
+        loadMatchIndex.warmUp();
+
+        for (int q = 0; q < 50; q++) {
+            LocalDateTime from = DAY.plusHours(random.nextInt(24 * 65));
+            LocalDateTime to = from.plusHours(random.nextInt(48));
+
+            // Act
+            List<UUID> matched = ids(loadMatchIndex.match("Container", from, to, null, 0, null, 0, 1000));
+
+            // Assert
+            List<UUID> expected = loads.stream()
+                    .filter(l -> !l.getFacility().getLoadingDate().isAfter(to)
+                            && !l.getFacility().getUnloadingDate().isBefore(from))
+                    .map(LoadDto::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected.size(), matched.size());
+            assertTrue(matched.containsAll(expected));
+        }
+    }
+
+    private static LoadDto load(String truckType, LocalDateTime loading, LocalDateTime unloading,
+                                GeoPoint origin, GeoPoint destination) {
+        FacilityDto facility = new FacilityDto("A", "B", loading, unloading,
+                origin != null ? origin.getLatitude() : null, origin != null ? origin.getLongitude() : null,
+                destination != null ? destination.getLatitude() : null,
+                destination != null ? destination.getLongitude() : null);
+        LoadDto load = new LoadDto("SHIPPER001", facility, "Steel", truckType, 1, 1000.0, null);
+        load.setId(UUID.randomUUID());
+        load.setStatus(LoadStatus.POSTED);
+        return load;
+    }
+
+    @Test
+    void match_GridAgreesWithLinearScanAcrossHemispheres() {
+        // Arrange
+        Random random = new Random(7);
+        List<LoadDto> loads = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            GeoPoint origin = new GeoPoint(-10 + random.nextInt(2000) / 100.0, -10 + random.nextInt(2000) / 100.0);
+            loads.add(load("Container", DAY, DAY.plusDays(1), origin, DELHI));
+        }
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(loads);
+        loadMatchIndex.warmUp();
+
+        for (int q = 0; q < 30; q++) {
+            GeoPoint center = new GeoPoint(-10 + random.nextInt(20), -10 + random.nextInt(20));
+            double radiusKm = 50 + random.nextInt(500);
+
+            // Act
+            List<UUID> matched = ids(loadMatchIndex.match("Container", null, null, center, radiusKm, null, 0, 1000));
+
+            // Assert
+            List<UUID> expected = loads.stream()
+                    .filter(l -> GeoMath.distanceKm(center.getLatitude(), center.getLongitude(),
+                            l.getFacility().getLoadingLatitude(), l.getFacility().getLoadingLongitude()) <= radiusKm)
+                    .map(LoadDto::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected.size(), matched.size());
+            assertTrue(matched.containsAll(expected));
+        }
+    }
+
+    @Test
+    void match_HugeRadiusVisitsWholeGridOnce() {
+        // Arrange
+        LoadDto fromMumbai = load("Container", DAY, DAY.plusDays(1), MUMBAI, DELHI);
+        LoadDto fromDelhi = load("Container", DAY, DAY.plusDays(1), DELHI, MUMBAI);
+        when(loadRepository.findDtosByStatus(LoadStatus.POSTED)).thenReturn(List.of(fromMumbai, fromDelhi));
+        loadMatchIndex.warmUp();
+
+        // Act
+        List<LoadDto> result = loadMatchIndex.match("Container", null, null, MUMBAI, Double.POSITIVE_INFINITY,
+                null, 0, 10);
+
+        // Assert
+        assertEquals(List.of(fromMumbai.getId(), fromDelhi.getId()), ids(result));
+    }
+
+    private static double distanceFromMumbai(LoadDto load) {
+        return GeoMath.distanceKm(MUMBAI.getLatitude(), MUMBAI.getLongitude(),
+                load.getFacility().getLoadingLatitude(), load.getFacility().getLoadingLongitude());
+    }
+
+    private static List<UUID> ids(List<LoadDto> loads) {
+        return loads.stream().map(LoadDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,261 @@
+package com.cargopro.ranking;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.LoadDto;
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.LoadStatus;
+import com.cargopro.event.BookingChangedEvent;
+import com.cargopro.event.LoadChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingRankingTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 15, 0, 0);
+
+    private final UUID loadId = UUID.randomUUID();
+
+    // Stands in for the database: the pending bids of the load
+    private final List<BookingDto> pending = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private Optional<LoadStatus> loadStatus = Optional.of(LoadStatus.POSTED);
+    private final Supplier<Optional<LoadStatus>> status = () -> loadStatus;
+    private final IntFunction<List<BookingDto>> loader = count -> {
+        loads.incrementAndGet();
+        return pending.stream().sorted(BookingRanking.BEST_FIRST).limit(count).collect(Collectors.toList());
+    };
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private BookingRanking bookingRanking;
+
+    @BeforeEach
+    void setUp() {
+        bookingRanking = new BookingRanking();
+        ReflectionTestUtils.setField(bookingRanking, "topK", 3);
+        ReflectionTestUtils.setField(bookingRanking, "nanoClock", (LongSupplier) nanoTime::get);
+    }
+
+    @Test
+    void top_LoadsOnceThenFollowsChanges() {
+        // Arrange
+        BookingDto high = bid(5000.0, 0);
+        BookingDto low = bid(4000.0, 1);
+        save(high);
+        save(low);
+
+        // Act & Assert
+        assertEquals(List.of(low.getId(), high.getId()), ids(bookingRanking.top(loadId, 10, status, loader)));
+
+        BookingDto lowest = bid(3000.0, 2);
+        save(lowest);
+        BookingDto tiedWithLowest = bid(3000.0, 3);
+        save(tiedWithLowest);
+        assertEquals(List.of(lowest.getId(), tiedWithLowest.getId(), low.getId()),
+                ids(bookingRanking.top(loadId, 10, status, loader)));
+        assertEquals(List.of(lowest.getId()), ids(bookingRanking.top(loadId, 1, status, loader)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onBookingChanged_ReloadsWhenKeptBidLeavesTruncatedLoad() {
+        // Arrange
+        List<BookingDto> bids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bids.add(bid(1000.0 + i, i));
+            pending.add(bids.get(i));
+        }
+        bookingRanking.top(loadId, 3, status, loader);
+
+        // Act: reject the best bid; the fourth best moves up but was not kept
+        BookingDto rejected = bids.get(0);
+        rejected.setStatus(BookingStatus.REJECTED);
+        pending.remove(rejected);
+        bookingRanking.onBookingChanged(BookingChangedEvent.saved(rejected));
+
+        // Assert
+        assertEquals(List.of(bids.get(1).getId(), bids.get(2).getId(), bids.get(3).getId()),
+                ids(bookingRanking.top(loadId, 3, status, loader)));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void onBookingChanged_RepricedBidMovesWithoutReload() {
+        // Arrange
+        BookingDto first = bid(1000.0, 0);
+        BookingDto second = bid(2000.0, 1);
+        save(first);
+        save(second);
+        bookingRanking.top(loadId, 3, status, loader);
+
+        // Act
+        BookingDto repriced = bid(500.0, 1);
+        repriced.setId(second.getId());
+        bookingRanking.onBookingChanged(BookingChangedEvent.saved(repriced));
+        bookingRanking.onBookingChanged(BookingChangedEvent.deleted(first.getId(), loadId));
+
+        // Assert
+        List<BookingDto> top = bookingRanking.top(loadId, 3, status, loader);
+        assertEquals(List.of(second.getId()), ids(top));
+        assertEquals(500.0, top.get(0).getProposedRate());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onLoadChanged_ForgetsLoadsNoLongerPosted() {
+        // Arrange
+        save(bid(1000.0, 0));
+        bookingRanking.top(loadId, 3, status, loader);
+        LoadDto booked = new LoadDto();
+        booked.setId(loadId);
+        booked.setStatus(LoadStatus.BOOKED);
+
+        // Act
+        bookingRanking.onLoadChanged(LoadChangedEvent.saved(booked));
+
+        // Assert
+        assertEquals(0, bookingRanking.size());
+    }
+
+    @Test
+    void top_UnknownLoadIsNotRanked() {
+        // Arrange
+        loadStatus = Optional.empty();
+
+        // Act
+        List<BookingDto> top = bookingRanking.top(UUID.randomUUID(), 3, status, loader);
+
+        // Assert
+        assertTrue(top.isEmpty());
+        assertEquals(0, loads.get());
+        assertEquals(0, bookingRanking.size());
+    }
+
+    @Test
+    void top_LoadNotPostedIsReadButNotRanked() {
+        // Arrange
+        BookingDto pendingBid = bid(1000.0, 0);
+        pending.add(pendingBid);
+        loadStatus = Optional.of(LoadStatus.BOOKED);
+
+        // Act
+        List<BookingDto> top = bookingRanking.top(loadId, 3, status, loader);
+        bookingRanking.top(loadId, 3, status, loader);
+
+        // Assert
+        assertEquals(List.of(pendingBid.getId()), ids(top));
+        assertEquals(2, loads.get());
+        assertEquals(0, bookingRanking.size());
+    }
+
+    @Test
+    void top_ReloadsAfterTtl() {
+        // Arrange
+        save(bid(1000.0, 0));
+        bookingRanking.top(loadId, 3, status, loader);
+        // Committed through another instance, so never announced here
+        BookingDto elsewhere = bid(500.0, 1);
+        pending.add(elsewhere);
+
+        // Act & Assert
+        nanoTime.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertEquals(1, bookingRanking.top(loadId, 3, status, loader).size());
+        nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertEquals(elsewhere.getId(), bookingRanking.top(loadId, 3, status, loader).get(0).getId());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void top_DropsLeastRecentlyReadLoadPastMaxLoads() {
+        // Arrange
+        ReflectionTestUtils.setField(bookingRanking, "maxLoads", 2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        bookingRanking.top(first, 3, status, loader);
+        bookingRanking.top(second, 3, status, loader);
+        bookingRanking.top(first, 3, status, loader);
+
+        // Act
+        bookingRanking.top(UUID.randomUUID(), 3, status, loader);
+        bookingRanking.top(first, 3, status, loader);
+
+        // Assert: first stayed ranked, second was dropped
+        assertEquals(2, bookingRanking.size());
+        assertEquals(3, loads.get());
+        bookingRanking.top(second, 3, status, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void top_AgreesWithFullSortUnderRandomChanges() {
+        // Arrange
+        Random random = new Random(42);
+        List<BookingDto> all = new ArrayList<>();
+        bookingRanking.top(loadId, 3, status, loader);
+
+        for (int step = 0; step < 500; step++) {
+            // Act
+            int action = random.nextInt(3);
+            if (action == 0 || all.isEmpty()) {
+                BookingDto booking = bid(1000.0 + random.nextInt(50), step);
+                all.add(booking);
+                save(booking);
+            } else {
+                BookingDto booking = all.get(random.nextInt(all.size()));
+                BookingDto changed = bid(action == 1 ? 1000.0 + random.nextInt(50) : booking.getProposedRate(), step);
+                changed.setId(booking.getId());
+                changed.setRequestedAt(booking.getRequestedAt());
+                changed.setStatus(action == 1 ? BookingStatus.PENDING : BookingStatus.REJECTED);
+                all.set(all.indexOf(booking), changed);
+                pending.removeIf(b -> b.getId().equals(changed.getId()));
+                if (changed.getStatus() == BookingStatus.PENDING) {
+                    pending.add(changed);
+                }
+                bookingRanking.onBookingChanged(BookingChangedEvent.saved(changed));
+            }
+
+            // Assert
+            List<UUID> expected = pending.stream()
+                    .sorted(Comparator.comparing(BookingDto::getProposedRate)
+                            .thenComparing(BookingDto::getRequestedAt)
+                            .thenComparing(BookingDto::getId))
+                    .limit(3)
+                    .map(BookingDto::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, ids(bookingRanking.top(loadId, 3, status, loader)));
+        }
+    }
+
+    // Commit a new pending bid: in the database, then announced
+    private void save(BookingDto booking) {
+        pending.add(booking);
+        bookingRanking.onBookingChanged(BookingChangedEvent.saved(booking));
+    }
+
+    private BookingDto bid(double rate, int minute) {
+        return new BookingDto(UUID.randomUUID(), loadId, "TRANSPORTER" + minute, rate, null,
+                BookingStatus.PENDING, NOW.plusMinutes(minute), 0L, null);
+    }
+
+    private static List<UUID> ids(List<BookingDto> bookings) {
+        return bookings.stream().map(BookingDto::getId).collect(Collectors.toList());
+    }
+}
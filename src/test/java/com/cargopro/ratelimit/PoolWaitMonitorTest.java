@@ -0,0 +1,65 @@
+package com.cargopro.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class PoolWaitMonitorTest {
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private PoolWaitMonitor poolWaitMonitor;
+
+    private Timer acquire;
+    private Counter timeouts;
+
+    @BeforeEach
+    void setUp() {
+        // Sample on every call
+        ReflectionTestUtils.setField(poolWaitMonitor, "sampleInterval", Duration.ZERO);
+        acquire = meterRegistry.timer("hikaricp.connections.acquire", "pool", "cargopro-pool");
+        timeouts = meterRegistry.counter("hikaricp.connections.timeout", "pool", "cargopro-pool");
+    }
+
+    @Test
+    void isSaturated_FollowsMeanWaitSinceLastSample() {
+        // Arrange
+        acquire.record(Duration.ofMillis(2));
+        acquire.record(Duration.ofMillis(4));
+
+        // Act & Assert
+        assertFalse(poolWaitMonitor.isSaturated());
+
+        acquire.record(Duration.ofMillis(150));
+        acquire.record(Duration.ofMillis(250));
+        assertTrue(poolWaitMonitor.isSaturated());
+
+        acquire.record(Duration.ofMillis(5));
+        assertFalse(poolWaitMonitor.isSaturated());
+    }
+
+    @Test
+    void isSaturated_OnTimeouts() {
+        // Arrange
+        poolWaitMonitor.isSaturated();
+        timeouts.increment();
+
+        // Act & Assert
+        assertTrue(poolWaitMonitor.isSaturated());
+        assertFalse(poolWaitMonitor.isSaturated());
+    }
+}
@@ -0,0 +1,133 @@
+package com.cargopro.ratelimit;
+
+import com.cargopro.exception.RateLimitExceededException;
+import com.cargopro.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitInterceptorTest {
+
+    @Spy
+    private StripedTokenBuckets requestTokenBuckets = new StripedTokenBuckets(1, 2, 1024, () -> 0L);
+
+    @Spy
+    private StripedTokenBuckets addressTokenBuckets = new StripedTokenBuckets(1, 8, 1024, () -> 0L);
+
+    @Mock
+    private PoolWaitMonitor poolWaitMonitor;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private RateLimitInterceptor rateLimitInterceptor;
+
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+    }
+
+    @Test
+    void preHandle_LimitsEachTenantSeparately() {
+        // Act & Assert
+        assertTrue(preHandle(request("GET", "/load", "shipperId", "S1")));
+        assertTrue(preHandle(request("GET", "/load", "shipperId", "S1")));
+        RateLimitExceededException exception = assertThrows(RateLimitExceededException.class,
+                () -> preHandle(request("GET", "/load", "shipperId", "S1")));
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertTrue(preHandle(request("GET", "/load", "shipperId", "S2")));
+        assertTrue(preHandle(request("GET", "/load/{loadId}", "shipperId", "S1")));
+        assertEquals(1.0, meterRegistry.counter("cargopro.requests.rejected", "reason", "rate-limit").count());
+    }
+
+    @Test
+    void preHandle_KeysTenantOnAddress() {
+        // Arrange: another client naming the victim's tenant
+        MockHttpServletRequest attack = request("GET", "/load", "shipperId", "S1");
+        attack.setRemoteAddr("10.0.0.66");
+
+        // Act & Assert
+        assertTrue(preHandle(attack));
+        assertTrue(preHandle(attack));
+        assertThrows(RateLimitExceededException.class, () -> preHandle(attack));
+        assertTrue(preHandle(request("GET", "/load", "shipperId", "S1")));
+    }
+
+    @Test
+    void preHandle_LimitsAddressAcrossTenants() {
+        // Act & Assert: a fresh tenant id per request still spends the address's bucket
+        for (int i = 0; i < 8; i++) {
+            assertTrue(preHandle(request("GET", "/load", "shipperId", "S" + i)));
+        }
+        assertThrows(RateLimitExceededException.class, () -> preHandle(request("GET", "/load", "shipperId", "S8")));
+        assertEquals(1.0, meterRegistry.counter("cargopro.requests.rejected", "reason", "address-rate-limit").count());
+    }
+
+    @Test
+    void preHandle_CapsWritesInFlight() {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimitInterceptor, "maxConcurrentWrites", 1);
+        MockHttpServletRequest first = request("POST", "/booking", "transporterId", "T1");
+
+        // Act & Assert
+        assertTrue(preHandle(first));
+        assertThrows(ServiceUnavailableException.class, () -> preHandle(request("POST", "/booking", null, null)));
+        assertTrue(preHandle(request("GET", "/booking", "transporterId", "T1")));
+
+        rateLimitInterceptor.afterCompletion(first, new MockHttpServletResponse(), handler, null);
+        assertTrue(preHandle(request("POST", "/booking", null, null)));
+    }
+
+    @Test
+    void preHandle_CountsBatchGetAsRead() {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimitInterceptor, "maxConcurrentWrites", 0);
+
+        // Act & Assert
+        assertTrue(preHandle(request("POST", "/load/batch-get", "shipperId", "S1")));
+        assertTrue(preHandle(request("POST", "/booking/batch-get", "transporterId", "T1")));
+        assertThrows(ServiceUnavailableException.class, () -> preHandle(request("POST", "/load", null, null)));
+    }
+
+    @Test
+    void preHandle_ShedsWhilePoolSaturated() {
+        // Arrange
+        when(poolWaitMonitor.isSaturated()).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ServiceUnavailableException.class, () -> preHandle(request("GET", "/load", "shipperId", "S1")));
+        verifyNoInteractions(requestTokenBuckets, addressTokenBuckets);
+    }
+
+    private boolean preHandle(MockHttpServletRequest request) {
+        return rateLimitInterceptor.preHandle(request, new MockHttpServletResponse(), handler);
+    }
+
+    private static MockHttpServletRequest request(String method, String pattern, String parameter, String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        if (parameter != null) {
+            request.setParameter(parameter, value);
+        }
+        return request;
+    }
+}
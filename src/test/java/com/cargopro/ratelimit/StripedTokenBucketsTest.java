@@ -0,0 +1,85 @@
+package com.cargopro.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void tryAcquire_BurstThenRate() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(-5 * SECOND);
+        StripedTokenBuckets buckets = new StripedTokenBuckets(10, 5, 1024, clock::get);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, buckets.tryAcquire("shipper:S1 GET /load"));
+        }
+        assertEquals(SECOND / 10, buckets.tryAcquire("shipper:S1 GET /load"));
+        assertEquals(0, buckets.tryAcquire("shipper:S2 GET /load"));
+
+        clock.addAndGet(SECOND / 20);
+        assertEquals(SECOND / 20, buckets.tryAcquire("shipper:S1 GET /load"));
+        clock.addAndGet(SECOND / 20);
+        assertEquals(0, buckets.tryAcquire("shipper:S1 GET /load"));
+        assertTrue(buckets.tryAcquire("shipper:S1 GET /load") > 0);
+
+        // Idle buckets fill up to the burst, not beyond
+        clock.addAndGet(60 * SECOND);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, buckets.tryAcquire("shipper:S1 GET /load"));
+        }
+        assertTrue(buckets.tryAcquire("shipper:S1 GET /load") > 0);
+    }
+
+    @Test
+    void tryAcquire_RoundsStripesToPowerOfTwo() {
+        // Act
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, 1, 1000, System::nanoTime);
+
+        // Assert
+        assertEquals(1024, buckets.stripes());
+        assertThrows(IllegalArgumentException.class, () -> new StripedTokenBuckets(0, 1, 16, System::nanoTime));
+    }
+
+    @Test
+    void tryAcquire_ConcurrentCallersNeverExceedBurst() throws Exception {
+        // Arrange
+        StripedTokenBuckets buckets = new StripedTokenBuckets(0.001, 100, 16, () -> 0L);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (buckets.tryAcquire("transporter:T1 POST /booking") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(100, granted.get());
+    }
+}
@@ -0,0 +1,259 @@
+package com.cargopro.repository;
+
+import com.cargopro.dto.BookingFilter;
+import com.cargopro.dto.LoadFilter;
+import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.LoadStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the filter combinations of {@code GET /load} and {@code GET /booking}
+ * are answered from an index. The SQL Hibernate generates is captured, prepared and
+ * explained with {@code plan_cache_mode = force_generic_plan}, which is the plan
+ * PgJDBC ends up reusing for server-side prepared statements. Partition pruning is
+ * switched off so the plan lists every partition instead of the ones the (unbound)
+ * parameters would leave.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.cargopro.repository.FilterQueryPlanTest$CapturingStatementInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional
+class FilterQueryPlanTest {
+
+    @Autowired
+    private LoadRepository loadRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        // Enough rows, with statistics, for the planner to prefer the indexes; rolled back after each test
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO loads (id, shipper_id, loading_point, unloading_point, loading_date, "
+                        + "unloading_date, product_type, truck_type, no_of_trucks, weight, date_posted, status) "
+                        + "SELECT gen_random_uuid(), 'SHIPPER' || (i % 200), 'Mumbai', 'Delhi', t.at, "
+                        + "t.at + INTERVAL '2 days', 'Product' || (i % 50), 'Truck' || (i % 20), 1 + i % 5, "
+                        + "1000 + i % 30000, t.at - INTERVAL '3 days', (ARRAY['POSTED', 'BOOKED', 'CANCELLED'])[1 + i % 3] "
+                        + "FROM generate_series(1, 20000) i, "
+                        + "LATERAL (SELECT TIMESTAMP '2024-01-01' + i * INTERVAL '1 hour' AS at) t");
+                statement.execute("INSERT INTO bookings (id, load_id, transporter_id, proposed_rate, status, requested_at) "
+                        + "SELECT gen_random_uuid(), l.id, 'TRANSPORTER' || (l.n % 500), 1000, "
+                        + "(ARRAY['PENDING', 'ACCEPTED', 'REJECTED'])[1 + l.n % 3], "
+                        + "date_trunc('month', LOCALTIMESTAMP) + (l.n % 2880) * INTERVAL '1 hour' "
+                        + "FROM (SELECT id, row_number() OVER () AS n FROM loads) l");
+                statement.execute("ANALYZE loads");
+                statement.execute("ANALYZE bookings");
+            }
+        });
+        CapturingStatementInspector.STATEMENTS.get().clear();
+    }
+
+    @Test
+    void findLoads_NoFilter_UsesDatePostedIndex() {
+        // Act
+        String plan = explain(() -> loadRepository.findLoads(new LoadFilter(), PageRequest.of(0, 10)));
+
+        // Assert
+        assertUsesIndex(plan, "idx_loads_date_posted");
+    }
+
+    @Test
+    void findLoads_ByShipper_UsesShipperIndex() {
+        // Arrange
+        LoadFilter filter = new LoadFilter();
+        filter.setShipperId("SHIPPER001");
+
+        // Act
+        String plan = explain(() -> loadRepository.findLoads(filter, PageRequest.of(0, 10)));
+
+        // Assert
+        assertUsesIndex(plan, "idx_loads_shipper_date_posted");
+    }
+
+    @Test
+    void findLoads_ByTruckTypeAndStatus_UsesTruckTypeStatusIndex() {
+        // Arrange
+        LoadFilter filter = new LoadFilter();
+        filter.setTruckType("Container");
+        filter.setStatus(List.of(LoadStatus.POSTED));
+
+        // Act
+        String plan = explain(() -> loadRepository.findLoads(filter, PageRequest.of(0, 10)));
+
+        // Assert
+        assertUsesIndex(plan, "idx_loads_truck_type_status_date_posted");
+    }
+
+    @Test
+    void findLoads_ByStatusAndLoadingWindow_UsesStatusIndex() {
+        // Arrange
+        LoadFilter filter = new LoadFilter();
+        filter.setStatus(List.of(LoadStatus.POSTED, LoadStatus.BOOKED));
+        filter.setLoadingFrom(LocalDateTime.of(2024, 2, 1, 0, 0));
+        filter.setLoadingTo(LocalDateTime.of(2024, 2, 7, 0, 0));
+
+        // Act
+        String plan = explain(() -> loadRepository.findLoads(filter, PageRequest.of(0, 10)));
+
+        // Assert
+        assertNoSeqScan(plan);
+        assertTrue(plan.contains("idx_loads_status_"), plan);
+    }
+
+    @Test
+    void findBookings_NoFilter_UsesRequestedAtIndex() {
+        // Act
+        String plan = explain(() -> bookingRepository.findBookings(new BookingFilter(), PageRequest.of(0, 10)));
+
+        // Assert
+        assertNoSeqScan(plan);
+        assertTrue(plan.contains("_requested_at_idx"), plan);
+    }
+
+    @Test
+    void findBookings_ByLoad_UsesLoadIndex() {
+        // Arrange
+        BookingFilter filter = new BookingFilter();
+        filter.setLoadId(UUID.randomUUID());
+        filter.setRequestedFrom(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        // Act
+        String plan = explain(() -> bookingRepository.findBookings(filter, PageRequest.of(0, 10)));
+
+        // Assert
+        assertIndexCondition(plan, "load_id");
+    }
+
+    @Test
+    void findBookings_ByTransporterAndStatus_UsesTransporterIndex() {
+        // Arrange
+        BookingFilter filter = new BookingFilter();
+        filter.setTransporterId("TRANSPORTER001");
+        filter.setStatus(List.of(BookingStatus.PENDING));
+
+        // Act
+        String plan = explain(() -> bookingRepository.findBookingsWithLoad(filter, PageRequest.of(0, 10)));
+
+        // Assert
+        assertIndexCondition(plan, "transporter_id", "status");
+    }
+
+    @Test
+    void findBookings_ByStatus_UsesStatusIndex() {
+        // Arrange
+        BookingFilter filter = new BookingFilter();
+        filter.setStatus(List.of(BookingStatus.PENDING, BookingStatus.ACCEPTED));
+        filter.setRequestedFrom(LocalDateTime.of(2024, 1, 1, 0, 0));
+        filter.setRequestedTo(LocalDateTime.of(2024, 2, 1, 0, 0));
+
+        // Act
+        String plan = explain(() -> bookingRepository.findBookings(filter, PageRequest.of(0, 10)));
+
+        // Assert
+        assertIndexCondition(plan, "status", "requested_at");
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertNoSeqScan(plan);
+        assertTrue(plan.contains(" " + index + " "), plan);
+    }
+
+    // Empty relations, such as partitions for months without bookings, cost nothing to scan either way
+    private static void assertNoSeqScan(String plan) {
+        assertTrue(plan.lines().filter(line -> line.contains("Seq Scan"))
+                .allMatch(line -> line.contains("(cost=0.00..0.00 ")), plan);
+    }
+
+    // Every partition is scanned through an index whose condition covers one of the filtered columns
+    private static void assertIndexCondition(String plan, String... columns) {
+        assertNoSeqScan(plan);
+        List<String> conditions = plan.lines()
+                .map(String::trim)
+                .filter(line -> line.startsWith("Index Cond: ") || line.startsWith("Recheck Cond: "))
+                .filter(line -> !line.contains("b1_0.load_id"))
+                .toList();
+        assertFalse(conditions.isEmpty(), plan);
+        for (String condition : conditions) {
+            assertTrue(List.of(columns).stream().anyMatch(column -> condition.contains(column + ")")
+                    || condition.contains(column + " ")), plan);
+        }
+    }
+
+    // Runs the query, then explains the generic plan of the first statement it sent
+    private String explain(Runnable query) {
+        query.run();
+        List<String> statements = CapturingStatementInspector.STATEMENTS.get();
+        assertFalse(statements.isEmpty(), "no SQL was captured");
+        String sql = statements.get(0);
+
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        StringJoiner arguments = new StringJoiner(", ", "(", ")");
+        for (int i = 0; i < parameters; i++) {
+            arguments.add("NULL");
+        }
+        String prepared = numbered.toString();
+        String execute = parameters > 0 ? "EXPLAIN EXECUTE filter_query" + arguments : "EXPLAIN EXECUTE filter_query";
+
+        StringBuilder plan = new StringBuilder();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+                statement.execute("SET LOCAL enable_partition_pruning = off");
+                statement.execute("PREPARE filter_query AS " + prepared);
+                try (ResultSet rows = statement.executeQuery(execute)) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("DEALLOCATE filter_query");
+            }
+        });
+        return plan.toString();
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.get().add(sql);
+            return sql;
+        }
+    }
+}
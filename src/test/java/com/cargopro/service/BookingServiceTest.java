@@ -1,32 +1,55 @@
 package com.cargopro.service;
 
+import com.cargopro.dto.AutoAcceptRule;
+import com.cargopro.dto.BatchGetResponse;
 import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingFilter;
+import com.cargopro.dto.ChangeSet;
+import com.cargopro.dto.ListVersion;
+import com.cargopro.dto.LoadDto;
 import com.cargopro.dto.PagedResponse;
 import com.cargopro.entity.Booking;
+import com.cargopro.entity.Load;
+import com.cargopro.entity.UuidV7Generator;
 import com.cargopro.enums.BookingStatus;
+import com.cargopro.enums.CountMode;
 import com.cargopro.enums.LoadStatus;
+import com.cargopro.event.BookingChangedEvent;
 import com.cargopro.exception.BusinessException;
 import com.cargopro.exception.ResourceNotFoundException;
+import com.cargopro.ranking.BookingRanking;
+import com.cargopro.repository.ArchiveRepository;
+import com.cargopro.repository.AutoAcceptRuleRepository;
 import com.cargopro.repository.BookingRepository;
+import com.cargopro.repository.ChangeCursor;
+import com.cargopro.repository.ChangeFeedRepository;
+import com.cargopro.repository.ChangeFeedRepository.Change;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.cargopro.service.BookingService.EARLIEST_REQUESTED_AT;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,9 +58,24 @@ class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchiveRepository archiveRepository;
+
     @Mock
     private LoadService loadService;
 
+    @Mock
+    private ChangeFeedRepository changeFeedRepository;
+
+    @Mock
+    private BookingRanking bookingRanking;
+
+    @Mock
+    private AutoAcceptRuleRepository autoAcceptRuleRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -73,7 +111,7 @@ class BookingServiceTest {
     void createBooking_Success() {
         // Arrange
         when(loadService.canAcceptBookings(testLoadId)).thenReturn(true);
-        when(bookingRepository.existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001")).thenReturn(false);
+        when(bookingRepository.existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001", EARLIEST_REQUESTED_AT)).thenReturn(false);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
 
         // Act
@@ -84,8 +122,10 @@ class BookingServiceTest {
         assertEquals(testBookingId, result.getId());
         assertEquals(BookingStatus.PENDING, result.getStatus());
         verify(loadService).canAcceptBookings(testLoadId);
-        verify(bookingRepository).existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001");
+        verify(bookingRepository).existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001", EARLIEST_REQUESTED_AT);
         verify(bookingRepository).save(any(Booking.class));
+        verify(eventPublisher).publishEvent(argThat((BookingChangedEvent event) ->
+                testBookingId.equals(event.getBookingId()) && testLoadId.equals(event.getLoadId())));
     }
 
     @Test
@@ -103,32 +143,162 @@ class BookingServiceTest {
     void createBooking_TransporterAlreadyBooked() {
         // Arrange
         when(loadService.canAcceptBookings(testLoadId)).thenReturn(true);
-        when(bookingRepository.existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001")).thenReturn(true);
+        when(bookingRepository.existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001", EARLIEST_REQUESTED_AT)).thenReturn(true);
 
         // Act & Assert
         assertThrows(BusinessException.class, () -> bookingService.createBooking(testBookingDto));
         verify(loadService).canAcceptBookings(testLoadId);
-        verify(bookingRepository).existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001");
+        verify(bookingRepository).existsByLoadIdAndTransporterId(testLoadId, "TRANSPORTER001", EARLIEST_REQUESTED_AT);
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    void createBookings_ChecksRulesOncePerLoad() {
+        // Arrange
+        UUID missingLoadId = UUID.randomUUID();
+        UUID bookedLoadId = UUID.randomUUID();
+        List<BookingDto> bids = List.of(
+                new BookingDto(testLoadId, "T1", 100.0, null),
+                new BookingDto(missingLoadId, "T1", 100.0, null),
+                new BookingDto(testLoadId, "T2", 110.0, null),
+                new BookingDto(testLoadId, "T1", 120.0, null),
+                new BookingDto(bookedLoadId, "T1", 100.0, null),
+                new BookingDto(testLoadId, "T3", 130.0, null));
+        when(loadService.findStatus(testLoadId)).thenReturn(Optional.of(LoadStatus.POSTED));
+        when(loadService.findStatus(missingLoadId)).thenReturn(Optional.empty());
+        when(loadService.findStatus(bookedLoadId)).thenReturn(Optional.of(LoadStatus.BOOKED));
+        when(bookingRepository.findTransporterIdsByLoadId(eq(testLoadId), any(), eq(EARLIEST_REQUESTED_AT)))
+                .thenReturn(List.of("T3"));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(booking -> booking.setId(UUID.randomUUID()));
+            return bookings;
+        });
+
+        // Act
+        List<BookingOutcome> outcomes = bookingService.createBookings(bids);
+
+        // Assert
+        assertEquals(6, outcomes.size());
+        assertEquals("T1", outcomes.get(0).getBooking().getTransporterId());
+        assertEquals(BookingStatus.PENDING, outcomes.get(0).getBooking().getStatus());
+        assertEquals("Load not found with id : '" + missingLoadId + "'", outcomes.get(1).getError());
+        assertEquals("T2", outcomes.get(2).getBooking().getTransporterId());
+        assertEquals("Transporter has already booked this load", outcomes.get(3).getError());
+        assertEquals("Load is not available for booking", outcomes.get(4).getError());
+        assertEquals("Transporter has already booked this load", outcomes.get(5).getError());
+        verify(loadService).findStatus(testLoadId);
+        verify(bookingRepository).findTransporterIdsByLoadId(testLoadId, Set.of("T1", "T2", "T3"), EARLIEST_REQUESTED_AT);
+        verify(bookingRepository).saveAll(argThat((List<Booking> bookings) -> bookings.size() == 2));
+        verify(eventPublisher, times(2)).publishEvent(any(BookingChangedEvent.class));
+        verify(loadService, never()).canAcceptBookings(any());
+    }
+
     @Test
     void getBookings_Success() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> bookings = Arrays.asList(testBooking);
-        Page<Booking> bookingPage = new PageImpl<>(bookings, pageable, 1);
+        testBookingDto.setId(testBookingId);
+        List<BookingDto> bookings = Arrays.asList(testBookingDto);
+        Slice<BookingDto> bookingSlice = new SliceImpl<>(bookings, pageable, false);
+        BookingFilter filter = new BookingFilter();
+        filter.setLoadId(testLoadId);
+        filter.setTransporterId("TRANSPORTER001");
+        filter.setStatus(List.of(BookingStatus.PENDING));
         
-        when(bookingRepository.findBookingsWithFilters(any(), any(), any(), any())).thenReturn(bookingPage);
+        when(bookingRepository.findBookings(any(), any())).thenReturn(bookingSlice);
 
         // Act
-        PagedResponse<BookingDto> result = bookingService.getBookings(testLoadId, "TRANSPORTER001", BookingStatus.PENDING, 0, 10);
+        PagedResponse<BookingDto> result = bookingService.getBookings(filter, CountMode.EXACT, 0, 10, false);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals(1, result.getTotalElements());
-        verify(bookingRepository).findBookingsWithFilters(testLoadId, "TRANSPORTER001", BookingStatus.PENDING, pageable);
+        verify(bookingRepository).findBookings(filter, pageable);
+        assertEquals(EARLIEST_REQUESTED_AT, filter.getRequestedFrom());
+        assertNull(filter.getRequestedTo());
+    }
+
+    @Test
+    void getBookings_InvalidRange() {
+        // Arrange
+        BookingFilter filter = new BookingFilter();
+        filter.setRequestedFrom(LocalDateTime.of(2024, 2, 1, 0, 0));
+        filter.setRequestedTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> bookingService.getBookings(filter, CountMode.EXACT, 0, 10, false));
+        assertEquals("Invalid requested date range: lower bound is after upper bound", exception.getMessage());
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getBookingsVersion_NarrowedByLoad() {
+        // Arrange
+        BookingFilter filter = new BookingFilter();
+        filter.setLoadId(testLoadId);
+        ListVersion version = new ListVersion(2, 740, new long[] {731});
+        when(bookingRepository.findBookingsVersion(filter)).thenReturn(version);
+
+        // Act
+        ListVersion result = bookingService.getBookingsVersion(filter);
+
+        // Assert
+        assertSame(version, result);
+        assertEquals(EARLIEST_REQUESTED_AT, filter.getRequestedFrom());
+        verify(bookingRepository, never()).findBookings(any(), any());
+    }
+
+    @Test
+    void getBookingsVersion_InvalidRange() {
+        // Arrange
+        BookingFilter filter = new BookingFilter();
+        filter.setRequestedFrom(LocalDateTime.of(2024, 3, 10, 12, 0));
+        filter.setRequestedTo(LocalDateTime.of(2024, 3, 9, 12, 0));
+
+        // Act & Assert
+        assertThrows(BusinessException.class, () -> bookingService.getBookingsVersion(filter));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void getBookingChanges_SkipsRowsDeletedSinceRead() {
+        // Arrange
+        UUID goneId = UUID.randomUUID();
+        testBookingDto.setId(testBookingId);
+        ChangeCursor since = ChangeCursor.from(40);
+        when(changeFeedRepository.currentHorizon()).thenReturn(30L);
+        when(changeFeedRepository.findBookingChanges(since, 30L, 11)).thenReturn(List.of(
+                new Change(testBookingId, false, ChangeCursor.after(41, testBookingId)),
+                new Change(goneId, false, ChangeCursor.after(42, goneId))));
+        when(bookingRepository.findDtosByIdIn(List.of(testBookingId, goneId))).thenReturn(List.of(testBookingDto));
+
+        // Act
+        ChangeSet<BookingDto> result = bookingService.getBookingChanges(since.encode(), 10);
+
+        // Assert
+        assertEquals(List.of(testBookingDto), result.getChanged());
+        assertTrue(result.getDeleted().isEmpty());
+        // Already past this snapshot's horizon, so the token stays where it was
+        assertEquals(since, ChangeCursor.parse(result.getNextToken()));
+    }
+
+    @Test
+    void getBookingsByIds_ReportsMissing() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        testBookingDto.setId(testBookingId);
+        when(bookingRepository.findDtosByIdIn(List.of(testBookingId, missingId))).thenReturn(List.of(testBookingDto));
+        when(archiveRepository.findBookingsByIdIn(List.of(missingId))).thenReturn(List.of());
+
+        // Act
+        BatchGetResponse<BookingDto> result = bookingService.getBookingsByIds(List.of(testBookingId, missingId));
+
+        // Assert
+        assertEquals(List.of(testBookingDto), result.getFound());
+        assertEquals(List.of(missingId), result.getMissing());
     }
 
     @Test
@@ -146,6 +316,24 @@ class BookingServiceTest {
         verify(bookingRepository).findById(testBookingId);
     }
 
+    @Test
+    void getBookingById_TimeOrderedId_ProbesPartitionsAroundCreation() {
+        // Arrange
+        UUID id = UuidV7Generator.next();
+        LocalDateTime created = LocalDateTime.ofInstant(UuidV7Generator.timestampOf(id).orElseThrow(),
+                ZoneId.systemDefault());
+        testBooking.setId(id);
+        when(bookingRepository.findByIdAndRequestedAtBetween(id, created.minusDays(2), created.plusDays(2)))
+                .thenReturn(Optional.of(testBooking));
+
+        // Act
+        BookingDto result = bookingService.getBookingById(id);
+
+        // Assert
+        assertEquals(id, result.getId());
+        verify(bookingRepository, never()).findById(any());
+    }
+
     @Test
     void getBookingById_NotFound() {
         // Arrange
@@ -156,6 +344,22 @@ class BookingServiceTest {
         verify(bookingRepository).findById(testBookingId);
     }
 
+    @Test
+    void getBookingById_FromArchive() {
+        // Arrange
+        BookingDto archived = new BookingDto();
+        archived.setId(testBookingId);
+        when(bookingRepository.findById(testBookingId)).thenReturn(Optional.empty());
+        when(archiveRepository.findBookingById(testBookingId)).thenReturn(Optional.of(archived));
+
+        // Act
+        BookingDto result = bookingService.getBookingById(testBookingId);
+
+        // Assert
+        assertEquals(testBookingId, result.getId());
+        verify(archiveRepository).findBookingById(testBookingId);
+    }
+
     @Test
     void updateBooking_Success() {
         // Arrange
@@ -203,7 +407,7 @@ class BookingServiceTest {
     void deleteBooking_Success() {
         // Arrange
         when(bookingRepository.findById(testBookingId)).thenReturn(Optional.of(testBooking));
-        when(bookingRepository.countActiveBookingsByLoadId(testLoadId)).thenReturn(0L);
+        when(bookingRepository.countActiveBookingsByLoadId(testLoadId, EARLIEST_REQUESTED_AT)).thenReturn(0L);
         doNothing().when(bookingRepository).delete(testBooking);
 
         // Act
@@ -213,6 +417,7 @@ class BookingServiceTest {
         verify(bookingRepository).findById(testBookingId);
         verify(bookingRepository).delete(testBooking);
         verify(loadService).revertLoadStatusToPosted(testLoadId);
+        verify(eventPublisher).publishEvent(argThat((BookingChangedEvent event) -> event.isDeleted()));
     }
 
     @Test
@@ -232,7 +437,7 @@ class BookingServiceTest {
         when(bookingRepository.findById(testBookingId)).thenReturn(Optional.of(testBooking));
         when(loadService.canAcceptBookings(testLoadId)).thenReturn(true);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(bookingRepository.findByLoadIdAndStatus(testLoadId, BookingStatus.PENDING)).thenReturn(Arrays.asList(testBooking));
+        when(bookingRepository.findByLoadIdAndStatus(testLoadId, BookingStatus.PENDING, EARLIEST_REQUESTED_AT)).thenReturn(Arrays.asList(testBooking));
 
         // Act
         BookingDto result = bookingService.acceptBooking(testBookingId);
@@ -271,12 +476,86 @@ class BookingServiceTest {
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
+    @Test
+    void setAutoAcceptRule_AcceptsBestPendingBidUnderRate() {
+        // Arrange
+        AutoAcceptRule rule = new AutoAcceptRule(testLoadId, 6000.0, LocalDateTime.now());
+        BookingDto best = new BookingDto(testBookingId, testLoadId, "TRANSPORTER001", 5000.0, null,
+                BookingStatus.PENDING, testBooking.getRequestedAt(), 0L, null);
+        when(loadService.canAcceptBookings(testLoadId)).thenReturn(true);
+        when(autoAcceptRuleRepository.save(testLoadId, 6000.0)).thenReturn(rule);
+        when(bookingRepository.findPendingByLoadIdOrderByRate(testLoadId, EARLIEST_REQUESTED_AT, PageRequest.of(0, 1)))
+                .thenReturn(List.of(best));
+        when(bookingRepository.findById(testBookingId)).thenReturn(Optional.of(testBooking));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bookingRepository.findByLoadIdAndStatus(testLoadId, BookingStatus.PENDING, EARLIEST_REQUESTED_AT))
+                .thenReturn(List.of(testBooking));
+
+        // Act
+        AutoAcceptRule result = bookingService.setAutoAcceptRule(testLoadId, new AutoAcceptRule(null, 6000.0, null));
+
+        // Assert
+        assertEquals(6000.0, result.getMaxRate());
+        assertEquals(BookingStatus.ACCEPTED, testBooking.getStatus());
+        verify(loadService).updateLoadStatusToBooked(testLoadId);
+    }
+
+    @Test
+    void setAutoAcceptRule_LoadNotAvailable() {
+        // Arrange
+        when(loadService.canAcceptBookings(testLoadId)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(BusinessException.class,
+                () -> bookingService.setAutoAcceptRule(testLoadId, new AutoAcceptRule(null, 6000.0, null)));
+        verify(autoAcceptRuleRepository, never()).save(any(), anyDouble());
+    }
+
+    @Test
+    void applyAutoAcceptRule_OnlyBestBidAtOrUnderRate() {
+        // Arrange
+        when(autoAcceptRuleRepository.findByLoadId(testLoadId))
+                .thenReturn(Optional.of(new AutoAcceptRule(testLoadId, 4500.0, LocalDateTime.now())));
+        BookingDto overRate = new BookingDto(testBookingId, testLoadId, "TRANSPORTER001", 5000.0, null,
+                BookingStatus.PENDING, testBooking.getRequestedAt(), 0L, null);
+        BookingDto atRate = new BookingDto(testBookingId, testLoadId, "TRANSPORTER001", 4500.0, null,
+                BookingStatus.PENDING, testBooking.getRequestedAt(), 0L, null);
+        when(bookingRepository.findPendingByLoadIdOrderByRate(testLoadId, EARLIEST_REQUESTED_AT, PageRequest.of(0, 1)))
+                .thenReturn(List.of(overRate), List.of(atRate));
+        when(bookingRepository.findById(testBookingId)).thenReturn(Optional.of(testBooking));
+        when(loadService.canAcceptBookings(testLoadId)).thenReturn(true);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+
+        // Act
+        Optional<BookingDto> notAccepted = bookingService.applyAutoAcceptRule(testLoadId);
+        Optional<BookingDto> accepted = bookingService.applyAutoAcceptRule(testLoadId);
+
+        // Assert
+        assertTrue(notAccepted.isEmpty());
+        assertTrue(accepted.isPresent());
+        assertEquals(BookingStatus.ACCEPTED, accepted.get().getStatus());
+        verify(bookingRepository, times(1)).findById(testBookingId);
+    }
+
+    @Test
+    void applyAutoAcceptRule_NoRule() {
+        // Arrange
+        when(autoAcceptRuleRepository.findByLoadId(testLoadId)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<BookingDto> result = bookingService.applyAutoAcceptRule(testLoadId);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(bookingRepository, never()).findPendingByLoadIdOrderByRate(any(), any(), any());
+    }
+
     @Test
     void rejectBooking_Success() {
         // Arrange
         when(bookingRepository.findById(testBookingId)).thenReturn(Optional.of(testBooking));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
-        when(bookingRepository.countActiveBookingsByLoadId(testLoadId)).thenReturn(0L);
+        when(bookingRepository.countActiveBookingsByLoadId(testLoadId, EARLIEST_REQUESTED_AT)).thenReturn(0L);
 
         // Act
         BookingDto result = bookingService.rejectBooking(testBookingId);
@@ -304,24 +583,26 @@ class BookingServiceTest {
     @Test
     void getBookingsByLoadId_Success() {
         // Arrange
-        List<Booking> bookings = Arrays.asList(testBooking);
-        when(bookingRepository.findByLoadId(testLoadId)).thenReturn(bookings);
+        testBookingDto.setId(testBookingId);
+        List<BookingDto> bookings = Arrays.asList(testBookingDto);
+        when(bookingRepository.findDtosByLoadId(testLoadId, EARLIEST_REQUESTED_AT)).thenReturn(bookings);
 
         // Act
-        List<BookingDto> result = bookingService.getBookingsByLoadId(testLoadId);
+        List<BookingDto> result = bookingService.getBookingsByLoadId(testLoadId, false);
 
         // Assert
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testBookingId, result.get(0).getId());
-        verify(bookingRepository).findByLoadId(testLoadId);
+        verify(bookingRepository).findDtosByLoadId(testLoadId, EARLIEST_REQUESTED_AT);
     }
 
     @Test
     void getActiveBookingsByLoadId_Success() {
         // Arrange
-        List<Booking> bookings = Arrays.asList(testBooking);
-        when(bookingRepository.findActiveBookingsByLoadId(testLoadId)).thenReturn(bookings);
+        testBookingDto.setId(testBookingId);
+        List<BookingDto> bookings = Arrays.asList(testBookingDto);
+        when(bookingRepository.findActiveBookingsByLoadId(testLoadId, EARLIEST_REQUESTED_AT)).thenReturn(bookings);
 
         // Act
         List<BookingDto> result = bookingService.getActiveBookingsByLoadId(testLoadId);
@@ -330,6 +611,42 @@ class BookingServiceTest {
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(testBookingId, result.get(0).getId());
-        verify(bookingRepository).findActiveBookingsByLoadId(testLoadId);
+        verify(bookingRepository).findActiveBookingsByLoadId(testLoadId, EARLIEST_REQUESTED_AT);
+    }
+
+    @Test
+    void getBookingsByLoadId_ExpandLoad() {
+        // Arrange
+        Load load = new Load();
+        load.setId(testLoadId);
+        testBooking.setLoad(load);
+        LoadDto loadDto = new LoadDto();
+        loadDto.setId(testLoadId);
+        when(bookingRepository.findWithLoadByLoadId(testLoadId, EARLIEST_REQUESTED_AT)).thenReturn(Arrays.asList(testBooking));
+        when(loadService.convertToDto(load)).thenReturn(loadDto);
+
+        // Act
+        List<BookingDto> result = bookingService.getBookingsByLoadId(testLoadId, true);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(testBookingId, result.get(0).getId());
+        assertEquals(testLoadId, result.get(0).getLoad().getId());
+        verify(bookingRepository, never()).findDtosByLoadId(any(), any());
+    }
+
+    @Test
+    void getBookingsByLoadId_BoundedByLoadDatePosted() {
+        // Arrange
+        LocalDateTime datePosted = LocalDateTime.of(2024, 3, 15, 10, 0);
+        when(loadService.findDatePosted(testLoadId)).thenReturn(Optional.of(datePosted));
+        when(bookingRepository.findDtosByLoadId(testLoadId, datePosted.minusDays(1))).thenReturn(Arrays.asList(testBookingDto));
+
+        // Act
+        List<BookingDto> result = bookingService.getBookingsByLoadId(testLoadId, false);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(bookingRepository).findDtosByLoadId(testLoadId, datePosted.minusDays(1));
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package com.cargopro.service;
+
+import com.cargopro.dto.BookingDto;
+import com.cargopro.dto.BookingSubmission;
+import com.cargopro.enums.SubmissionStatus;
+import com.cargopro.event.BookingSubmittedEvent;
+import com.cargopro.exception.BusinessException;
+import com.cargopro.exception.ServiceUnavailableException;
+import com.cargopro.repository.BookingSubmissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSubmissionServiceTest {
+
+    @Mock
+    private BookingSubmissionRepository submissionRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    // Runs the callbacks as they come; the mocked manager has nothing to commit or roll back
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private BookingSubmissionService submissionService;
+
+    private BookingDto bid;
+
+    @BeforeEach
+    void setUp() {
+        bid = new BookingDto(UUID.randomUUID(), "TRANSPORTER001", 5000.0, "Test booking");
+    }
+
+    @Test
+    void submit_QueuesBid() {
+        // Arrange
+        when(submissionRepository.countQueued(10000)).thenReturn(3);
+        when(submissionRepository.insert(any(BookingSubmission.class))).thenReturn(true);
+
+        // Act
+        BookingSubmission result = submissionService.submit(bid, null);
+
+        // Assert
+        assertNotNull(result.getId());
+        assertEquals(SubmissionStatus.QUEUED, result.getStatus());
+        assertEquals(bid.getLoadId(), result.getLoadId());
+        assertNotNull(result.getSubmittedAt());
+        verify(eventPublisher).publishEvent(argThat((BookingSubmittedEvent event) ->
+                result.getId().equals(event.getSubmissionId())));
+        verify(submissionRepository, never()).findByIdempotencyKey(any());
+    }
+
+    @Test
+    void submit_RepeatedIdempotencyKey() {
+        // Arrange
+        BookingSubmission first = new BookingSubmission(UUID.randomUUID(), bid, "key-1");
+        when(submissionRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.of(first));
+        BookingDto otherBid = new BookingDto(bid.getLoadId(), "TRANSPORTER001", 6000.0, "Test booking");
+
+        // Act
+        BookingSubmission result = submissionService.submit(bid, "key-1");
+
+        // Assert
+        assertSame(first, result);
+        assertThrows(BusinessException.class, () -> submissionService.submit(otherBid, "key-1"));
+        verify(submissionRepository, never()).insert(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void submit_RejectsInvalidIdempotencyKey() {
+        // Act & Assert: the same rule as the idempotent create endpoints
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> submissionService.submit(bid, "k".repeat(IdempotencyKeys.MAX_LENGTH + 1)));
+        assertEquals("Idempotency-Key must be 1 to 255 characters", exception.getMessage());
+        assertThrows(BusinessException.class, () -> submissionService.submit(bid, " "));
+        verify(submissionRepository, never()).findByIdempotencyKey(any());
+        verify(submissionRepository, never()).insert(any());
+    }
+
+    @Test
+    void submit_QueueFull() {
+        // Arrange
+        when(submissionRepository.countQueued(10000)).thenReturn(10000);
+
+        // Act & Assert
+        ServiceUnavailableException exception = assertThrows(ServiceUnavailableException.class,
+                () -> submissionService.submit(bid, null));
+        assertEquals(Duration.ofSeconds(5), exception.getRetryAfter());
+        verify(submissionRepository, never()).insert(any());
+    }
+
+    @Test
+    void processBatch_RecordsOutcomes() {
+        // Arrange
+        BookingSubmission accepted = new BookingSubmission(UUID.randomUUID(), bid, null);
+        BookingSubmission refused = new BookingSubmission(UUID.randomUUID(), bid, null);
+        BookingDto booking = new BookingDto(bid.getLoadId(), "TRANSPORTER001", 5000.0, null);
+        booking.setId(UUID.randomUUID());
+        when(submissionRepository.claimQueued(100)).thenReturn(List.of(accepted, refused));
+        when(bookingService.createBookings(anyList())).thenReturn(List.of(BookingOutcome.created(booking),
+                BookingOutcome.rejected("Transporter has already booked this load")));
+
+        // Act
+        int processed = submissionService.processBatch();
+
+        // Assert
+        assertEquals(2, processed);
+        assertEquals(SubmissionStatus.CREATED, accepted.getStatus());
+        assertEquals(booking.getId(), accepted.getBookingId());
+        assertEquals(SubmissionStatus.REJECTED, refused.getStatus());
+        assertEquals("Transporter has already booked this load", refused.getError());
+        assertNotNull(refused.getProcessedAt());
+        verify(submissionRepository).complete(List.of(accepted, refused));
+    }
+
+    @Test
+    void processBatch_FailedBatchRetriedOneByOne() {
+        // Arrange
+        BookingSubmission good = new BookingSubmission(UUID.randomUUID(), bid, null);
+        BookingSubmission bad = new BookingSubmission(UUID.randomUUID(), bid, null);
+        BookingDto booking = new BookingDto(bid.getLoadId(), "TRANSPORTER001", 5000.0, null);
+        booking.setId(UUID.randomUUID());
+        when(submissionRepository.claimQueued(100)).thenReturn(List.of(good, bad));
+        when(submissionRepository.claimQueuedById(good.getId())).thenReturn(Optional.of(good));
+        when(submissionRepository.claimQueuedById(bad.getId())).thenReturn(Optional.of(bad));
+        when(bookingService.createBookings(anyList()))
+                .thenThrow(new DataIntegrityViolationException("batch"))
+                .thenReturn(List.of(BookingOutcome.created(booking)))
+                .thenThrow(new DataIntegrityViolationException("single"));
+
+        // Act
+        int processed = submissionService.processBatch();
+
+        // Assert
+        assertEquals(2, processed);
+        assertEquals(SubmissionStatus.CREATED, good.getStatus());
+        assertEquals(SubmissionStatus.REJECTED, bad.getStatus());
+        assertEquals("Booking could not be created", bad.getError());
+        verify(submissionRepository).complete(List.of(good));
+        verify(submissionRepository).complete(List.of(bad));
+    }
+
+    @Test
+    void processBatch_EmptyQueue() {
+        // Arrange
+        when(submissionRepository.claimQueued(100)).thenReturn(List.of());
+
+        // Act
+        int processed = submissionService.processBatch();
+
+        // Assert
+        assertEquals(0, processed);
+        verifyNoInteractions(bookingService);
+        verify(submissionRepository, never()).complete(any());
+    }
+}